@@ -0,0 +1,17 @@
+#!/bin/bash
+# This script compiles and runs the JMH benchmarks headless, with the GC profiler (allocation rate).
+# JMH_LIB must point to a folder holding jmh-core, jmh-generator-annprocess, jopt-simple and commons-math3;
+# the project's own jars are read from lib/. Extra arguments are passed to JMH, e.g.:
+#   JMH_LIB=~/jmh ./bench/run-benchmarks.sh InteractionBenchmark -p size=10000
+BENCH=$(dirname $(readlink -f $0))
+PROJECT=$(dirname $BENCH)
+if [ -z "$JMH_LIB" ]; then echo "Set JMH_LIB to the folder holding the JMH jars"; exit 1; fi
+OUT=${TMPDIR:-/tmp}/orbit-benchmarks
+CP="$PROJECT/lib/*:$JMH_LIB/*"
+rm -rf $OUT && mkdir -p $OUT
+javac --release 11 -cp "$CP" -d $OUT $(find $PROJECT/src $BENCH/src -name '*.java') || exit 1
+java -Djava.awt.headless=true -Dbench.data=$BENCH/data/sample-3le.txt \
+	--add-exports java.base/java.lang=ALL-UNNAMED \
+	--add-exports java.desktop/sun.awt=ALL-UNNAMED \
+	--add-exports java.desktop/sun.java2d=ALL-UNNAMED \
+	-cp "$OUT:$CP" org.openjdk.jmh.Main -prof gc "$@"
@@ -0,0 +1,114 @@
+package fr.isae.mae.ss.y2024;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Data shared by the benchmarks: the bundled sample 3LE records, larger catalogs made by repeating them, and
+ * catalogs of random current positions for the interaction benchmarks.
+ * <p>
+ * The sample file is bench/data/sample-3le.txt, or the file given by the bench.data system property.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+final class BenchmarkData {
+
+	private BenchmarkData() {} //static methods only
+
+	/**
+	 * Returns the bundled sample catalog.
+	 *
+	 * @return path of the sample 3LE file
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static Path sampleFile() {
+		return Paths.get(System.getProperty("bench.data", "bench/data/sample-3le.txt"));
+	}
+
+	/**
+	 * Parses the bundled sample catalog.
+	 *
+	 * @return records of the sample file, in order
+	 * @throws IOException if the file cannot be read
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static List<TleRecord> sampleRecords() throws IOException {
+		List<TleRecord> records = new ArrayList<>();
+		TleParser.parse(sampleFile(), records::add);
+		return records;
+	}
+
+	/**
+	 * Writes a temporary catalog made of the sample records repeated until a number of records is reached.
+	 *
+	 * @param records number of records of the catalog
+	 * @return path of the temporary 3LE file, to be deleted by the caller
+	 * @throws IOException if the file cannot be written
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static Path catalogFile(int records) throws IOException {
+
+		List<String> sample = Files.readAllLines(sampleFile());
+		List<String> lines = new ArrayList<>(3*records);
+		while (lines.size() < 3*records) {
+			lines.addAll(sample.subList(0, Math.min(sample.size(), 3*records - lines.size())));
+		}
+		Path file = Files.createTempFile("catalog-", ".txt");
+		Files.write(file, lines);
+		return file;
+	}
+
+	/**
+	 * Creates a catalog of objects with random current positions between 200 and 2000 km of altitude.
+	 *
+	 * @param size number of objects
+	 * @param seed seed of the positions
+	 * @return store of the objects
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static CatalogStore randomCatalog(int size, long seed) {
+
+		Random random = new Random(seed);
+		CatalogStore store = new CatalogStore(size);
+		String[] names = {"STARLINK-1007", "ONEWEB-0012", "COSMOS 2251 DEB", "SL-16 R/B", "ISS (ZARYA)"};
+		for (int k = 0; k < size; k++) {
+			SpaceObject obj = new SpaceObject(store, names[k % names.length]);
+			store.setCurrentPosition(obj.getId(), Math.asin(2*random.nextDouble() - 1), 
+					Math.PI*(2*random.nextDouble() - 1), 200000 + 1800000*random.nextDouble());
+		}
+		return store;
+	}
+
+	/**
+	 * Draws random points of the region of the random catalogs, used as mouse dot positions.
+	 *
+	 * @param count number of points
+	 * @param seed seed of the points
+	 * @return x, y, z of each point (m), 3 values per point
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double[] randomPoints(int count, long seed) {
+
+		Random random = new Random(seed);
+		double[] points = new double[3*count];
+		for (int k = 0; k < count; k++) {
+			double[] xyz = CatalogStore.toCartesian(Math.asin(2*random.nextDouble() - 1), 
+					Math.PI*(2*random.nextDouble() - 1), 200000 + 1800000*random.nextDouble());
+			System.arraycopy(xyz, 0, points, 3*k, 3);
+		}
+		return points;
+	}
+}
@@ -0,0 +1,251 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.layers.LayerList;
+
+/**
+ * Benchmarks of the interaction with the display over catalogs of 1k, 10k and 100k objects: the contact check of
+ * the mouse dot, with the spatial grid used by the viewer and with a linear scan for reference, on still positions
+ * and after an animation frame moved every object, the lookup of the
+ * marker under the cursor in the screen grid and the filling of that grid every frame, the creation
+ * of the cached marker layers and the switch between two filters once they are cached. Runs headless; no window
+ * is opened.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InteractionBenchmark {
+
+	private static final double CONTACT_RADIUS = 100000; //same radius as the viewer (m)
+	private static final double FOOTPRINT_RADIUS = 1000000; //same footprint as the viewer (m)
+	private static final int DOTS = 1024; //dot positions cycled through
+	private static final int WIDTH = 1920, HEIGHT = 1080; //window the markers are projected on (px)
+	private static final double HOVER_RADIUS = 6; //same hover radius as the viewer (px)
+	private static final List<String> DEBRIS = Arrays.asList("DEBRIS"); //types of the debris filter
+	private static final List<String> SATELLITES = Arrays.asList("SATELLITE", "ONEWEB", "BEIDOU", "IRIDIUM", 
+			"STARLINK"); //types of the satellites filter
+
+	@Param({"1000", "10000", "100000"})
+	int size; //objects in the catalog
+
+	private CatalogStore store; //random catalog
+	private int[] rows; //every row
+	private SpatialGrid grid; //grid of every row
+	private GeodeticIndex regions; //ground index of every row
+	private List<SpaceObject> objects; //every object
+	private double[] dots; //dot positions
+	private double[] pixels; //screen position of each object, x then y (px)
+	private ScreenGrid screen; //screen grid of every object
+	private int next; //index of the next dot
+	private double[] startLat, startLon, startAlt; //positions of the objects before the first frame
+	private int frame; //animation frames applied
+	private MarkerLayerCache markerLayers; //layers of every type, built once
+	private boolean switched; //filter shown by the last switch
+
+	/**
+	 * Creates the catalog and builds its grid and ground index.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Setup(Level.Trial)
+	public void build() {
+		store = BenchmarkData.randomCatalog(size, 1);
+		objects = store.objects();
+		rows = store.ids(objects);
+		grid = new SpatialGrid(store, rows, CONTACT_RADIUS);
+		grid.rebuild();
+		startLat = Arrays.copyOf(store.currentLat, size);
+		startLon = Arrays.copyOf(store.currentLon, size);
+		startAlt = Arrays.copyOf(store.currentAlt, size);
+		regions = new GeodeticIndex(store, rows, FOOTPRINT_RADIUS);
+		regions.rebuild();
+		dots = BenchmarkData.randomPoints(DOTS, 2);
+		Random random = new Random(3);
+		pixels = new double[2*size];
+		for (int k = 0; k < size; k++) {
+			pixels[2*k] = WIDTH*random.nextDouble();
+			pixels[2*k + 1] = HEIGHT*random.nextDouble();
+		}
+		screen = new ScreenGrid(8);
+		fillScreenGrid();
+		markerLayers = new MarkerLayerCache(new LayerList(), objects);
+		markerLayers.show(MarkerLayerCache.TYPES);
+	}
+
+	/**
+	 * Finds the objects within the contact radius of the next dot with the spatial grid, as checkContact does.
+	 *
+	 * @return rows found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int[] checkContactGrid() {
+		next = (next + 1) % DOTS;
+		return grid.withinDistance(dots[3*next], dots[3*next + 1], dots[3*next + 2], CONTACT_RADIUS);
+	}
+
+	/**
+	 * Finds the objects within the contact radius of the next dot by testing every object.
+	 *
+	 * @return rows found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int[] checkContactLinear() {
+		next = (next + 1) % DOTS;
+		return store.withinDistance(rows, dots[3*next], dots[3*next + 1], dots[3*next + 2], CONTACT_RADIUS);
+	}
+
+	/**
+	 * Applies an animation frame, then finds the objects within the contact radius of the next dot with the
+	 * spatial grid, which moves the objects to their new cells as the viewer does after each frame.
+	 *
+	 * @return rows found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int[] checkContactGridMoving() {
+		moveObjects();
+		grid.update(rows);
+		return checkContactGrid();
+	}
+
+	/**
+	 * Applies an animation frame, then finds the objects within the contact radius of the next dot by testing
+	 * every object.
+	 *
+	 * @return rows found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int[] checkContactLinearMoving() {
+		moveObjects();
+		return checkContactLinear();
+	}
+
+	/**
+	 * Finds the marker under the cursor in the screen grid, as each mouse move does. The cursor positions are the
+	 * dot positions mapped to the window.
+	 *
+	 * @return index of the marker, -1 if none
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int hoverLookup() {
+		next = (next + 1) % DOTS;
+		return screen.nearest(WIDTH*(0.5 + dots[3*next]/1.5e7), HEIGHT*(0.5 + dots[3*next + 1]/1.5e7), HOVER_RADIUS);
+	}
+
+	/**
+	 * Puts the screen position of every object in the screen grid, as each frame does after the projection.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public void fillScreenGrid() {
+		screen.reset(size);
+		for (int k = 0; k < size; k++) {
+			screen.add(k, pixels[2*k], pixels[2*k + 1]);
+		}
+	}
+
+	/**
+	 * Moves every object eastward as an animation frame does: a low orbit covers about 0.5 degree per 100 ms
+	 * tick at 10 times real time.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void moveObjects() {
+		frame++;
+		double shift = Math.toRadians(0.5)*(frame % 720); //back to the start after a full turn
+		for (int k = 0; k < size; k++) {
+			store.setCurrentPosition(k, startLat[k], startLon[k] + shift, startAlt[k]);
+		}
+	}
+
+	/**
+	 * Finds the objects over the ground within the footprint radius of the next dot, as the footprint highlight
+	 * does.
+	 *
+	 * @return rows found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int[] footprintQuery() {
+		next = (next + 1) % DOTS;
+		double x = dots[3*next], y = dots[3*next + 1], z = dots[3*next + 2];
+		return regions.withinGroundDistance(Math.atan2(z, Math.hypot(x, y)), Math.atan2(y, x), FOOTPRINT_RADIUS,
+				Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Sorts every object into the cells of the ground index again, as each frame does while a footprint is
+	 * highlighted.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public void rebuildFootprintIndex() {
+		regions.rebuild();
+	}
+
+	/**
+	 * Builds the marker layers of every type, as the first display of all the objects does.
+	 *
+	 * @return number of markers created
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int displayObjects() {
+		return new MarkerLayerCache(new LayerList(), objects).show(MarkerLayerCache.TYPES);
+	}
+
+	/**
+	 * Switches between the debris filter and the satellites filter once the layers are built, as the combo box
+	 * does.
+	 *
+	 * @return number of markers created, zero once the layers are cached
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int switchFilter() {
+		switched = !switched;
+		return markerLayers.show(switched ? DEBRIS : SATELLITES);
+	}
+}
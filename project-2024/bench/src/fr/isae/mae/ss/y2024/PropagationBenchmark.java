@@ -0,0 +1,138 @@
+package fr.isae.mae.ss.y2024;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.sirius.patrius.bodies.GeodeticPoint;
+import fr.cnes.sirius.patrius.orbits.KeplerianOrbit;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.geom.Position;
+
+/**
+ * Benchmarks of the propagation of one object of the sample catalog: a full orbit and a single point with the
+ * numerical propagator, the same full orbit with the closed form, uniformly and adaptively sampled, and the
+ * conversion of the points to WorldWind.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PropagationBenchmark {
+
+	@Param({"ISS (ZARYA)", "VANGUARD 1", "BEIDOU-3 M1"})
+	String name; //object of the sample catalog
+
+	private KeplerianOrbit orbit; //orbit of the object at its epoch
+	private double period; //period of the orbit (s)
+	private List<GeodeticPoint> points; //points of a full orbit
+
+	/**
+	 * Builds the object from its sample record and propagates a full orbit once.
+	 *
+	 * @throws IOException if the sample file cannot be read
+	 * @throws PatriusException if the object cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Setup(Level.Trial)
+	public void build() throws IOException, PatriusException {
+		for (TleRecord record : BenchmarkData.sampleRecords()) {
+			if (record.getName().strip().equals(name)) {
+				SpaceObject obj = ObjectGatherer.buildObject(record, ObjectGatherer.yearDayToUTC(record.epochYear, 
+						record.epochDay), PropagationMode.ANALYTIC, new CatalogStore(1));
+				orbit = obj.getOrbit();
+				period = obj.getT();
+				points = SpaceObject.propagateOrbit(orbit, period, 100);
+				return;
+			}
+		}
+		throw new IllegalArgumentException("No record named " + name);
+	}
+
+	/**
+	 * Propagates a full orbit with the numerical propagator, one point every 100 s.
+	 *
+	 * @return points of the orbit
+	 * @throws PatriusException if the orbit cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public List<GeodeticPoint> propagateOrbitFull() throws PatriusException {
+		return SpaceObject.propagateOrbit(orbit, period, 100);
+	}
+
+	/**
+	 * Propagates a single point half an orbit after the epoch with the numerical propagator, as done for the
+	 * current position.
+	 *
+	 * @return start and end points
+	 * @throws PatriusException if the orbit cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public List<GeodeticPoint> propagateOrbitSinglePoint() throws PatriusException {
+		return SpaceObject.propagateOrbit(orbit, period/2, period/2);
+	}
+
+	/**
+	 * Propagates the same full orbit with the closed-form solution, for comparison.
+	 *
+	 * @return points of the orbit
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public List<GeodeticPoint> propagateAnalyticFull() throws PatriusException {
+		return AnalyticOrbitPropagator.propagate(orbit, period, 100);
+	}
+
+	/**
+	 * Samples the same full orbit adaptively with the closed-form solution, as done for the displayed paths.
+	 *
+	 * @return ranked samples of the orbit
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public OrbitSampler.Samples sampleAnalyticAdaptive() throws PatriusException {
+		double[] elements = AnalyticOrbitPropagator.elements(orbit);
+		return OrbitSampler.sample((dt, geodetic) -> AnalyticOrbitPropagator.positionGeodetic(elements, orbit.getDate(), 
+				dt, geodetic), period, orbit.getE(), elements[5], OrbitSampler.DEFAULT_TOLERANCE, 0);
+	}
+
+	/**
+	 * Converts the points of a full orbit to WorldWind positions.
+	 *
+	 * @return positions of the orbit
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public List<Position> glueBetweenPatriusAndWorldwind() {
+		return SpaceObject.glueBetweenPatriusAndWorldwind(points);
+	}
+}
@@ -0,0 +1,135 @@
+package fr.isae.mae.ss.y2024;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Benchmarks of the ingestion of the catalog: parsing a 3LE file, converting TLE epochs and classifying the
+ * objects by name.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TleIngestionBenchmark {
+
+	/**
+	 * Temporary catalog file of a given number of records.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@State(Scope.Benchmark)
+	public static class CatalogFile {
+
+		@Param({"1000", "30000"})
+		int records; //records in the file
+
+		Path file; //temporary 3LE file
+
+		@Setup(Level.Trial)
+		public void write() throws IOException {
+			file = BenchmarkData.catalogFile(records);
+		}
+
+		@TearDown(Level.Trial)
+		public void delete() throws IOException {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Epochs and names of the sample records.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@State(Scope.Thread)
+	public static class Sample {
+
+		List<TleRecord> records; //sample records
+		SpaceObject object; //object whose type is set
+		int next; //index of the next record
+
+		@Setup(Level.Trial)
+		public void read() throws IOException {
+			records = BenchmarkData.sampleRecords();
+			object = new SpaceObject("BENCHMARK");
+		}
+
+		TleRecord next() {
+			next = (next + 1) % records.size();
+			return records.get(next);
+		}
+	}
+
+	/**
+	 * Parses the whole file, line by line, into records.
+	 *
+	 * @param catalog catalog file
+	 * @param blackhole sink of the records
+	 * @return number of records
+	 * @throws IOException if the file cannot be read
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public int parseFile(CatalogFile catalog, Blackhole blackhole) throws IOException {
+		return TleParser.parse(catalog.file, blackhole::consume);
+	}
+
+	/**
+	 * Converts the epoch of a record to an AbsoluteDate.
+	 *
+	 * @param sample sample records
+	 * @return epoch of the record
+	 * @throws PatriusException if the date cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public AbsoluteDate yearDayToUTC(Sample sample) throws PatriusException {
+		TleRecord record = sample.next();
+		return ObjectGatherer.yearDayToUTC(record.epochYear, record.epochDay);
+	}
+
+	/**
+	 * Classifies an object by the name of a record.
+	 *
+	 * @param sample sample records
+	 * @return type given to the object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Benchmark
+	public String setType(Sample sample) {
+		sample.object.setType(sample.next().getName());
+		return sample.object.getType();
+	}
+}
@@ -0,0 +1,227 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.bodies.GeodeticPoint;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.orbits.KeplerianOrbit;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Closed-form propagation of two-body Keplerian orbits. The mean anomaly is advanced with the mean motion
+ * and Kepler's equation is solved with Newton's method, so no integrator is needed.
+ * <p>
+ * Positions are rotated from GCRF to ITRF with the daily transforms of {@link EarthFrames}.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public final class AnalyticOrbitPropagator {
+
+	private static final double A = Constants.WGS84_EARTH_EQUATORIAL_RADIUS; //Earth equatorial radius (m)
+	private static final double F = Constants.WGS84_EARTH_FLATTENING; //Earth flattening
+	private static final double B = A*(1 - F); //Earth polar radius (m)
+	private static final double E2 = F*(2 - F); //first eccentricity squared
+	private static final double EP2 = (A*A - B*B)/(B*B); //second eccentricity squared
+
+	private AnalyticOrbitPropagator() {} //static methods only
+
+	/**
+	 * Propagates an orbit with the same sampling as {@link ObjectGatherer.SpaceObject#propagateOrbit}:
+	 * one point every step from the orbit's date until shift + step.
+	 *
+	 * @param orbit Keplerian orbit to be propagated
+	 * @param shift propagation duration (s)
+	 * @param step time between two points (s)
+	 * @return List of coordinates along the orbit in ITRF - latitude(rad), longitude (rad), altitude (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static List<GeodeticPoint> propagate(KeplerianOrbit orbit, double shift, double step) throws PatriusException {
+
+		return propagate(elements(orbit), orbit.getDate(), shift, step);
+	}
+
+	/**
+	 * Propagates a set of elements with the same sampling as {@link #propagate(KeplerianOrbit, double, double)}.
+	 *
+	 * @param elements elements as returned by {@link #elements(KeplerianOrbit)}
+	 * @param epoch AbsoluteDate of the elements
+	 * @param shift propagation duration (s)
+	 * @param step time between two points (s)
+	 * @return List of coordinates along the orbit in ITRF - latitude(rad), longitude (rad), altitude (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static List<GeodeticPoint> propagate(double[] elements, AbsoluteDate epoch, double shift, double step) 
+			throws PatriusException {
+
+		int nPoints = step > 0 ? (int) Math.floor((shift + step)/step) + 1 : 1; //points from 0 to shift + step
+		List<GeodeticPoint> points = new ArrayList<>(nPoints);
+		double[] geodetic = new double[3];
+		for (int k = 0; k < nPoints; k++) {
+			positionGeodetic(elements, epoch, k*step, geodetic);
+			points.add(new GeodeticPoint(geodetic[0], geodetic[1], geodetic[2]));
+		}
+		return points;
+	}
+
+	/**
+	 * Computes the geodetic position of an orbit at a given date.
+	 *
+	 * @param orbit Keplerian orbit to be propagated
+	 * @param date AbsoluteDate of the requested position
+	 * @return latitude (rad), longitude (rad), altitude (m) in ITRF
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static GeodeticPoint propagateTo(KeplerianOrbit orbit, AbsoluteDate date) throws PatriusException {
+
+		double[] geodetic = new double[3];
+		positionGeodetic(elements(orbit), orbit.getDate(), date.durationFrom(orbit.getDate()), geodetic);
+		return new GeodeticPoint(geodetic[0], geodetic[1], geodetic[2]);
+	}
+
+	/**
+	 * Extracts the elements used by the closed-form solution.
+	 *
+	 * @param orbit Keplerian orbit
+	 * @return a (m), e, i (rad), argument of perigee (rad), right ascension of ascending node (rad),
+	 * mean anomaly (rad), mean motion (rad/s)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double[] elements(KeplerianOrbit orbit) {
+		return new double[] {orbit.getA(), orbit.getE(), orbit.getI(), orbit.getPerigeeArgument(),
+				orbit.getRightAscensionOfAscendingNode(), orbit.getAnomaly(PositionAngle.MEAN),
+				orbit.getKeplerianMeanMotion()};
+	}
+
+	/**
+	 * Solves Kepler's equation M = E - e sin(E) for the eccentric anomaly with Newton's method.
+	 *
+	 * @param meanAnomaly mean anomaly (rad)
+	 * @param e eccentricity, smaller than 1
+	 * @return eccentric anomaly (rad)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static double solveKepler(double meanAnomaly, double e) {
+
+		double M = meanAnomaly % (2*Math.PI); //reduce to one revolution
+		double E = e < 0.8 ? M : Math.PI; //starting guess; pi converges for highly eccentric orbits
+		for (int k = 0; k < 50; k++) {
+			double dE = (E - e*Math.sin(E) - M)/(1 - e*Math.cos(E));
+			E -= dE;
+			if (Math.abs(dE) < 1e-12) {break;}
+		}
+		return E;
+	}
+
+	/**
+	 * Computes the inertial (GCRF) position of an orbit some time after its epoch.
+	 *
+	 * @param elements elements as returned by {@link #elements(KeplerianOrbit)}
+	 * @param dt time since the orbit's epoch (s)
+	 * @param position array receiving x, y, z (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void positionInertial(double[] elements, double dt, double[] position) {
+		positionInertial(elements[0], elements[1], elements[2], elements[3], elements[4],
+				elements[5] + elements[6]*dt, position);
+	}
+
+	/**
+	 * Computes the inertial (GCRF) position of an orbit for a given mean anomaly.
+	 *
+	 * @param a semi-major axis (m)
+	 * @param e eccentricity
+	 * @param i inclination (rad)
+	 * @param argPer argument of the perigee (rad)
+	 * @param rAsc right ascension of ascending node (rad)
+	 * @param meanAnomaly mean anomaly (rad)
+	 * @param position array receiving x, y, z (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void positionInertial(double a, double e, double i, double argPer, double rAsc, double meanAnomaly,
+			double[] position) {
+
+		double E = solveKepler(meanAnomaly, e);
+
+		//position in the orbital plane, x towards the perigee
+		double xp = a*(Math.cos(E) - e);
+		double yp = a*Math.sqrt(1 - e*e)*Math.sin(E);
+
+		//rotate from the orbital plane to the inertial frame
+		double cO = Math.cos(rAsc), sO = Math.sin(rAsc);
+		double cw = Math.cos(argPer), sw = Math.sin(argPer);
+		double ci = Math.cos(i), si = Math.sin(i);
+		position[0] = xp*(cO*cw - sO*sw*ci) - yp*(cO*sw + sO*cw*ci);
+		position[1] = xp*(sO*cw + cO*sw*ci) - yp*(sO*sw - cO*cw*ci);
+		position[2] = xp*sw*si + yp*cw*si;
+	}
+
+	/**
+	 * Computes the geodetic position of an orbit some time after its epoch.
+	 *
+	 * @param elements elements as returned by {@link #elements(KeplerianOrbit)}
+	 * @param epoch AbsoluteDate of the elements
+	 * @param dt time since the epoch (s)
+	 * @param geodetic array receiving latitude (rad), longitude (rad), altitude (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void positionGeodetic(double[] elements, AbsoluteDate epoch, double dt, double[] geodetic)
+			throws PatriusException {
+
+		double[] r = new double[3];
+		positionInertial(elements, dt, r);
+		double t = epoch.durationFrom(AbsoluteDate.J2000_EPOCH) + dt; //seconds since J2000
+		EarthFrames.toItrf(FramesFactory.getGCRF(), t, r);
+		toGeodetic(r[0], r[1], r[2], geodetic);
+	}
+
+	/**
+	 * Converts an ITRF position to geodetic coordinates on the WGS84 ellipsoid with Heikkinen's closed-form
+	 * solution.
+	 *
+	 * @param x x (m)
+	 * @param y y (m)
+	 * @param z z (m)
+	 * @param geodetic array receiving latitude (rad), longitude (rad), altitude (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void toGeodetic(double x, double y, double z, double[] geodetic) {
+
+		double p2 = x*x + y*y;
+		double p = Math.sqrt(p2);
+		double z2 = z*z;
+		double F54 = 54*B*B*z2;
+		double G = p2 + (1 - E2)*z2 - E2*(A*A - B*B);
+		double c = E2*E2*F54*p2/(G*G*G);
+		double s = Math.cbrt(1 + c + Math.sqrt(c*c + 2*c));
+		double k = s + 1 + 1/s;
+		double P = F54/(3*k*k*G*G);
+		double Q = Math.sqrt(1 + 2*E2*E2*P);
+		double r0 = -P*E2*p/(1 + Q) + Math.sqrt(Math.max(0, A*A/2*(1 + 1/Q) - P*(1 - E2)*z2/(Q*(1 + Q)) - P*p2/2));
+		double dp = p - E2*r0;
+		double U = Math.sqrt(dp*dp + z2);
+		double V = Math.sqrt(dp*dp + (1 - E2)*z2);
+		double z0 = B*B*z/(A*V);
+
+		geodetic[0] = Math.atan2(z + EP2*z0, p); //latitude (rad)
+		geodetic[1] = Math.atan2(y, x); //longitude (rad)
+		geodetic[2] = U*(1 - B*B/(A*V)); //altitude (m)
+	}
+}
@@ -0,0 +1,217 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Propagates a fixed set of rows of a {@link CatalogStore} to any date, in parallel chunks, without changing the
+ * store. SGP4 objects are propagated with SGP4 and every other object with the closed-form solution read from
+ * the element columns, since the numerical engine is too slow for repeated batches; SGP4 objects that cannot
+ * be propagated (decayed, invalid elements) fall back to the closed form as well.
+ * <p>
+ * The rows are copied when the propagator is created, on the thread that changes the store; the propagator then
+ * only reads its copy, so it can run on other threads while the store changes, and does not see later changes.
+ * Used by the animation and the ephemeris cache. Calls must not overlap.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class BatchPropagator {
+
+	private static final int CHUNK = 2048; //objects propagated by one parallel task
+
+	private final CatalogStore store; //copy of the rows; row k is rows[k]
+	private final int[] rows; //rows of the source store
+	private final int[] ids; //rows of the copy, 0 to size - 1
+	private final int[] sgp4Index; //indexes in rows of the SGP4 objects
+	private List<Sgp4Propagator> sgp4; //propagators of the SGP4 objects by chunk; built on first use
+
+	/**
+	 * Creates the propagator of some rows, copying their values.
+	 *
+	 * @param source store of the objects; must not change during the call
+	 * @param rows rows to be propagated; results are given in the same order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public BatchPropagator(CatalogStore source, int[] rows) {
+		store = source.copyRows(rows);
+		this.rows = rows.clone();
+		ids = IntStream.range(0, rows.length).toArray();
+		sgp4Index = IntStream.range(0, rows.length)
+				.filter(k -> store.get(k).getPropagationMode() == PropagationMode.SGP4).toArray();
+	}
+
+	/**
+	 * Returns the number of objects.
+	 *
+	 * @return number of rows propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return rows.length;
+	}
+
+	/**
+	 * Returns the rows propagated, in the order of the results.
+	 *
+	 * @return rows of the source store
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] getRows() {
+		return rows.clone();
+	}
+
+	/**
+	 * Propagates every object to a date and returns the ITRF positions.
+	 *
+	 * @param t date (s since J2000)
+	 * @param x array receiving the x of rows[k] at index k (m)
+	 * @param y array receiving the y of rows[k] at index k (m)
+	 * @param z array receiving the z of rows[k] at index k (m)
+	 * @throws PatriusException if the Earth frame or an SGP4 propagator cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagateEarthFixed(double t, double[] x, double[] y, double[] z) throws PatriusException {
+
+		//closed form for every object, straight from the columns
+		forEachChunk(rows.length, (from, to) -> store.propagateEarthFixed(ids, from, to, t, x, y, z));
+		if (sgp4Index.length == 0) {return;}
+
+		//SGP4 objects replace their closed-form positions unless SGP4 cannot propagate them
+		if (sgp4 == null) {
+			List<Sgp4Propagator> propagators = new ArrayList<>();
+			for (int from = 0; from < sgp4Index.length; from += CHUNK) {
+				List<SpaceObject> objects = new ArrayList<>(CHUNK);
+				for (int k = from; k < Math.min(sgp4Index.length, from + CHUNK); k++) {
+					objects.add(store.get(sgp4Index[k]));
+				}
+				propagators.add(new Sgp4Propagator(objects));
+			}
+			sgp4 = propagators;
+		}
+		AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(t);
+		forEachChunk(sgp4Index.length, (from, to) -> {
+			Sgp4Propagator propagator = sgp4.get(from/CHUNK);
+			double[] px = new double[propagator.size()], py = new double[px.length], pz = new double[px.length];
+			propagator.propagateEarthFixed(date, px, py, pz);
+			for (int j = 0; j < px.length; j++) {
+				if (Double.isNaN(px[j])) {continue;}
+				int k = sgp4Index[from + j];
+				x[k] = px[j];
+				y[k] = py[j];
+				z[k] = pz[j];
+			}
+		});
+	}
+
+	/**
+	 * Propagates every object to a date and returns the geodetic positions.
+	 *
+	 * @param t date (s since J2000)
+	 * @param lat array receiving the latitude of rows[k] at index k (rad)
+	 * @param lon array receiving the longitude of rows[k] at index k (rad)
+	 * @param alt array receiving the altitude of rows[k] at index k (m)
+	 * @throws PatriusException if the Earth frame or an SGP4 propagator cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagate(double t, double[] lat, double[] lon, double[] alt) throws PatriusException {
+		propagateEarthFixed(t, lat, lon, alt); //x, y, z for now
+		toGeodetic(lat, lon, alt);
+	}
+
+	/**
+	 * Converts ITRF positions to geodetic coordinates in place, in parallel chunks.
+	 *
+	 * @param x x (m), replaced by the latitude (rad)
+	 * @param y y (m), replaced by the longitude (rad)
+	 * @param z z (m), replaced by the altitude (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void toGeodetic(double[] x, double[] y, double[] z) {
+		try {
+			forEachChunk(x.length, (from, to) -> {
+				double[] geodetic = new double[3];
+				for (int k = from; k < to; k++) {
+					AnalyticOrbitPropagator.toGeodetic(x[k], y[k], z[k], geodetic);
+					x[k] = geodetic[0];
+					y[k] = geodetic[1];
+					z[k] = geodetic[2];
+				}
+			});
+		} catch (PatriusException e) {
+			throw new IllegalStateException(e); //the conversion does not throw
+		}
+	}
+
+	/**
+	 * Runs a task over consecutive chunks of indexes on the common pool and forwards the first failure.
+	 *
+	 * @param count number of indexes
+	 * @param task task run for each chunk
+	 * @throws PatriusException if a task failed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void forEachChunk(int count, ChunkTask task) throws PatriusException {
+		try {
+			IntStream.range(0, (count + CHUNK - 1)/CHUNK).parallel().forEach(c -> {
+				try {
+					task.run(c*CHUNK, Math.min(count, (c + 1)*CHUNK));
+				} catch (PatriusException e) {
+					throw new ChunkFailure(e);
+				}
+			});
+		} catch (ChunkFailure e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Work done on a chunk of indexes.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	interface ChunkTask {
+
+		/**
+		 * Processes the indexes from (inclusive) to to (exclusive).
+		 *
+		 * @param from first index
+		 * @param to index after the last one
+		 * @throws PatriusException if the chunk cannot be processed
+		 */
+		void run(int from, int to) throws PatriusException;
+	}
+
+	/**
+	 * Unchecked wrapper used to carry a PatriusException out of a parallel chunk.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static class ChunkFailure extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		ChunkFailure(PatriusException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized PatriusException getCause() {
+			return (PatriusException) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Difference between the loaded catalog and a newer copy of the 3LE file, built by
+ * {@link ObjectGatherer#prepareRefresh(String)}. The new and changed objects are already built and propagated in
+ * stores of their own, so applying the refresh with {@link ObjectGatherer#applyRefresh(CatalogRefresh)} only moves
+ * rows: changed objects are overwritten in place, removed objects are dropped and new objects are appended.
+ * <p>
+ * Once applied, the refresh lists the views of the objects that were added, changed and removed, so that the
+ * display can be patched instead of rebuilt.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class CatalogRefresh {
+
+	final int catalogSize; //size of the catalog the difference was computed against
+	final CatalogStore changedStore; //new values of the changed objects
+	final int[] changedRows; //row of the catalog of each row of changedStore
+	final CatalogStore addedStore; //objects not in the catalog yet, in file order
+	final int[] removedRows; //rows of the objects no longer published, in increasing order
+	final int unchanged; //objects published with the same epoch
+
+	private boolean applied;
+	private List<SpaceObject> added = Collections.emptyList(); //views of the new objects
+	private List<SpaceObject> changed = Collections.emptyList(); //views of the changed objects
+	private List<SpaceObject> removed = Collections.emptyList(); //views of the removed objects, detached
+
+	/**
+	 * Creates a refresh.
+	 *
+	 * @param catalogSize size of the catalog the difference was computed against
+	 * @param changedStore new values of the changed objects
+	 * @param changedRows row of the catalog of each row of changedStore
+	 * @param addedStore objects not in the catalog yet
+	 * @param removedRows rows of the objects no longer published, in increasing order
+	 * @param unchanged number of objects published with the same epoch
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	CatalogRefresh(int catalogSize, CatalogStore changedStore, int[] changedRows, CatalogStore addedStore,
+			int[] removedRows, int unchanged) {
+		this.catalogSize = catalogSize;
+		this.changedStore = changedStore;
+		this.changedRows = changedRows;
+		this.addedStore = addedStore;
+		this.removedRows = removedRows;
+		this.unchanged = unchanged;
+	}
+
+	/**
+	 * Applies the refresh to a store. Rows are overwritten, removed and appended in this order so that the rows of
+	 * the difference stay valid until they are used.
+	 *
+	 * @param store store the difference was computed against
+	 * @throws IllegalStateException if the refresh was already applied or the store changed since
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	void apply(CatalogStore store) {
+
+		if (applied) {throw new IllegalStateException("Refresh already applied");}
+		if (store.size() != catalogSize) {throw new IllegalStateException("Catalog changed since the refresh was prepared");}
+		applied = true;
+
+		changed = new ArrayList<>(changedRows.length);
+		for (int k = 0; k < changedRows.length; k++) {
+			store.replace(changedRows[k], changedStore, k);
+			changed.add(store.get(changedRows[k]));
+		}
+
+		removed = new ArrayList<>(removedRows.length);
+		for (int row : removedRows) {
+			removed.add(store.get(row));
+		}
+		store.remove(removedRows);
+
+		added = new ArrayList<>(addedStore.objects());
+		store.append(addedStore);
+	}
+
+	/**
+	 * Tells if the new file differs from the catalog.
+	 *
+	 * @return true if no object was added, changed or removed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public boolean isEmpty() {
+		return changedRows.length == 0 && removedRows.length == 0 && addedStore.size() == 0 && added.isEmpty();
+	}
+
+	/**
+	 * Returns the objects added by the refresh.
+	 *
+	 * @return views of the new objects, empty until the refresh is applied
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> getAdded() {
+		return Collections.unmodifiableList(added);
+	}
+
+	/**
+	 * Returns the objects whose elements were replaced.
+	 *
+	 * @return views of the changed objects, empty until the refresh is applied
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> getChanged() {
+		return Collections.unmodifiableList(changed);
+	}
+
+	/**
+	 * Returns the objects removed by the refresh. They keep their last values but are no longer in the catalog.
+	 *
+	 * @return views of the removed objects, empty until the refresh is applied
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> getRemoved() {
+		return Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * Returns the number of objects published again with the same epoch, which were left untouched.
+	 *
+	 * @return number of unchanged objects
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int getUnchangedCount() {
+		return unchanged;
+	}
+
+	@Override
+	public String toString() {
+		return (applied ? added.size() : addedStore.size()) + " added, " + changedRows.length + " changed, "
+				+ removedRows.length + " removed, " + unchanged + " unchanged";
+	}
+}
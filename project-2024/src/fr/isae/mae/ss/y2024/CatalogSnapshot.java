@@ -0,0 +1,270 @@
+package fr.isae.mae.ss.y2024;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.geom.Position;
+
+/**
+ * Compact binary snapshot of a parsed and propagated catalog, so that a launch with an unchanged 3LE file
+ * skips parsing and propagation. The snapshot is keyed by the SHA-256 hash of the source file and by the
+ * propagation engine; it is read back through a memory-mapped buffer.
+ * <p>
+ * Layout (big-endian): magic, version, source hash, engine, date of the current positions, flags, object
+ * count, then for each object its name, type, epoch, catalog number, TLE terms, orbital elements, initial and
+ * current positions and, if saved, the samples of its orbit path. Paths are propagated lazily, so they are
+ * usually not saved.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class CatalogSnapshot {
+
+	private static final int MAGIC = 0x4f56534e; //"OVSN"
+	private static final int VERSION = 1;
+	private static final int FLAG_PATHS = 1; //the orbit paths are saved
+
+	private final CatalogStore store; //objects read from the snapshot
+	private final AbsoluteDate currentDate; //date of the saved current positions
+
+	private CatalogSnapshot(CatalogStore store, AbsoluteDate currentDate) {
+		this.store = store;
+		this.currentDate = currentDate;
+	}
+
+	/**
+	 * Returns the objects read from the snapshot, in the same order as in the source file.
+	 *
+	 * @return space objects with their orbit, path and positions
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> getObjects() {
+		return store.objects();
+	}
+
+	/**
+	 * Returns the store holding the objects read from the snapshot.
+	 *
+	 * @return store of the space objects, in the same order as in the source file
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public CatalogStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Returns the date at which the saved current positions were computed.
+	 *
+	 * @return AbsoluteDate of the current positions
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public AbsoluteDate getCurrentDate() {
+		return currentDate;
+	}
+
+	/**
+	 * Computes the SHA-256 hash of a file.
+	 *
+	 * @param file path of the file
+	 * @return hash of the file content
+	 * @throws IOException if the file cannot be read
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static byte[] hash(Path file) throws IOException {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); //every JVM provides SHA-256
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+			while (channel.read(buffer) > 0) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Saves a catalog. The snapshot is written to a temporary file first and then moved, so a reader never sees
+	 * a partial snapshot.
+	 *
+	 * @param snapshot path of the snapshot file
+	 * @param sourceHash hash of the 3LE file the objects were built from
+	 * @param mode engine used to propagate the objects
+	 * @param currentDate date of the current positions
+	 * @param store columns of the space objects, in file order
+	 * @param withPaths true to save the orbit paths as well
+	 * @throws IOException if the snapshot cannot be written
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void write(Path snapshot, byte[] sourceHash, PropagationMode mode, AbsoluteDate currentDate,
+			CatalogStore store, boolean withPaths) throws IOException {
+
+		Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+		try (OutputStream file = Files.newOutputStream(tmp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+
+			//Header
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(sourceHash.length);
+			out.write(sourceHash);
+			out.writeInt(mode.ordinal());
+			out.writeDouble(currentDate.durationFrom(AbsoluteDate.J2000_EPOCH));
+			out.writeInt(withPaths ? FLAG_PATHS : 0);
+			out.writeInt(store.size());
+
+			//Objects, read straight from the columns
+			for (int k = 0; k < store.size(); k++) {
+				writeString(out, store.names[k]);
+				writeString(out, store.types[k]);
+				out.writeDouble(store.epoch[k]);
+				out.writeInt(store.noradId[k]);
+				out.writeDouble(store.nDot[k]);
+				out.writeDouble(store.nDDot[k]);
+				out.writeDouble(store.bStar[k]);
+				out.writeDouble(store.i[k]);
+				out.writeDouble(store.rAsc[k]);
+				out.writeDouble(store.e[k]);
+				out.writeDouble(store.argPer[k]);
+				out.writeDouble(store.theta[k]);
+				out.writeDouble(store.n[k]);
+				out.writeDouble(store.initialLat[k]);
+				out.writeDouble(store.initialLon[k]);
+				out.writeDouble(store.initialAlt[k]);
+				out.writeDouble(store.currentLat[k]);
+				out.writeDouble(store.currentLon[k]);
+				out.writeDouble(store.currentAlt[k]);
+				if (withPaths) {
+					List<Position> positions = new ArrayList<>();
+					gov.nasa.worldwind.render.Path path = store.get(k).getPath(); //java.nio.file.Path is imported
+					if (path instanceof OrbitPath) {
+						positions.addAll(((OrbitPath) path).getSamples().positions(0)); //every sample, whatever the zoom
+					} else {
+						for (Position position : path.getPositions()) {positions.add(position);}
+					}
+					out.writeInt(positions.size());
+					for (Position position : positions) {
+						out.writeDouble(position.getLatitude().radians);
+						out.writeDouble(position.getLongitude().radians);
+						out.writeDouble(position.getAltitude());
+					}
+				}
+			}
+		}
+		Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads a snapshot if it exists and was built from the same source file with the same engine.
+	 * If the paths were not saved they are propagated again from the saved elements; parsing is still skipped.
+	 *
+	 * @param snapshot path of the snapshot file
+	 * @param sourceHash hash of the current 3LE file
+	 * @param mode engine requested for the objects
+	 * @return snapshot, or null if it is missing, outdated or unreadable
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static CatalogSnapshot read(Path snapshot, byte[] sourceHash, PropagationMode mode) {
+
+		if (!Files.isRegularFile(snapshot)) {return null;}
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			//Header
+			if (in.getInt() != MAGIC || in.getInt() != VERSION) {return null;}
+			byte[] hash = new byte[in.getInt()];
+			in.get(hash);
+			if (!Arrays.equals(hash, sourceHash) || in.getInt() != mode.ordinal()) {return null;}
+			AbsoluteDate currentDate = AbsoluteDate.J2000_EPOCH.shiftedBy(in.getDouble());
+			boolean withPaths = (in.getInt() & FLAG_PATHS) != 0;
+			int count = in.getInt();
+
+			//Objects
+			CatalogStore store = new CatalogStore(count);
+			for (int k = 0; k < count; k++) {
+				SpaceObject obj = new SpaceObject(store, readString(in));
+				obj.restoreType(readString(in));
+				obj.setPropagationMode(mode);
+				obj.addDate(AbsoluteDate.J2000_EPOCH.shiftedBy(in.getDouble()));
+				obj.addTleTerms(in.getInt(), in.getDouble(), in.getDouble(), in.getDouble());
+				double i = in.getDouble(), rAsc = in.getDouble(), e = in.getDouble();
+				double argPer = in.getDouble(), theta = in.getDouble(), n = in.getDouble();
+				in.position(in.position() + 3*Double.BYTES); //initial position; first point of the path
+				obj.setCurrentPosition(in.getDouble(), in.getDouble(), in.getDouble());
+				if (withPaths) {
+					int nPoints = in.getInt();
+					List<Position> positions = new ArrayList<>(nPoints);
+					for (int p = 0; p < nPoints; p++) {
+						positions.add(Position.fromRadians(in.getDouble(), in.getDouble(), in.getDouble()));
+					}
+					obj.restoreOrbit(i, rAsc, e, argPer, theta, n, positions);
+				} else {
+					obj.addOrbit(i, rAsc, e, argPer, theta, n); //propagate the path again
+				}
+			}
+			return new CatalogSnapshot(store, currentDate);
+		} catch (IOException | PatriusException | RuntimeException e) {
+			System.out.println("Ignoring unreadable snapshot " + snapshot + ": " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a String as its UTF-8 length followed by its bytes.
+	 *
+	 * @param out stream of the snapshot
+	 * @param value String to be written
+	 * @throws IOException if the snapshot cannot be written
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a String written by {@link #writeString}.
+	 *
+	 * @param in mapped snapshot
+	 * @return String read
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static String readString(MappedByteBuffer in) {
+		byte[] bytes = new byte[in.getShort() & 0xffff];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
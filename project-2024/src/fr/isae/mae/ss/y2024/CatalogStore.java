@@ -0,0 +1,563 @@
+package fr.isae.mae.ss.y2024;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Columnar store of the catalog. Every space object is a row, identified by its index, and each of its
+ * fields lives in a primitive column (elements, epoch, TLE terms, initial and current positions) so that
+ * scans over the whole catalog read contiguous arrays instead of chasing one object graph per row.
+ * <p>
+ * {@link SpaceObject} is a view over one row: its getters and setters read and write the columns. The store
+ * is not thread safe; each worker fills its own store and the stores are appended on one thread. The orbit paths
+ * are not columns: they are built on first display and kept in a bounded {@link OrbitPathCache}.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class CatalogStore {
+
+	private static final double R = Constants.WGS84_EARTH_EQUATORIAL_RADIUS; //radius of the spherical Earth used for distances (m)
+
+	private int size; //number of rows
+	private int positionVersion; //changes every time a current position is set
+
+	//Description
+	String[] names = new String[0]; //name of space object
+	String[] types = new String[0]; //type of space object (satellite, debris, etc..)
+	Color[] colors = new Color[0]; //marker color for WorldWind
+	PropagationMode[] modes = new PropagationMode[0]; //engine used to propagate the orbit
+	private SpaceObject[] views = new SpaceObject[0]; //view of each row
+	final OrbitPathCache pathCache = new OrbitPathCache(OrbitPathCache.DEFAULT_BUDGET); //paths built so far
+
+	//TLE
+	double[] epoch = new double[0]; //epoch of the elements (s since J2000)
+	int[] noradId = new int[0]; //catalog number
+	double[] nDot = new double[0]; //first derivative of mean motion (rad/s^2)
+	double[] nDDot = new double[0]; //second derivative of mean motion (rad/s^3)
+	double[] bStar = new double[0]; //B* drag term (1/earth radii)
+
+	//Keplerian elements
+	double[] a = new double[0]; //semi-major axis (m)
+	double[] e = new double[0]; //eccentricity
+	double[] i = new double[0]; //inclination (rad)
+	double[] rAsc = new double[0]; //right ascension of ascending node (rad)
+	double[] argPer = new double[0]; //argument of the perigee (rad)
+	double[] theta = new double[0]; //mean anomaly at epoch (rad)
+	double[] n = new double[0]; //mean motion (rad/s)
+
+	//Positions
+	double[] initialLat = new double[0]; //latitude at epoch (rad)
+	double[] initialLon = new double[0]; //longitude at epoch (rad)
+	double[] initialAlt = new double[0]; //altitude at epoch (m)
+	double[] currentLat = new double[0]; //current latitude (rad)
+	double[] currentLon = new double[0]; //current longitude (rad)
+	double[] currentAlt = new double[0]; //current altitude (m)
+	double[] currentX = new double[0]; //current position on a spherical Earth, x (m)
+	double[] currentY = new double[0]; //current position on a spherical Earth, y (m)
+	double[] currentZ = new double[0]; //current position on a spherical Earth, z (m)
+
+	/**
+	 * Creates an empty store.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public CatalogStore() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty store with room for a number of rows.
+	 *
+	 * @param capacity expected number of rows
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public CatalogStore(int capacity) {
+		resize(Math.max(capacity, 1));
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return number of space objects in the store
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the view of a row.
+	 *
+	 * @param id index of the row
+	 * @return SpaceObject reading and writing the row
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public SpaceObject get(int id) {
+		return views[id];
+	}
+
+	/**
+	 * Returns the views of every row, in row order.
+	 *
+	 * @return unmodifiable list of the space objects
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> objects() {
+		return Collections.unmodifiableList(Arrays.asList(views).subList(0, size));
+	}
+
+	/**
+	 * Adds a row for a new space object. Called by the constructors of {@link SpaceObject}.
+	 *
+	 * @param view view of the new row
+	 * @param name name of the object
+	 * @return index of the new row
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	int add(SpaceObject view, String name) {
+		if (size == names.length) {resize(2*size);}
+		int id = size++;
+		views[id] = view;
+		names[id] = name;
+		types[id] = "";
+		colors[id] = Color.YELLOW; //yellow by default
+		modes[id] = PropagationMode.ANALYTIC; //analytic by default
+		return id;
+	}
+
+	/**
+	 * Moves every row of another store to the end of this one. The views of the moved rows are rebound to this
+	 * store, and the other store is left empty.
+	 *
+	 * @param other store whose rows are appended, in order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void append(CatalogStore other) {
+
+		int offset = size;
+		if (size + other.size > names.length) {resize(Math.max(2*names.length, size + other.size));}
+		int count = other.size;
+		System.arraycopy(other.names, 0, names, offset, count);
+		System.arraycopy(other.types, 0, types, offset, count);
+		System.arraycopy(other.colors, 0, colors, offset, count);
+		System.arraycopy(other.modes, 0, modes, offset, count);
+		System.arraycopy(other.views, 0, views, offset, count);
+		System.arraycopy(other.epoch, 0, epoch, offset, count);
+		System.arraycopy(other.noradId, 0, noradId, offset, count);
+		System.arraycopy(other.nDot, 0, nDot, offset, count);
+		System.arraycopy(other.nDDot, 0, nDDot, offset, count);
+		System.arraycopy(other.bStar, 0, bStar, offset, count);
+		System.arraycopy(other.a, 0, a, offset, count);
+		System.arraycopy(other.e, 0, e, offset, count);
+		System.arraycopy(other.i, 0, i, offset, count);
+		System.arraycopy(other.rAsc, 0, rAsc, offset, count);
+		System.arraycopy(other.argPer, 0, argPer, offset, count);
+		System.arraycopy(other.theta, 0, theta, offset, count);
+		System.arraycopy(other.n, 0, n, offset, count);
+		System.arraycopy(other.initialLat, 0, initialLat, offset, count);
+		System.arraycopy(other.initialLon, 0, initialLon, offset, count);
+		System.arraycopy(other.initialAlt, 0, initialAlt, offset, count);
+		System.arraycopy(other.currentLat, 0, currentLat, offset, count);
+		System.arraycopy(other.currentLon, 0, currentLon, offset, count);
+		System.arraycopy(other.currentAlt, 0, currentAlt, offset, count);
+		System.arraycopy(other.currentX, 0, currentX, offset, count);
+		System.arraycopy(other.currentY, 0, currentY, offset, count);
+		System.arraycopy(other.currentZ, 0, currentZ, offset, count);
+		size += count;
+		positionVersion++;
+
+		for (int k = 0; k < count; k++) {
+			views[offset + k].rebind(this, offset + k);
+		}
+		pathCache.putAll(other.pathCache);
+		other.size = 0;
+		other.resize(1);
+	}
+
+	/**
+	 * Copies some rows to a new store whose rows have views of their own, e.g. so that they can be read on
+	 * another thread while this store changes. Paths are not copied.
+	 *
+	 * @param rows rows to be copied
+	 * @return store whose row k holds the values of rows[k]
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public CatalogStore copyRows(int[] rows) {
+
+		CatalogStore copy = new CatalogStore(rows.length);
+		for (int k = 0; k < rows.length; k++) {
+			new SpaceObject(copy, names[rows[k]]); //adds row k to the copy
+			copy.copyRow(this, rows[k], k);
+		}
+		return copy;
+	}
+
+	/**
+	 * Overwrites a row with a row of another store, e.g. when newer elements of the object were published.
+	 * The view of the row is kept; its cached path and propagator are dropped.
+	 *
+	 * @param row row to be overwritten
+	 * @param source store holding the new values
+	 * @param sourceRow row of the new values in the source
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void replace(int row, CatalogStore source, int sourceRow) {
+		copyRow(source, sourceRow, row);
+		views[row].rebind(this, row); //drops the propagator of the former elements
+		pathCache.remove(views[row]);
+		positionVersion++;
+	}
+
+	/**
+	 * Removes rows. The rows after them move up, keeping their order, and their views are rebound. The view of
+	 * a removed row keeps its values in a store of its own, so it can still be read.
+	 *
+	 * @param rows rows to be removed, in increasing order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void remove(int[] rows) {
+
+		if (rows.length == 0) {return;}
+
+		//Detach the removed views
+		for (int row : rows) {
+			SpaceObject view = views[row];
+			CatalogStore detached = new CatalogStore(1);
+			detached.size = 1;
+			detached.copyRow(this, row, 0);
+			detached.views[0] = view;
+			pathCache.remove(view);
+			view.rebind(detached, 0);
+		}
+
+		//Move the other rows up
+		int target = rows[0];
+		int next = 0;
+		for (int row = rows[0]; row < size; row++) {
+			if (next < rows.length && rows[next] == row) {
+				next++;
+				continue;
+			}
+			copyRow(this, row, target);
+			views[target] = views[row];
+			views[target].rebind(this, target);
+			target++;
+		}
+		Arrays.fill(views, target, size, null);
+		size = target;
+		positionVersion++;
+	}
+
+	/**
+	 * Returns a counter that changes every time a current position is set, so that indexes over the positions
+	 * (e.g. {@link SpatialGrid}) can tell when they are outdated.
+	 *
+	 * @return version of the current positions
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int getPositionVersion() {
+		return positionVersion;
+	}
+
+	/**
+	 * Returns the cache of the orbit paths of the store's objects.
+	 *
+	 * @return bounded cache of the paths
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitPathCache getPathCache() {
+		return pathCache;
+	}
+
+	/**
+	 * Returns the rows of a given type.
+	 *
+	 * @param type type of the objects, as given by {@link SpaceObject#setType(String)}
+	 * @return indexes of the matching rows, in row order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] select(String type) {
+
+		int[] ids = new int[size];
+		int count = 0;
+		for (int k = 0; k < size; k++) {
+			if (types[k].equals(type)) {ids[count++] = k;}
+		}
+		return Arrays.copyOf(ids, count);
+	}
+
+	/**
+	 * Returns the indexes of a list of space objects of this store.
+	 *
+	 * @param objects views of rows of this store
+	 * @return index of each object, in list order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] ids(List<SpaceObject> objects) {
+
+		int[] ids = new int[objects.size()];
+		for (int k = 0; k < ids.length; k++) {
+			ids[k] = objects.get(k).getId();
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns the rows whose current position is within a distance of a point. Distances are measured on the
+	 * same spherical Earth as {@link #toCartesian}.
+	 *
+	 * @param ids rows to be tested
+	 * @param x x of the point (m)
+	 * @param y y of the point (m)
+	 * @param z z of the point (m)
+	 * @param radius maximum distance (m)
+	 * @return indexes of the rows within the distance, in the order of ids
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] withinDistance(int[] ids, double x, double y, double z, double radius) {
+
+		double radius2 = radius*radius;
+		int[] found = new int[Math.min(ids.length, 16)];
+		int count = 0;
+		for (int id : ids) {
+			double dx = currentX[id] - x;
+			double dy = currentY[id] - y;
+			double dz = currentZ[id] - z;
+			if (dx*dx + dy*dy + dz*dz <= radius2) {
+				if (count == found.length) {found = Arrays.copyOf(found, 2*count);}
+				found[count++] = id;
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * Propagates the current position of every row with the closed-form two-body solution, straight from the
+	 * element columns.
+	 *
+	 * @param date AbsoluteDate of the current positions
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagateCurrentPositions(AbsoluteDate date) throws PatriusException {
+
+		Frame gcrf = FramesFactory.getGCRF();
+		double t = date.durationFrom(AbsoluteDate.J2000_EPOCH); //seconds since J2000
+		double[] r = new double[3];
+		double[] geodetic = new double[3];
+		for (int id = 0; id < size; id++) {
+			position(id, gcrf, t, r, geodetic);
+			setCurrentPosition(id, geodetic[0], geodetic[1], geodetic[2]);
+		}
+	}
+
+	/**
+	 * Propagates some rows with the closed-form two-body solution without changing the store, e.g. to compute
+	 * the next frame of an animation on another thread. Only the element columns are read.
+	 *
+	 * @param rows rows to be propagated
+	 * @param from first index of rows to be propagated
+	 * @param to index after the last one
+	 * @param t date of the positions (s since J2000)
+	 * @param x array receiving the ITRF x of rows[k] at index k (m)
+	 * @param y array receiving the ITRF y of rows[k] at index k (m)
+	 * @param z array receiving the ITRF z of rows[k] at index k (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagateEarthFixed(int[] rows, int from, int to, double t, double[] x, double[] y, double[] z)
+			throws PatriusException {
+
+		Frame gcrf = FramesFactory.getGCRF();
+		double[] r = new double[3];
+		for (int k = from; k < to; k++) {
+			positionEarthFixed(rows[k], gcrf, t, r);
+			x[k] = r[0];
+			y[k] = r[1];
+			z[k] = r[2];
+		}
+	}
+
+	/**
+	 * Computes the geodetic position of a row with the closed-form two-body solution.
+	 *
+	 * @param id index of the row
+	 * @param gcrf inertial frame of the elements
+	 * @param t date of the position (s since J2000)
+	 * @param r work array of 3 values
+	 * @param geodetic array receiving latitude (rad), longitude (rad), altitude (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void position(int id, Frame gcrf, double t, double[] r, double[] geodetic) throws PatriusException {
+		positionEarthFixed(id, gcrf, t, r);
+		AnalyticOrbitPropagator.toGeodetic(r[0], r[1], r[2], geodetic);
+	}
+
+	/**
+	 * Computes the ITRF position of a row with the closed-form two-body solution.
+	 *
+	 * @param id index of the row
+	 * @param gcrf inertial frame of the elements
+	 * @param t date of the position (s since J2000)
+	 * @param r array receiving x, y, z (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void positionEarthFixed(int id, Frame gcrf, double t, double[] r) throws PatriusException {
+		AnalyticOrbitPropagator.positionInertial(a[id], e[id], i[id], argPer[id], rAsc[id],
+				theta[id] + n[id]*(t - epoch[id]), r);
+		EarthFrames.toItrf(gcrf, t, r);
+	}
+
+	/**
+	 * Returns the elements of a row used by the closed-form solution.
+	 *
+	 * @param id index of the row
+	 * @return a (m), e, i (rad), argument of perigee (rad), right ascension of ascending node (rad),
+	 * mean anomaly (rad), mean motion (rad/s)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	double[] elements(int id) {
+		return new double[] {a[id], e[id], i[id], argPer[id], rAsc[id], theta[id], n[id]};
+	}
+
+	/**
+	 * Sets the current position of a row.
+	 *
+	 * @param id index of the row
+	 * @param lat latitude (rad)
+	 * @param lon longitude (rad)
+	 * @param alt altitude (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	void setCurrentPosition(int id, double lat, double lon, double alt) {
+		currentLat[id] = lat;
+		currentLon[id] = lon;
+		currentAlt[id] = alt;
+		currentX[id] = (R + alt)*Math.cos(lat)*Math.cos(lon);
+		currentY[id] = (R + alt)*Math.cos(lat)*Math.sin(lon);
+		currentZ[id] = (R + alt)*Math.sin(lat);
+		positionVersion++;
+	}
+
+	/**
+	 * Converts a geodetic position to Cartesian coordinates on a spherical Earth of radius the equatorial radius,
+	 * the convention used by the contact checks.
+	 *
+	 * @param lat latitude (rad)
+	 * @param lon longitude (rad)
+	 * @param alt altitude (m)
+	 * @return x, y, z (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static double[] toCartesian(double lat, double lon, double alt) {
+		return new double[] {(R + alt)*Math.cos(lat)*Math.cos(lon), (R + alt)*Math.cos(lat)*Math.sin(lon),
+				(R + alt)*Math.sin(lat)};
+	}
+
+	/**
+	 * Copies every column of a row, but the view, to a row of this store.
+	 *
+	 * @param source store holding the values
+	 * @param from row of the values in the source
+	 * @param to row receiving the values
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void copyRow(CatalogStore source, int from, int to) {
+		names[to] = source.names[from];
+		types[to] = source.types[from];
+		colors[to] = source.colors[from];
+		modes[to] = source.modes[from];
+		epoch[to] = source.epoch[from];
+		noradId[to] = source.noradId[from];
+		nDot[to] = source.nDot[from];
+		nDDot[to] = source.nDDot[from];
+		bStar[to] = source.bStar[from];
+		a[to] = source.a[from];
+		e[to] = source.e[from];
+		i[to] = source.i[from];
+		rAsc[to] = source.rAsc[from];
+		argPer[to] = source.argPer[from];
+		theta[to] = source.theta[from];
+		n[to] = source.n[from];
+		initialLat[to] = source.initialLat[from];
+		initialLon[to] = source.initialLon[from];
+		initialAlt[to] = source.initialAlt[from];
+		currentLat[to] = source.currentLat[from];
+		currentLon[to] = source.currentLon[from];
+		currentAlt[to] = source.currentAlt[from];
+		currentX[to] = source.currentX[from];
+		currentY[to] = source.currentY[from];
+		currentZ[to] = source.currentZ[from];
+	}
+
+	/**
+	 * Changes the capacity of every column.
+	 *
+	 * @param capacity new number of rows that fit in the columns
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void resize(int capacity) {
+		names = Arrays.copyOf(names, capacity);
+		types = Arrays.copyOf(types, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		modes = Arrays.copyOf(modes, capacity);
+		views = Arrays.copyOf(views, capacity);
+		epoch = Arrays.copyOf(epoch, capacity);
+		noradId = Arrays.copyOf(noradId, capacity);
+		nDot = Arrays.copyOf(nDot, capacity);
+		nDDot = Arrays.copyOf(nDDot, capacity);
+		bStar = Arrays.copyOf(bStar, capacity);
+		a = Arrays.copyOf(a, capacity);
+		e = Arrays.copyOf(e, capacity);
+		i = Arrays.copyOf(i, capacity);
+		rAsc = Arrays.copyOf(rAsc, capacity);
+		argPer = Arrays.copyOf(argPer, capacity);
+		theta = Arrays.copyOf(theta, capacity);
+		n = Arrays.copyOf(n, capacity);
+		initialLat = Arrays.copyOf(initialLat, capacity);
+		initialLon = Arrays.copyOf(initialLon, capacity);
+		initialAlt = Arrays.copyOf(initialAlt, capacity);
+		currentLat = Arrays.copyOf(currentLat, capacity);
+		currentLon = Arrays.copyOf(currentLon, capacity);
+		currentAlt = Arrays.copyOf(currentAlt, capacity);
+		currentX = Arrays.copyOf(currentX, capacity);
+		currentY = Arrays.copyOf(currentY, capacity);
+		currentZ = Arrays.copyOf(currentZ, capacity);
+	}
+}
@@ -0,0 +1,524 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * All-vs-all conjunction screening: finds every pair of objects of a catalog coming closer than a threshold
+ * during a time window, with the time of closest approach (TCA) and the miss distance.
+ * <p>
+ * The window is cut into short steps. At the middle of each step the positions of every object are interpolated
+ * from an {@link EphemerisCache} and hashed into a uniform ECEF grid, so only the pairs close enough to meet during
+ * the step are considered; a pair whose distance is larger than the threshold plus the distance both objects can
+ * travel in half a step cannot. The pairs left go through two sieves on their elements:
+ * <ul>
+ * <li>apogee/perigee: the radius ranges of the two orbits must overlap;</li>
+ * <li>orbit geometry: the two orbits must come close near one of the intersections of their planes.</li>
+ * </ul>
+ * The survivors are refined within the step by bisection on the range rate, which gives the TCA; events are
+ * kept if the miss distance is below the threshold. The steps are processed one after the other and the objects of a
+ * step in parallel chunks, while the next segment of the ephemeris is filled in the background.
+ * <p>
+ * The sieves use the element columns, which are mean elements for TLE objects, and allow for the short-period
+ * and J2 secular motions with a margin; the positions themselves come from SGP4 or the closed form, as in
+ * {@link BatchPropagator}.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class ConjunctionScreener {
+
+	/** Default screening threshold (m) */
+	public static final double DEFAULT_THRESHOLD = 10000;
+	/** Default length of a step (s) */
+	public static final double DEFAULT_STEP = 10;
+
+	private static final double MU = Constants.WGS84_EARTH_MU; //Earth gravitational parameter (m^3/s^2)
+	private static final double RE = Constants.WGS84_EARTH_EQUATORIAL_RADIUS; //Earth equatorial radius (m)
+	private static final double J2 = 0.001082616; //second zonal harmonic
+	private static final double SIEVE_MARGIN = 20000; //allowance for the mean to osculating radius difference (m)
+	private static final double SPEED_MARGIN = 1.01; //allowance for perturbations on the maximum speeds
+	private static final double MIN_SIN_INCLINATION = 1e-3; //planes closer than this are treated as coplanar
+	private static final double TCA_TOLERANCE = 1e-3; //accuracy of the TCA (s)
+
+	private final CatalogStore store; //columns of the objects
+	private final int[] rows; //rows screened
+	private final double[] perigee, apogee; //radius range of each orbit (m)
+	private final double[] p; //semi-latus rectum of each orbit (m)
+	private final double[] e; //eccentricity of each orbit
+	private final double[] vMax; //speed at perigee of each orbit (m/s)
+	private final double[] drift; //J2 drift rate of the node and perigee of each orbit (rad/s)
+	private final double[] epoch; //epoch of the elements of each orbit (s since J2000)
+	private final double[][] frame; //perigee direction, in-plane normal to it and orbit normal, 9 values per orbit
+
+	/**
+	 * Creates the screener of some objects of a store.
+	 *
+	 * @param store store of the objects
+	 * @param objects objects screened against each other, views of rows of the store
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public ConjunctionScreener(CatalogStore store, List<SpaceObject> objects) {
+
+		this.store = store;
+		rows = store.ids(objects);
+		int count = rows.length;
+		perigee = new double[count];
+		apogee = new double[count];
+		p = new double[count];
+		e = new double[count];
+		vMax = new double[count];
+		drift = new double[count];
+		epoch = new double[count];
+		frame = new double[count][];
+
+		for (int k = 0; k < count; k++) {
+			int row = rows[k];
+			double a = store.a[row];
+			e[k] = store.e[row];
+			perigee[k] = a*(1 - e[k]);
+			apogee[k] = a*(1 + e[k]);
+			p[k] = a*(1 - e[k]*e[k]);
+			vMax[k] = Math.sqrt(MU/a*(1 + e[k])/(1 - e[k]))*SPEED_MARGIN;
+
+			double ci = Math.cos(store.i[row]);
+			double rate = store.n[row]*J2*(RE/p[k])*(RE/p[k]);
+			drift[k] = Math.abs(1.5*rate*ci) + Math.abs(0.75*rate*(5*ci*ci - 1)); //node plus perigee
+			epoch[k] = store.epoch[row];
+
+			double cO = Math.cos(store.rAsc[row]), sO = Math.sin(store.rAsc[row]);
+			double cw = Math.cos(store.argPer[row]), sw = Math.sin(store.argPer[row]);
+			double si = Math.sin(store.i[row]);
+			frame[k] = new double[] {
+					cO*cw - sO*sw*ci, sO*cw + cO*sw*ci, sw*si, //towards the perigee
+					-cO*sw - sO*cw*ci, -sO*sw + cO*cw*ci, cw*si, //90 degrees ahead in the plane
+					sO*si, -cO*si, ci}; //orbit normal
+		}
+	}
+
+	/**
+	 * Returns the number of objects screened.
+	 *
+	 * @return number of objects
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return rows.length;
+	}
+
+	/**
+	 * Screens every pair with the default step.
+	 *
+	 * @param start start of the window
+	 * @param duration length of the window (s)
+	 * @param threshold miss distance under which a close approach is reported (m)
+	 * @return close approaches, in TCA order
+	 * @throws PatriusException if the objects cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<CloseApproach> screen(AbsoluteDate start, double duration, double threshold) throws PatriusException {
+		return screen(start, duration, threshold, DEFAULT_STEP);
+	}
+
+	/**
+	 * Screens every pair.
+	 *
+	 * @param start start of the window
+	 * @param duration length of the window (s)
+	 * @param threshold miss distance under which a close approach is reported (m)
+	 * @param step requested length of a step (s); shortened so that a segment of the ephemeris holds a whole
+	 * number of steps. Shorter steps test fewer pairs per step.
+	 * @return close approaches, in TCA order
+	 * @throws PatriusException if the objects cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<CloseApproach> screen(AbsoluteDate start, double duration, double threshold, double step)
+			throws PatriusException {
+
+		int count = rows.length;
+		List<CloseApproach> events = Collections.synchronizedList(new ArrayList<>());
+		if (count < 2 || duration <= 0) {return events;}
+
+		//Steps aligned on the segments of the ephemeris, so that a step never spans two segments
+		int stepsPerSegment = (int) Math.ceil(EphemerisCache.DEFAULT_SEGMENT/step);
+		double h = EphemerisCache.DEFAULT_SEGMENT/stepsPerSegment;
+		long budget = 3L*3*(EphemerisCache.DEFAULT_DEGREE + 1)*count*Double.BYTES; //current and next segments
+		EphemerisCache ephemeris = new EphemerisCache(store, rows, start, EphemerisCache.DEFAULT_SEGMENT,
+				EphemerisCache.DEFAULT_DEGREE, budget);
+		double t0 = start.durationFrom(AbsoluteDate.J2000_EPOCH);
+
+		//Grid cells large enough for any pair able to meet within a step
+		double speed = 0;
+		for (double v : vMax) {speed = Math.max(speed, v);}
+		double cellSize = threshold + speed*h;
+		double[] x = new double[count], y = new double[count], z = new double[count];
+		int buckets = Integer.highestOneBit(Math.max(2*count, 8) - 1) << 1;
+		int[] head = new int[buckets];
+		int[] next = new int[count];
+
+		long steps = (long) Math.ceil(duration/h);
+		for (long s = 0; s < steps; s++) {
+			double from = t0 + s*h;
+			double to = Math.min(t0 + duration, from + h);
+			if (s % stepsPerSegment == 0) { //entering a segment: fill the next one meanwhile
+				ephemeris.prefetchAsync(from + EphemerisCache.DEFAULT_SEGMENT, from + EphemerisCache.DEFAULT_SEGMENT);
+			}
+
+			//positions at the middle of the step, hashed into the grid
+			ephemeris.positionsEarthFixed(from + h/2, x, y, z);
+			Arrays.fill(head, -1);
+			for (int k = 0; k < count; k++) {
+				int bucket = bucket(cell(x[k], cellSize), cell(y[k], cellSize), cell(z[k], cellSize), buckets - 1);
+				next[k] = head[bucket];
+				head[bucket] = k;
+			}
+
+			//pairs of neighbouring cells, each pair tested once by its smallest index
+			BatchPropagator.forEachChunk(count, (first, last) -> {
+				int[] visited = new int[27];
+				double[] pv1 = new double[6], pv2 = new double[6];
+				for (int k = first; k < last; k++) {
+					int ix = cell(x[k], cellSize), iy = cell(y[k], cellSize), iz = cell(z[k], cellSize);
+					int nVisited = 0;
+					for (int dx = -1; dx <= 1; dx++) {
+						for (int dy = -1; dy <= 1; dy++) {
+							for (int dz = -1; dz <= 1; dz++) {
+								int bucket = bucket(ix + dx, iy + dy, iz + dz, buckets - 1);
+								if (contains(visited, nVisited, bucket)) {continue;} //cells sharing a bucket
+								visited[nVisited++] = bucket;
+								for (int j = head[bucket]; j >= 0; j = next[j]) {
+									if (j <= k) {continue;}
+									double reach = threshold + (vMax[k] + vMax[j])*h/2;
+									double ex = x[j] - x[k], ey = y[j] - y[k], ez = z[j] - z[k];
+									if (ex*ex + ey*ey + ez*ez > reach*reach) {continue;} //too far for this step
+									if (!radiiOverlap(k, j, threshold)) {continue;}
+									if (!orbitsIntersect(k, j, threshold, t0, t0 + duration)) {continue;}
+									CloseApproach event = refine(ephemeris, k, j, from, to, threshold, pv1, pv2);
+									if (event != null) {events.add(event);}
+								}
+							}
+						}
+					}
+				}
+			});
+		}
+
+		List<CloseApproach> sorted = new ArrayList<>(events);
+		sorted.sort(Comparator.comparingDouble(CloseApproach::getTcaSeconds));
+		return sorted;
+	}
+
+	/**
+	 * Apogee/perigee sieve: tells if the radius ranges of two orbits overlap within the threshold.
+	 *
+	 * @param k index of the first object
+	 * @param j index of the second object
+	 * @param threshold screening threshold (m)
+	 * @return false if the objects can never come closer than the threshold
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	boolean radiiOverlap(int k, int j, double threshold) {
+		double gap = Math.max(perigee[k], perigee[j]) - Math.min(apogee[k], apogee[j]);
+		return gap <= threshold + SIEVE_MARGIN;
+	}
+
+	/**
+	 * Orbit geometry sieve: two objects in different planes can only meet close to the line where the planes
+	 * cross, so their orbits must reach the same radius near one of the two crossings. The crossings are computed
+	 * from the elements at their epochs, so the angular windows around them are widened by the J2 drift of each
+	 * orbit from its epoch to the farthest end of the screening window. Coplanar orbits always pass.
+	 *
+	 * @param k index of the first object
+	 * @param j index of the second object
+	 * @param threshold screening threshold (m)
+	 * @param from start of the screening window (s since J2000)
+	 * @param to end of the screening window (s since J2000)
+	 * @return false if the objects can never come closer than the threshold
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	boolean orbitsIntersect(int k, int j, double threshold, double from, double to) {
+
+		double[] f1 = frame[k], f2 = frame[j];
+		double nx = f1[7]*f2[8] - f1[8]*f2[7]; //line of the crossings, normal 1 x normal 2
+		double ny = f1[8]*f2[6] - f1[6]*f2[8];
+		double nz = f1[6]*f2[7] - f1[7]*f2[6];
+		double sinI = Math.sqrt(nx*nx + ny*ny + nz*nz); //sine of the angle between the planes
+		if (sinI < MIN_SIN_INCLINATION) {return true;}
+
+		double reach = threshold + SIEVE_MARGIN;
+		double span1 = Math.max(Math.abs(from - epoch[k]), Math.abs(to - epoch[k])); //time drifted since epoch
+		double span2 = Math.max(Math.abs(from - epoch[j]), Math.abs(to - epoch[j]));
+		double margin = (drift[k]*span1 + drift[j]*span2)/sinI; //motion of the crossings and perigees
+		double window1 = angularWindow(perigee[k], reach, sinI) + margin;
+		double window2 = angularWindow(perigee[j], reach, sinI) + margin;
+		for (int side = -1; side <= 1; side += 2) { //both crossings
+			double nu1 = Math.atan2(side*(nx*f1[3] + ny*f1[4] + nz*f1[5]), side*(nx*f1[0] + ny*f1[1] + nz*f1[2]));
+			double nu2 = Math.atan2(side*(nx*f2[3] + ny*f2[4] + nz*f2[5]), side*(nx*f2[0] + ny*f2[1] + nz*f2[2]));
+			double[] r1 = radiusRange(k, nu1, window1);
+			double[] r2 = radiusRange(j, nu2, window2);
+			if (Math.max(r1[0] - r2[1], r2[0] - r1[1]) <= reach) {return true;}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the half-width of the arc around a crossing of the planes where an orbit stays within a distance of
+	 * the other plane.
+	 *
+	 * @param radius smallest radius of the orbit (m)
+	 * @param reach distance to the other plane (m)
+	 * @param sinI sine of the angle between the planes
+	 * @return half-width of the arc (rad)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double angularWindow(double radius, double reach, double sinI) {
+		double sine = reach/(radius*sinI);
+		return sine >= 1 ? Math.PI/2 : Math.asin(sine);
+	}
+
+	/**
+	 * Returns the range of radii of an orbit over an arc of true anomaly.
+	 *
+	 * @param k index of the object
+	 * @param nu true anomaly of the middle of the arc (rad)
+	 * @param window half-width of the arc (rad)
+	 * @return smallest and largest radius (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private double[] radiusRange(int k, double nu, double window) {
+		if (window >= Math.PI) {return new double[] {perigee[k], apogee[k]};}
+		double r1 = p[k]/(1 + e[k]*Math.cos(nu - window));
+		double r2 = p[k]/(1 + e[k]*Math.cos(nu + window));
+		double min = Math.min(r1, r2), max = Math.max(r1, r2);
+		//the radius is monotonic between perigee (0) and apogee (pi): include them if inside the arc
+		if (Math.abs(Math.IEEEremainder(nu, 2*Math.PI)) <= window) {min = perigee[k];}
+		if (Math.abs(Math.IEEEremainder(nu - Math.PI, 2*Math.PI)) <= window) {max = apogee[k];}
+		return new double[] {min, max};
+	}
+
+	/**
+	 * Looks for the closest approach of a pair within a step by bisection on the range rate, which goes from
+	 * negative to positive at a minimum of the distance. A minimum falling exactly on the end of the step
+	 * belongs to the next step.
+	 *
+	 * @param ephemeris ephemeris of the objects
+	 * @param k index of the first object
+	 * @param j index of the second object
+	 * @param from start of the step (s since J2000)
+	 * @param to end of the step (s since J2000)
+	 * @param threshold screening threshold (m)
+	 * @param pv1 work array of 6 values
+	 * @param pv2 work array of 6 values
+	 * @return close approach, or null if there is no minimum within the step or it is above the threshold
+	 * @throws PatriusException if the ephemeris cannot be filled
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private CloseApproach refine(EphemerisCache ephemeris, int k, int j, double from, double to, double threshold,
+			double[] pv1, double[] pv2) throws PatriusException {
+
+		if (rangeRate(ephemeris, k, j, from, pv1, pv2) >= 0) {return null;}
+		if (rangeRate(ephemeris, k, j, to, pv1, pv2) < 0) {return null;}
+		double lo = from, hi = to;
+		while (hi - lo > TCA_TOLERANCE) {
+			double mid = (lo + hi)/2;
+			if (rangeRate(ephemeris, k, j, mid, pv1, pv2) < 0) {lo = mid;} else {hi = mid;}
+		}
+		double tca = (lo + hi)/2;
+		rangeRate(ephemeris, k, j, tca, pv1, pv2);
+		double miss = Math.sqrt(square(pv2[0] - pv1[0]) + square(pv2[1] - pv1[1]) + square(pv2[2] - pv1[2]));
+		if (miss > threshold) {return null;}
+		double speed = Math.sqrt(square(pv2[3] - pv1[3]) + square(pv2[4] - pv1[4]) + square(pv2[5] - pv1[5]));
+		return new CloseApproach(store.get(rows[k]), store.get(rows[j]), tca, miss, speed);
+	}
+
+	/**
+	 * Computes the states of two objects and the derivative of half their squared distance.
+	 *
+	 * @param ephemeris ephemeris of the objects
+	 * @param k index of the first object
+	 * @param j index of the second object
+	 * @param t date (s since J2000)
+	 * @param pv1 array receiving the state of the first object
+	 * @param pv2 array receiving the state of the second object
+	 * @return relative position times relative velocity (m^2/s)
+	 * @throws PatriusException if the ephemeris cannot be filled
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double rangeRate(EphemerisCache ephemeris, int k, int j, double t, double[] pv1, double[] pv2)
+			throws PatriusException {
+		ephemeris.stateEarthFixed(k, t, pv1);
+		ephemeris.stateEarthFixed(j, t, pv2);
+		return (pv2[0] - pv1[0])*(pv2[3] - pv1[3]) + (pv2[1] - pv1[1])*(pv2[4] - pv1[4])
+				+ (pv2[2] - pv1[2])*(pv2[5] - pv1[5]);
+	}
+
+	/**
+	 * Squares a value.
+	 *
+	 * @param value value
+	 * @return value*value
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double square(double value) {
+		return value*value;
+	}
+
+	/**
+	 * Returns the index of the grid cell holding a coordinate along one axis.
+	 *
+	 * @param coordinate x, y or z (m)
+	 * @param cellSize edge of a cell (m)
+	 * @return cell index along the axis
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static int cell(double coordinate, double cellSize) {
+		return (int) Math.floor(coordinate/cellSize);
+	}
+
+	/**
+	 * Hashes a cell to its bucket, as {@link SpatialGrid} does.
+	 *
+	 * @param ix cell index along x
+	 * @param iy cell index along y
+	 * @param iz cell index along z
+	 * @param mask number of buckets minus one
+	 * @return bucket index
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static int bucket(int ix, int iy, int iz, int mask) {
+		return (ix*73856093 ^ iy*19349663 ^ iz*83492791) & mask;
+	}
+
+	/**
+	 * Tells if a value is in the first entries of an array.
+	 *
+	 * @param values array to be searched
+	 * @param count number of entries in use
+	 * @param value value to be found
+	 * @return true if the value is found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static boolean contains(int[] values, int count, int value) {
+		for (int k = 0; k < count; k++) {
+			if (values[k] == value) {return true;}
+		}
+		return false;
+	}
+
+	/**
+	 * Close approach between two objects.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static class CloseApproach {
+
+		private final SpaceObject first; //object of the smallest index
+		private final SpaceObject second; //other object
+		private final double tca; //time of closest approach (s since J2000)
+		private final double missDistance; //distance at the TCA (m)
+		private final double relativeSpeed; //relative speed at the TCA (m/s)
+
+		CloseApproach(SpaceObject first, SpaceObject second, double tca, double missDistance, double relativeSpeed) {
+			this.first = first;
+			this.second = second;
+			this.tca = tca;
+			this.missDistance = missDistance;
+			this.relativeSpeed = relativeSpeed;
+		}
+
+		/**
+		 * Returns the first object.
+		 *
+		 * @return SpaceObject
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public SpaceObject getFirst() {
+			return first;
+		}
+
+		/**
+		 * Returns the second object.
+		 *
+		 * @return SpaceObject
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public SpaceObject getSecond() {
+			return second;
+		}
+
+		/**
+		 * Returns the time of closest approach.
+		 *
+		 * @return AbsoluteDate of the TCA
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public AbsoluteDate getTca() {
+			return AbsoluteDate.J2000_EPOCH.shiftedBy(tca);
+		}
+
+		/**
+		 * Returns the time of closest approach in seconds.
+		 *
+		 * @return TCA (s since J2000)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public double getTcaSeconds() {
+			return tca;
+		}
+
+		/**
+		 * Returns the miss distance.
+		 *
+		 * @return distance at the TCA (m)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public double getMissDistance() {
+			return missDistance;
+		}
+
+		/**
+		 * Returns the relative speed at the TCA.
+		 *
+		 * @return relative speed (m/s)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public double getRelativeSpeed() {
+			return relativeSpeed;
+		}
+
+		@Override
+		public String toString() {
+			return first.getName() + " / " + second.getName() + ": " + getTca() + ", "
+					+ String.format("%.1f m at %.1f m/s", missDistance, relativeSpeed);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.cnes.sirius.patrius.bodies.GeodeticPoint;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.frames.transformations.Transform;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Transforms to ITRF shared by the whole process. The transform from a frame to ITRF is computed by Patrius
+ * once per day, at 00:00 since J2000, and kept as a matrix and a translation; at any other date it is that
+ * transform followed by the Earth rotation since the start of the day. Every position converted on the same day,
+ * e.g. all the steps of a numerical propagation or a whole catalog at one date, thus shares one Patrius call.
+ * Precession and nutation within a day are neglected, a few tens of metres at most.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public final class EarthFrames {
+
+	private static final double DAY = 86400; //time between two transforms computed by Patrius (s)
+	private static final double EARTH_RATE = Constants.WGS84_EARTH_ANGULAR_VELOCITY; //Earth rotation rate (rad/s)
+
+	/** Transforms to ITRF at the start of each day since J2000, for each source frame: matrix row by row, then translation */
+	private static final ConcurrentHashMap<Frame, ConcurrentHashMap<Long, double[]>> DAILY_TRANSFORMS =
+			new ConcurrentHashMap<>();
+
+	private EarthFrames() {} //static methods only
+
+	/**
+	 * Converts a position to geodetic coordinates on the WGS84 ellipsoid.
+	 *
+	 * @param position position (m)
+	 * @param frame frame of the position
+	 * @param date date of the position
+	 * @return latitude (rad), longitude (rad), altitude (m)
+	 * @throws PatriusException if the transform to ITRF cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static GeodeticPoint toGeodetic(Vector3D position, Frame frame, AbsoluteDate date) throws PatriusException {
+
+		double[] r = {position.getX(), position.getY(), position.getZ()};
+		toItrf(frame, date.durationFrom(AbsoluteDate.J2000_EPOCH), r);
+		double[] geodetic = new double[3];
+		AnalyticOrbitPropagator.toGeodetic(r[0], r[1], r[2], geodetic);
+		return new GeodeticPoint(geodetic[0], geodetic[1], geodetic[2]);
+	}
+
+	/**
+	 * Converts positions all given at the same date to geodetic coordinates in place.
+	 *
+	 * @param frame frame of the positions
+	 * @param date date of the positions
+	 * @param x x (m), replaced by the latitude (rad)
+	 * @param y y (m), replaced by the longitude (rad)
+	 * @param z z (m), replaced by the altitude (m)
+	 * @throws PatriusException if the transform to ITRF cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void toGeodetic(Frame frame, AbsoluteDate date, double[] x, double[] y, double[] z)
+			throws PatriusException {
+		toItrf(frame, date.durationFrom(AbsoluteDate.J2000_EPOCH), x, y, z);
+		BatchPropagator.toGeodetic(x, y, z);
+	}
+
+	/**
+	 * Transforms a position to ITRF, in place.
+	 *
+	 * @param frame frame of the position
+	 * @param t date (s since J2000)
+	 * @param r position (m), replaced by its ITRF coordinates
+	 * @throws PatriusException if the transform to ITRF cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void toItrf(Frame frame, double t, double[] r) throws PatriusException {
+
+		long day = (long) Math.floor(t/DAY);
+		apply(dailyTransform(frame, day), r); //to ITRF at the start of the day
+
+		//Earth rotation since the start of the day; nothing allocated, this runs for every object and frame
+		double angle = EARTH_RATE*(t - day*DAY);
+		double c = Math.cos(angle), s = Math.sin(angle);
+		double x = r[0];
+		r[0] = c*x + s*r[1];
+		r[1] = -s*x + c*r[1];
+	}
+
+	/**
+	 * Transforms positions all given at the same date to ITRF in place, with a single transform.
+	 *
+	 * @param frame frame of the positions
+	 * @param t date (s since J2000)
+	 * @param x x (m), replaced by the ITRF x
+	 * @param y y (m), replaced by the ITRF y
+	 * @param z z (m), replaced by the ITRF z
+	 * @throws PatriusException if the transform to ITRF cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void toItrf(Frame frame, double t, double[] x, double[] y, double[] z) throws PatriusException {
+
+		double[] m = transformToItrf(frame, t);
+		double[] r = new double[3];
+		for (int k = 0; k < x.length; k++) {
+			r[0] = x[k];
+			r[1] = y[k];
+			r[2] = z[k];
+			apply(m, r);
+			x[k] = r[0];
+			y[k] = r[1];
+			z[k] = r[2];
+		}
+	}
+
+	/**
+	 * Returns the transform from a frame to ITRF at a date: the transform at the start of its day followed by
+	 * the Earth rotation since then.
+	 *
+	 * @param frame source frame
+	 * @param t date (s since J2000)
+	 * @return matrix row by row, then translation (m)
+	 * @throws PatriusException if the transform to ITRF cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double[] transformToItrf(Frame frame, double t) throws PatriusException {
+
+		long day = (long) Math.floor(t/DAY);
+		double[] m = dailyTransform(frame, day);
+
+		//Earth rotation since the start of the day, about the ITRF z axis
+		double angle = EARTH_RATE*(t - day*DAY);
+		double c = Math.cos(angle), s = Math.sin(angle);
+		return new double[] {c*m[0] + s*m[3], c*m[1] + s*m[4], c*m[2] + s*m[5],
+				            -s*m[0] + c*m[3], -s*m[1] + c*m[4], -s*m[2] + c*m[5],
+				             m[6], m[7], m[8],
+				             c*m[9] + s*m[10], -s*m[9] + c*m[10], m[11]};
+	}
+
+	/**
+	 * Applies a transform to a position, in place.
+	 *
+	 * @param m transform as returned by {@link #transformToItrf(Frame, double)}
+	 * @param r position (m), replaced by its ITRF coordinates
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void apply(double[] m, double[] r) {
+		double x = m[0]*r[0] + m[1]*r[1] + m[2]*r[2] + m[9];
+		double y = m[3]*r[0] + m[4]*r[1] + m[5]*r[2] + m[10];
+		double z = m[6]*r[0] + m[7]*r[1] + m[8]*r[2] + m[11];
+		r[0] = x;
+		r[1] = y;
+		r[2] = z;
+	}
+
+	/**
+	 * Returns the transform from a frame to ITRF at the start of a day, computing it with Patrius on first use.
+	 *
+	 * @param frame source frame
+	 * @param day days since J2000
+	 * @return matrix row by row, then translation (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double[] dailyTransform(Frame frame, long day) throws PatriusException {
+
+		ConcurrentHashMap<Long, double[]> transforms = DAILY_TRANSFORMS.computeIfAbsent(frame, f -> new ConcurrentHashMap<>());
+		double[] m = transforms.get(day);
+		if (m == null) {
+			AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(day*DAY);
+			Transform transform = frame.getTransformTo(FramesFactory.getITRF(), date);
+
+			//the images of the unit vectors minus the image of the origin are the columns of the matrix
+			Vector3D o = transform.transformPosition(new Vector3D(0, 0, 0));
+			Vector3D ex = transform.transformPosition(new Vector3D(1, 0, 0));
+			Vector3D ey = transform.transformPosition(new Vector3D(0, 1, 0));
+			Vector3D ez = transform.transformPosition(new Vector3D(0, 0, 1));
+			m = new double[] {ex.getX() - o.getX(), ey.getX() - o.getX(), ez.getX() - o.getX(),
+					          ex.getY() - o.getY(), ey.getY() - o.getY(), ez.getY() - o.getY(),
+					          ex.getZ() - o.getZ(), ey.getZ() - o.getZ(), ez.getZ() - o.getZ(),
+					          o.getX(), o.getY(), o.getZ()};
+			transforms.putIfAbsent(day, m); //one entry per day used, a handful per run
+		}
+		return m;
+	}
+}
@@ -0,0 +1,297 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Ephemerides of a set of objects, stored as Chebyshev polynomials so that the positions of the whole set can
+ * be served at any date much faster than by propagating, e.g. to scrub or fast-forward the view.
+ * <p>
+ * Time is cut into segments of fixed length. The first time a segment is needed, the objects are propagated
+ * by a {@link BatchPropagator} at the Chebyshev nodes of the segment and the ITRF coordinates are fitted by
+ * Chebyshev polynomials; a position is then a Clenshaw evaluation. The coefficients of a segment are stored in
+ * one primitive array, object after object. Segments are filled as the requested dates move, and the least
+ * recently used ones are dropped once the memory budget is reached.
+ * <p>
+ * The elements of the objects are copied from the store when the cache is created, and every segment is fitted
+ * from that copy. The cache can thus be filled on background threads while the catalog changes; it must be
+ * created on the thread that changes the store, and it keeps the elements of that moment.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class EphemerisCache {
+
+	/** Default length of a segment (s) */
+	public static final double DEFAULT_SEGMENT = 900;
+	/** Default degree of the Chebyshev polynomials */
+	public static final int DEFAULT_DEGREE = 10;
+	/** Default memory budget of the coefficients (256 MB) */
+	public static final long DEFAULT_BUDGET = 256L << 20;
+
+	private final BatchPropagator propagator; //propagates the objects at the nodes, from its copy of the elements
+	private final int nObjects; //number of objects
+	private final double origin; //start of segment 0 (s since J2000)
+	private final double segment; //length of a segment (s)
+	private final int nCoef; //coefficients per coordinate (degree + 1)
+	private final int maxSegments; //segments kept in memory
+	private final double[] nodes; //Chebyshev nodes in [-1, 1]
+	private final double[][] basis; //T_k(nodes[j]) for every k and j
+	private final LinkedHashMap<Long, double[]> segments = new LinkedHashMap<>(16, 0.75f, true); //by index, access order
+	private final AtomicBoolean prefetching = new AtomicBoolean(); //a background fill is running
+
+	/**
+	 * Creates an empty cache with the default segment, degree and budget, copying the elements of the objects.
+	 *
+	 * @param store store of the objects; must not change during the call
+	 * @param rows rows of the objects; positions are given in the same order
+	 * @param origin date around which the cache is used
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public EphemerisCache(CatalogStore store, int[] rows, AbsoluteDate origin) {
+		this(store, rows, origin, DEFAULT_SEGMENT, DEFAULT_DEGREE, DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Creates an empty cache, copying the elements of the objects.
+	 *
+	 * @param store store of the objects; must not change during the call
+	 * @param rows rows of the objects; positions are given in the same order
+	 * @param origin date around which the cache is used; segments start at origin + k*segmentLength
+	 * @param segmentLength length of a segment (s); shorter for a better accuracy on eccentric orbits
+	 * @param degree degree of the Chebyshev polynomials
+	 * @param budget memory budget of the coefficients (bytes); at least two segments are kept
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public EphemerisCache(CatalogStore store, int[] rows, AbsoluteDate origin, double segmentLength, int degree,
+			long budget) {
+
+		propagator = new BatchPropagator(store, rows);
+		nObjects = rows.length;
+		this.origin = origin.durationFrom(AbsoluteDate.J2000_EPOCH);
+		segment = segmentLength;
+		nCoef = degree + 1;
+		maxSegments = (int) Math.max(2, budget/Math.max(1L, 3L*nCoef*nObjects*Double.BYTES));
+
+		//Chebyshev nodes of the first kind and the polynomials at the nodes
+		nodes = new double[nCoef];
+		basis = new double[nCoef][nCoef];
+		for (int j = 0; j < nCoef; j++) {
+			nodes[j] = Math.cos(Math.PI*(j + 0.5)/nCoef);
+			for (int k = 0; k < nCoef; k++) {
+				basis[k][j] = Math.cos(k*Math.PI*(j + 0.5)/nCoef);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of objects.
+	 *
+	 * @return number of objects in the cache
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return nObjects;
+	}
+
+	/**
+	 * Returns the number of segments in memory.
+	 *
+	 * @return number of filled segments
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Computes the ITRF positions of every object at a date, filling its segment if needed.
+	 *
+	 * @param t date (s since J2000)
+	 * @param x array receiving the x of each object (m)
+	 * @param y array receiving the y of each object (m)
+	 * @param z array receiving the z of each object (m)
+	 * @throws PatriusException if the segment cannot be filled
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void positionsEarthFixed(double t, double[] x, double[] y, double[] z) throws PatriusException {
+
+		long index = (long) Math.floor((t - origin)/segment);
+		double[] coefs = segment(index);
+		double u = 2*(t - origin - index*segment)/segment - 1; //date in [-1, 1]
+		BatchPropagator.forEachChunk(nObjects, (from, to) -> {
+			for (int k = from; k < to; k++) {
+				int base = 3*nCoef*k;
+				x[k] = clenshaw(coefs, base, u);
+				y[k] = clenshaw(coefs, base + nCoef, u);
+				z[k] = clenshaw(coefs, base + 2*nCoef, u);
+			}
+		});
+	}
+
+	/**
+	 * Computes the ITRF position and velocity of one object at a date, filling its segment if needed. The
+	 * velocity is the derivative of the polynomials.
+	 *
+	 * @param k index of the object, in the order of the rows
+	 * @param t date (s since J2000)
+	 * @param pv array receiving x, y, z (m) and vx, vy, vz (m/s)
+	 * @throws PatriusException if the segment cannot be filled
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	void stateEarthFixed(int k, double t, double[] pv) throws PatriusException {
+
+		long index = (long) Math.floor((t - origin)/segment);
+		double[] coefs = segment(index);
+		double u = 2*(t - origin - index*segment)/segment - 1; //date in [-1, 1]
+		int base = 3*nCoef*k;
+		for (int axis = 0; axis < 3; axis++) {
+			//Clenshaw's recurrence and its derivative with respect to u
+			double b1 = 0, b2 = 0, d1 = 0, d2 = 0;
+			for (int c = nCoef - 1; c >= 1; c--) {
+				double b = coefs[base + axis*nCoef + c] + 2*u*b1 - b2;
+				double d = 2*b1 + 2*u*d1 - d2;
+				b2 = b1;
+				b1 = b;
+				d2 = d1;
+				d1 = d;
+			}
+			pv[axis] = coefs[base + axis*nCoef] + u*b1 - b2;
+			pv[axis + 3] = (b1 + u*d1 - d2)*2/segment;
+		}
+	}
+
+	/**
+	 * Computes the geodetic positions of every object at a date, filling its segment if needed.
+	 *
+	 * @param t date (s since J2000)
+	 * @param lat array receiving the latitude of each object (rad)
+	 * @param lon array receiving the longitude of each object (rad)
+	 * @param alt array receiving the altitude of each object (m)
+	 * @throws PatriusException if the segment cannot be filled
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void positions(double t, double[] lat, double[] lon, double[] alt) throws PatriusException {
+		positionsEarthFixed(t, lat, lon, alt); //x, y, z for now
+		BatchPropagator.toGeodetic(lat, lon, alt);
+	}
+
+	/**
+	 * Fills every segment overlapping a time window that is not in memory yet.
+	 *
+	 * @param start start of the window (s since J2000)
+	 * @param end end of the window (s since J2000)
+	 * @throws PatriusException if a segment cannot be filled
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void prefetch(double start, double end) throws PatriusException {
+		long first = (long) Math.floor((Math.min(start, end) - origin)/segment);
+		long last = (long) Math.floor((Math.max(start, end) - origin)/segment);
+		for (long index = first; index <= last; index++) {
+			segment(index);
+		}
+	}
+
+	/**
+	 * Fills the segments of a time window on the common pool, unless a background fill is already running.
+	 *
+	 * @param start start of the window (s since J2000)
+	 * @param end end of the window (s since J2000)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void prefetchAsync(double start, double end) {
+		if (!prefetching.compareAndSet(false, true)) {return;}
+		CompletableFuture.runAsync(() -> {
+			try {
+				prefetch(start, end);
+			} catch (PatriusException e) {
+				e.printStackTrace();
+			} finally {
+				prefetching.set(false);
+			}
+		});
+	}
+
+	/**
+	 * Returns the coefficients of a segment, filling it on first use.
+	 *
+	 * @param index index of the segment
+	 * @return coefficients of x, y and z of each object
+	 * @throws PatriusException if the objects cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private synchronized double[] segment(long index) throws PatriusException {
+
+		double[] coefs = segments.get(index);
+		if (coefs != null) {return coefs;}
+
+		//Propagate every object at the nodes of the segment
+		double[][] px = new double[nCoef][nObjects], py = new double[nCoef][nObjects], pz = new double[nCoef][nObjects];
+		double start = origin + index*segment;
+		for (int j = 0; j < nCoef; j++) {
+			propagator.propagateEarthFixed(start + (nodes[j] + 1)/2*segment, px[j], py[j], pz[j]);
+		}
+
+		//Fit the coefficients: c_k = 2/N sum_j f(x_j) T_k(x_j), c_0 halved
+		double[] fitted = new double[3*nCoef*nObjects];
+		BatchPropagator.forEachChunk(nObjects, (from, to) -> {
+			for (int obj = from; obj < to; obj++) {
+				int base = 3*nCoef*obj;
+				for (int k = 0; k < nCoef; k++) {
+					double cx = 0, cy = 0, cz = 0;
+					for (int j = 0; j < nCoef; j++) {
+						cx += px[j][obj]*basis[k][j];
+						cy += py[j][obj]*basis[k][j];
+						cz += pz[j][obj]*basis[k][j];
+					}
+					double scale = (k == 0 ? 1.0 : 2.0)/nCoef;
+					fitted[base + k] = cx*scale;
+					fitted[base + nCoef + k] = cy*scale;
+					fitted[base + 2*nCoef + k] = cz*scale;
+				}
+			}
+		});
+
+		segments.put(index, fitted);
+		if (segments.size() > maxSegments) { //drop the least recently used segment
+			Map.Entry<Long, double[]> eldest = segments.entrySet().iterator().next();
+			segments.remove(eldest.getKey());
+		}
+		return fitted;
+	}
+
+	/**
+	 * Evaluates a Chebyshev series with Clenshaw's recurrence.
+	 *
+	 * @param coefs array holding the coefficients
+	 * @param base index of the coefficient of degree 0
+	 * @param u point in [-1, 1]
+	 * @return value of the series
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private double clenshaw(double[] coefs, int base, double u) {
+		double b1 = 0, b2 = 0;
+		for (int k = nCoef - 1; k >= 1; k--) {
+			double b = coefs[base + k] + 2*u*b1 - b2;
+			b2 = b1;
+			b1 = b;
+		}
+		return coefs[base] + u*b1 - b2;
+	}
+}
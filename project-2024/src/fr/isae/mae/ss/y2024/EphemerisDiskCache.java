@@ -0,0 +1,380 @@
+package fr.isae.mae.ss.y2024;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ephemerides kept on disk from one run to the next, so that the sampled orbit paths of unchanged TLEs are read
+ * back instead of propagated again. An entry is keyed by the hash of the TLE fields, the propagation engine and
+ * the time window it covers, and holds its samples as a block of doubles: latitude, longitude, altitude and
+ * rank of each sample, see {@link OrbitSampler.Samples}.
+ * <p>
+ * The file is memory-mapped once at the size of the budget and the blocks are appended in it. When a new block
+ * does not fit, the least recently used blocks are evicted until half of the budget is free and the others are
+ * moved to the front. The whole file is discarded if it was written by another version or with other sampling
+ * settings. Blocks are written before the end of the used space is moved past them, so a block cut by a crash
+ * is ignored on the next run.
+ * <p>
+ * The cache used by the space objects is set with {@link #setDefault(EphemerisDiskCache)}; without it, every path
+ * is propagated. All methods are synchronized so paths can be read on the event dispatch thread while a loader
+ * adds others.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class EphemerisDiskCache {
+
+	/** Default size of the file (64 MB) */
+	public static final long DEFAULT_BUDGET = 64L << 20;
+
+	private static final int MAGIC = 0x4f564543; //"OVEC"
+	private static final int VERSION = 1;
+
+	//Header: magic, version, sampling tolerance, numerical step, end of the used space, access clock
+	private static final int TOLERANCE = 8, STEP = 16, END = 24, CLOCK = 32, HEADER = 40;
+	//Block: TLE hash, window start, window length, engine, number of samples, last access, then the samples
+	private static final int START = 8, LENGTH = 16, MODE = 24, COUNT = 28, USED = 32, BLOCK_HEADER = 40;
+	private static final int SAMPLE_BYTES = 4*Double.BYTES; //latitude, longitude, altitude, rank
+
+	private static volatile EphemerisDiskCache defaultCache; //cache used by the space objects, null if none
+
+	private final MappedByteBuffer map; //whole file
+	private final Map<Key, Integer> blocks = new HashMap<>(); //offset of each block
+	private final long budget; //size of the file (bytes)
+
+	/**
+	 * Key of an entry.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static final class Key {
+
+		private final long tle; //hash of the TLE fields
+		private final int mode; //ordinal of the engine
+		private final double start; //start of the window (s since J2000)
+		private final double length; //length of the window (s)
+
+		private Key(long tle, int mode, double start, double length) {
+			this.tle = tle;
+			this.mode = mode;
+			this.start = start;
+			this.length = length;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {return false;}
+			Key key = (Key) other;
+			return tle == key.tle && mode == key.mode && Double.compare(start, key.start) == 0
+					&& Double.compare(length, key.length) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(tle, mode, start, length);
+		}
+	}
+
+	private EphemerisDiskCache(MappedByteBuffer map, long budget) {
+		this.map = map;
+		this.budget = budget;
+	}
+
+	/**
+	 * Opens the cache stored in a file, creating it if needed. Entries written with another sampling tolerance
+	 * or numerical step are discarded.
+	 *
+	 * @param file file of the cache
+	 * @param budget size of the file (bytes); least recently used entries are evicted beyond it
+	 * @param tolerance tolerance the paths are sampled with (m)
+	 * @param step time between the numerically propagated points of a path (s)
+	 * @return cache holding the valid entries of the file
+	 * @throws IOException if the file cannot be mapped
+	 * @throws IllegalArgumentException if the budget is not between 64 kB and 2 GB
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static EphemerisDiskCache open(Path file, long budget, double tolerance, double step) throws IOException {
+
+		if (budget < (64L << 10) || budget > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Budget out of range: " + budget);
+		}
+		MappedByteBuffer map;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			map = channel.map(FileChannel.MapMode.READ_WRITE, 0, budget); //the mapping outlives the channel
+		}
+		EphemerisDiskCache cache = new EphemerisDiskCache(map, budget);
+
+		long end = map.getLong(END);
+		if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getDouble(TOLERANCE) != tolerance
+				|| map.getDouble(STEP) != step || end < HEADER || end > budget) {
+			map.putInt(0, MAGIC);
+			map.putInt(4, VERSION);
+			map.putDouble(TOLERANCE, tolerance);
+			map.putDouble(STEP, step);
+			map.putLong(END, HEADER);
+			map.putLong(CLOCK, 0);
+			return cache;
+		}
+
+		//Index the blocks, up to the first one that does not fit
+		int offset = HEADER;
+		while (offset + BLOCK_HEADER <= end) {
+			int count = map.getInt(offset + COUNT);
+			if (count < 2 || count > (end - offset - BLOCK_HEADER)/SAMPLE_BYTES) {break;}
+			cache.blocks.put(cache.key(offset), offset);
+			offset += blockSize(count);
+		}
+		map.putLong(END, offset);
+		return cache;
+	}
+
+	/**
+	 * Sets the cache used by the space objects.
+	 *
+	 * @param cache cache, or null to propagate every path
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void setDefault(EphemerisDiskCache cache) {
+		defaultCache = cache;
+	}
+
+	/**
+	 * Returns the cache used by the space objects.
+	 *
+	 * @return cache, or null if none is set
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static EphemerisDiskCache getDefault() {
+		return defaultCache;
+	}
+
+	/**
+	 * Hashes the fields of a TLE, as the key of its entries.
+	 *
+	 * @param fields values read from the TLE, in a fixed order
+	 * @return 64-bit FNV-1a hash of their bits
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static long hash(double... fields) {
+		long hash = 0xcbf29ce484222325L;
+		for (double field : fields) {
+			long bits = Double.doubleToLongBits(field);
+			for (int b = 0; b < Long.BYTES; b++) {
+				hash ^= (bits >>> 8*b) & 0xff;
+				hash *= 0x100000001b3L;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the samples of an entry and marks it as the most recently used.
+	 *
+	 * @param tle hash of the TLE fields, see {@link #hash(double...)}
+	 * @param mode engine the samples were propagated with
+	 * @param start start of the window (s since J2000)
+	 * @param length length of the window (s)
+	 * @return samples read from the file, or null if the entry is not cached
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized OrbitSampler.Samples get(long tle, PropagationMode mode, double start, double length) {
+
+		Integer offset = blocks.get(new Key(tle, mode.ordinal(), start, length));
+		if (offset == null) {
+			Metrics.count("ephemeris.miss", 1);
+			return null;
+		}
+		touch(offset);
+
+		int count = map.getInt(offset + COUNT);
+		double[][] points = new double[count][];
+		double[] rank = new double[count];
+		for (int k = 0, at = offset + BLOCK_HEADER; k < count; k++, at += SAMPLE_BYTES) {
+			points[k] = new double[] {map.getDouble(at), map.getDouble(at + 8), map.getDouble(at + 16)};
+			rank[k] = map.getDouble(at + 24);
+		}
+		Metrics.count("ephemeris.hit", 1);
+		return new OrbitSampler.Samples(points, rank);
+	}
+
+	/**
+	 * Writes the samples of an entry, replacing the previous ones, and evicts the least recently used entries if
+	 * the file is full. Samples larger than half of the budget are not cached.
+	 *
+	 * @param tle hash of the TLE fields, see {@link #hash(double...)}
+	 * @param mode engine the samples were propagated with
+	 * @param start start of the window (s since J2000)
+	 * @param length length of the window (s)
+	 * @param samples ranked samples
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized void put(long tle, PropagationMode mode, double start, double length,
+			OrbitSampler.Samples samples) {
+
+		int size = blockSize(samples.size());
+		if (samples.size() < 2 || size > (budget - HEADER)/2) {return;}
+		Key key = new Key(tle, mode.ordinal(), start, length);
+		blocks.remove(key); //the old block is dropped at the next compaction
+		if (map.getLong(END) + size > budget) {evict(size);}
+
+		int offset = (int) map.getLong(END);
+		map.putLong(offset, tle);
+		map.putDouble(offset + START, start);
+		map.putDouble(offset + LENGTH, length);
+		map.putInt(offset + MODE, mode.ordinal());
+		map.putInt(offset + COUNT, samples.size());
+		for (int k = 0, at = offset + BLOCK_HEADER; k < samples.size(); k++, at += SAMPLE_BYTES) {
+			double[] p = samples.point(k);
+			map.putDouble(at, p[0]);
+			map.putDouble(at + 8, p[1]);
+			map.putDouble(at + 16, p[2]);
+			map.putDouble(at + 24, samples.rank(k));
+		}
+		touch(offset);
+		map.putLong(END, offset + size); //the block is complete
+		blocks.put(key, offset);
+	}
+
+	/**
+	 * Returns the number of entries.
+	 *
+	 * @return number of cached entries
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized int size() {
+		return blocks.size();
+	}
+
+	/**
+	 * Returns the space used in the file, evicted blocks not yet overwritten included.
+	 *
+	 * @return used bytes
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized long getUsedBytes() {
+		return map.getLong(END);
+	}
+
+	/**
+	 * Returns the size of the file.
+	 *
+	 * @return budget (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Writes the changes to the disk now rather than when the system does.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized void flush() {
+		map.force();
+	}
+
+	/**
+	 * Evicts the least recently used blocks until half of the budget and a new block are free, and moves the
+	 * others to the front of the file in their order.
+	 *
+	 * @param size size of the new block (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void evict(int size) {
+
+		List<Map.Entry<Key, Integer>> entries = new ArrayList<>(blocks.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> map.getLong(entry.getValue() + USED)));
+		long kept = 0;
+		for (Map.Entry<Key, Integer> entry : entries) {
+			kept += blockSize(map.getInt(entry.getValue() + COUNT));
+		}
+		int evicted = 0;
+		for (Map.Entry<Key, Integer> entry : entries) { //oldest first
+			if (HEADER + kept + size <= budget/2) {break;}
+			kept -= blockSize(map.getInt(entry.getValue() + COUNT));
+			blocks.remove(entry.getKey());
+			evicted++;
+		}
+
+		//Move the kept blocks down; nothing is valid until the end is written back
+		map.putLong(END, HEADER);
+		entries = new ArrayList<>(blocks.entrySet());
+		entries.sort(Map.Entry.comparingByValue());
+		int offset = HEADER;
+		for (Map.Entry<Key, Integer> entry : entries) {
+			int from = entry.getValue(), length = blockSize(map.getInt(from + COUNT));
+			if (from != offset) {
+				byte[] block = new byte[length];
+				map.position(from);
+				map.get(block);
+				map.position(offset);
+				map.put(block);
+				entry.setValue(offset);
+			}
+			offset += length;
+		}
+		map.putLong(END, offset);
+		Metrics.count("ephemeris.evicted", evicted);
+	}
+
+	/**
+	 * Marks a block as the most recently used.
+	 *
+	 * @param offset offset of the block
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void touch(int offset) {
+		long clock = map.getLong(CLOCK) + 1;
+		map.putLong(CLOCK, clock);
+		map.putLong(offset + USED, clock);
+	}
+
+	/**
+	 * Reads the key of a block.
+	 *
+	 * @param offset offset of the block
+	 * @return key of the block
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private Key key(int offset) {
+		return new Key(map.getLong(offset), map.getInt(offset + MODE), map.getDouble(offset + START),
+				map.getDouble(offset + LENGTH));
+	}
+
+	/**
+	 * Returns the size of a block.
+	 *
+	 * @param count number of samples
+	 * @return size of the block (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static int blockSize(int count) {
+		return BLOCK_HEADER + count*SAMPLE_BYTES;
+	}
+}
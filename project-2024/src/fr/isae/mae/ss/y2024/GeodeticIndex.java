@@ -0,0 +1,339 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.Arrays;
+
+import fr.cnes.sirius.patrius.utils.Constants;
+
+/**
+ * Index of the current positions of a set of rows of a {@link CatalogStore} by their ground point, used for
+ * region queries: latitude and longitude boxes, ground circles and altitude bands. The sphere is cut into
+ * latitude rings of equal height, each ring into as many longitude cells as keep the cells about square, so
+ * every cell covers about the same area, as the rings of HEALPix do. The rows are sorted by cell in one array, so
+ * a query only tests the rows of the cells overlapping its region.
+ * <p>
+ * Positions are read from the store's geodetic columns. The index rebuilds itself on the next query when the
+ * store's positions changed; a rebuild is a counting sort, linear in the number of rows. When the positions change
+ * on every animation frame, {@link #rebuild()} is called once after the frame instead, so that the queries of that
+ * frame find the index up to date.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class GeodeticIndex {
+
+	private static final double R = Constants.WGS84_EARTH_EQUATORIAL_RADIUS; //radius of the spherical Earth used for ground distances (m)
+
+	private final CatalogStore store; //store holding the positions
+	private int[] rows; //rows indexed
+	private int count; //rows in use
+	private final double ringHeight; //latitude span of a ring (rad)
+	private final int[] ringFirst; //first cell of each ring, then the number of cells
+
+	private final int[] cellStart; //first slot of each cell in cellRows, then the number of rows
+	private int[] cellRows; //rows sorted by cell
+	private int[] cellOf; //cell of each row of the rows array, while rebuilding
+	private int[] byAltitude; //rows sorted by altitude, null until an altitude band is queried
+	private int version = -1; //position version of the store the index was built for
+
+	/**
+	 * Creates the index of some rows of a store.
+	 *
+	 * @param store store holding the positions
+	 * @param rows rows to be indexed
+	 * @param cellSize edge of a cell on the ground (m); queries are cheapest with a region a few cells wide
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public GeodeticIndex(CatalogStore store, int[] rows, double cellSize) {
+
+		this.store = store;
+		this.rows = rows.clone();
+		count = rows.length;
+		int rings = Math.max(1, (int) Math.round(Math.PI*R/cellSize));
+		ringHeight = Math.PI/rings;
+		ringFirst = new int[rings + 1];
+		for (int ring = 0; ring < rings; ring++) {
+			double lat = -Math.PI/2 + (ring + 0.5)*ringHeight; //latitude of the ring's centre
+			ringFirst[ring + 1] = ringFirst[ring] + Math.max(1, (int) Math.ceil(2*Math.PI*Math.cos(lat)/ringHeight));
+		}
+		cellStart = new int[ringFirst[rings] + 1];
+		cellRows = new int[rows.length];
+		cellOf = new int[rows.length];
+	}
+
+	/**
+	 * Returns the number of rows in the index.
+	 *
+	 * @return number of rows
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the rows whose current position is within a latitude and longitude box and an altitude band. The
+	 * box crosses the antimeridian when its western longitude is greater than its eastern one.
+	 *
+	 * @param south southern latitude (rad)
+	 * @param north northern latitude (rad)
+	 * @param west western longitude (rad)
+	 * @param east eastern longitude (rad)
+	 * @param minAlt lowest altitude (m), -infinity for no limit
+	 * @param maxAlt highest altitude (m), +infinity for no limit
+	 * @return rows in the box, in increasing order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] inBox(double south, double north, double west, double east, double minAlt, double maxAlt) {
+
+		if (version != store.getPositionVersion()) {rebuild();}
+
+		double w = normalize(west);
+		double span = normalize(east) - w; //eastward extent of the box (rad)
+		if (span < 0 || (span == 0 && west != east)) {span += 2*Math.PI;}
+
+		int[] found = new int[8];
+		int count = 0;
+		for (int ring = ring(south); ring <= ring(north); ring++) {
+			int cells = ringFirst[ring + 1] - ringFirst[ring];
+			int c0 = (int) Math.floor((w + Math.PI)/(2*Math.PI)*cells);
+			int c1 = Math.min((int) Math.floor((w + span + Math.PI)/(2*Math.PI)*cells), c0 + cells - 1);
+			for (int c = c0; c <= c1; c++) {
+				int cell = ringFirst[ring] + Math.floorMod(c, cells);
+				for (int slot = cellStart[cell]; slot < cellStart[cell + 1]; slot++) {
+					int row = cellRows[slot];
+					double lat = store.currentLat[row], alt = store.currentAlt[row];
+					double east0 = normalize(store.currentLon[row]) - w; //eastward distance from the western edge
+					if (east0 < 0) {east0 += 2*Math.PI;}
+					if (lat >= south && lat <= north && east0 <= span && alt >= minAlt && alt <= maxAlt) {
+						if (count == found.length) {found = Arrays.copyOf(found, 2*count);}
+						found[count++] = row;
+					}
+				}
+			}
+		}
+		found = Arrays.copyOf(found, count);
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Returns the rows whose ground point is within a ground distance of a point and whose altitude is within a
+	 * band. Ground distances are great circle distances on the same spherical Earth as {@link CatalogStore}.
+	 *
+	 * @param lat latitude of the point (rad)
+	 * @param lon longitude of the point (rad)
+	 * @param distance maximum ground distance (m)
+	 * @param minAlt lowest altitude (m), -infinity for no limit
+	 * @param maxAlt highest altitude (m), +infinity for no limit
+	 * @return rows within the distance, in increasing order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] withinGroundDistance(double lat, double lon, double distance, double minAlt, double maxAlt) {
+
+		if (version != store.getPositionVersion()) {rebuild();}
+
+		double angle = distance/R; //angular radius of the circle (rad)
+		double south = lat - angle, north = lat + angle;
+		double halfWidth = Math.PI; //half the longitude extent of the circle (rad)
+		if (south > -Math.PI/2 && north < Math.PI/2) {
+			double sin = Math.sin(angle)/Math.cos(lat);
+			if (sin < 1) {halfWidth = Math.asin(sin);}
+		}
+		double haversine = Math.pow(Math.sin(Math.min(angle, Math.PI)/2), 2); //haversine of the radius
+		double cosLat = Math.cos(lat);
+
+		int[] found = new int[8];
+		int count = 0;
+		for (int ring = ring(south); ring <= ring(north); ring++) {
+			int cells = ringFirst[ring + 1] - ringFirst[ring];
+			int c0 = (int) Math.floor((normalize(lon) - halfWidth + Math.PI)/(2*Math.PI)*cells);
+			int c1 = Math.min((int) Math.floor((normalize(lon) + halfWidth + Math.PI)/(2*Math.PI)*cells), c0 + cells - 1);
+			for (int c = c0; c <= c1; c++) {
+				int cell = ringFirst[ring] + Math.floorMod(c, cells);
+				for (int slot = cellStart[cell]; slot < cellStart[cell + 1]; slot++) {
+					int row = cellRows[slot];
+					double rowLat = store.currentLat[row], alt = store.currentAlt[row];
+					double sinLat = Math.sin((rowLat - lat)/2), sinLon = Math.sin((store.currentLon[row] - lon)/2);
+					double h = sinLat*sinLat + cosLat*Math.cos(rowLat)*sinLon*sinLon;
+					if (h <= haversine && alt >= minAlt && alt <= maxAlt) {
+						if (count == found.length) {found = Arrays.copyOf(found, 2*count);}
+						found[count++] = row;
+					}
+				}
+			}
+		}
+		found = Arrays.copyOf(found, count);
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Returns the rows whose current altitude is within a band, wherever they are.
+	 *
+	 * @param minAlt lowest altitude (m)
+	 * @param maxAlt highest altitude (m)
+	 * @return rows in the band, in increasing order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] inAltitudeBand(double minAlt, double maxAlt) {
+
+		if (version != store.getPositionVersion()) {rebuild();}
+		if (byAltitude == null) {byAltitude = sortByAltitude();} //sorted once per position change, on demand
+
+		int from = firstAbove(minAlt, false), to = firstAbove(maxAlt, true);
+		int[] found = Arrays.copyOfRange(byAltitude, from, Math.max(from, to));
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Adds rows to the index, e.g. the objects appended to the catalog by a load batch. They are sorted into the
+	 * cells by the next rebuild, on the next query; the arrays grow by doubling.
+	 *
+	 * @param newRows rows of the store not in the index yet
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void add(int[] newRows) {
+		if (count + newRows.length > rows.length) {
+			int capacity = Math.max(count + newRows.length, 2*rows.length);
+			rows = Arrays.copyOf(rows, capacity);
+			cellRows = new int[capacity];
+			cellOf = new int[capacity];
+		}
+		System.arraycopy(newRows, 0, rows, count, newRows.length);
+		count += newRows.length;
+		version = -1;
+	}
+
+	/**
+	 * Sorts the rows by the cell of their current position.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void rebuild() {
+
+		//count the rows of each cell, then turn the counts into the start of each cell
+		Arrays.fill(cellStart, 0);
+		for (int slot = 0; slot < count; slot++) {
+			cellOf[slot] = cell(store.currentLat[rows[slot]], store.currentLon[rows[slot]]);
+			cellStart[cellOf[slot] + 1]++;
+		}
+		for (int cell = 0; cell + 1 < cellStart.length; cell++) {
+			cellStart[cell + 1] += cellStart[cell];
+		}
+
+		//place each row at the end of its cell, then shift the starts back
+		for (int slot = 0; slot < count; slot++) {
+			cellRows[cellStart[cellOf[slot]]++] = rows[slot];
+		}
+		for (int cell = cellStart.length - 1; cell > 0; cell--) {
+			cellStart[cell] = cellStart[cell - 1];
+		}
+		cellStart[0] = 0;
+		byAltitude = null;
+		version = store.getPositionVersion();
+	}
+
+	/**
+	 * Sorts the rows by their current altitude with a bottom-up merge sort on primitive arrays.
+	 *
+	 * @return rows sorted by increasing altitude, NaN last
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int[] sortByAltitude() {
+
+		int[] sorted = Arrays.copyOf(rows, count), work = new int[count];
+		double[] alt = new double[count], workAlt = new double[count];
+		for (int k = 0; k < count; k++) {
+			alt[k] = store.currentAlt[sorted[k]];
+		}
+		for (int width = 1; width < count; width *= 2) {
+			for (int low = 0; low < count; low += 2*width) {
+				int mid = Math.min(low + width, count), high = Math.min(low + 2*width, count);
+				int left = low, right = mid;
+				for (int k = low; k < high; k++) {
+					boolean fromLeft = right >= high || (left < mid && Double.compare(alt[left], alt[right]) <= 0);
+					int from = fromLeft ? left++ : right++;
+					work[k] = sorted[from];
+					workAlt[k] = alt[from];
+				}
+			}
+			int[] swap = sorted;
+			sorted = work;
+			work = swap;
+			double[] swapAlt = alt;
+			alt = workAlt;
+			workAlt = swapAlt;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Returns the cell holding a ground point.
+	 *
+	 * @param lat latitude (rad)
+	 * @param lon longitude (rad)
+	 * @return cell index
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int cell(double lat, double lon) {
+		int ring = ring(lat);
+		int cells = ringFirst[ring + 1] - ringFirst[ring];
+		int c = (int) Math.floor((normalize(lon) + Math.PI)/(2*Math.PI)*cells);
+		return ringFirst[ring] + Math.min(Math.max(c, 0), cells - 1);
+	}
+
+	/**
+	 * Returns the ring holding a latitude, clamped to the poles.
+	 *
+	 * @param lat latitude (rad)
+	 * @return ring index
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int ring(double lat) {
+		int ring = (int) Math.floor((lat + Math.PI/2)/ringHeight);
+		return Math.min(Math.max(ring, 0), ringFirst.length - 2);
+	}
+
+	/**
+	 * Returns the first slot of the rows sorted by altitude above an altitude.
+	 *
+	 * @param alt altitude (m)
+	 * @param inclusive true to skip the rows at the altitude too
+	 * @return slot in byAltitude
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int firstAbove(double alt, boolean inclusive) {
+		int low = 0, high = byAltitude.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			double a = store.currentAlt[byAltitude[mid]];
+			if (a < alt || (inclusive && a == alt)) {low = mid + 1;} else {high = mid;}
+		}
+		return low;
+	}
+
+	/**
+	 * Brings a longitude into [-pi, pi).
+	 *
+	 * @param lon longitude (rad)
+	 * @return same longitude in [-pi, pi)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double normalize(double lon) {
+		double l = (lon + Math.PI) % (2*Math.PI);
+		return (l < 0 ? l + 2*Math.PI : l) - Math.PI;
+	}
+}
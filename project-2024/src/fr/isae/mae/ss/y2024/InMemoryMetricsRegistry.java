@@ -0,0 +1,150 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link MetricsRegistry}: keeps, for every timer, the number of measurements, the total and maximum time
+ * and the number of items processed, and the value of every counter. Uses striped adders so that concurrent
+ * recording does not contend.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>(); //timers by name
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>(); //counters by name
+
+	@Override
+	public void record(String name, long nanos, long count) {
+		Timer timer = timers.computeIfAbsent(name, key -> new Timer());
+		timer.calls.increment();
+		timer.nanos.add(nanos);
+		timer.max.accumulate(nanos);
+		timer.items.add(count);
+	}
+
+	@Override
+	public void increment(String name, long delta) {
+		counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+	}
+
+	/**
+	 * Returns the number of measurements of a timer.
+	 *
+	 * @param name name of the timer
+	 * @return number of measurements, 0 if none
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getCalls(String name) {
+		Timer timer = timers.get(name);
+		return timer == null ? 0 : timer.calls.sum();
+	}
+
+	/**
+	 * Returns the total time of a timer.
+	 *
+	 * @param name name of the timer
+	 * @return sum of the measurements (ns)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getTotalNanos(String name) {
+		Timer timer = timers.get(name);
+		return timer == null ? 0 : timer.nanos.sum();
+	}
+
+	/**
+	 * Returns the longest measurement of a timer.
+	 *
+	 * @param name name of the timer
+	 * @return longest measurement (ns)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getMaxNanos(String name) {
+		Timer timer = timers.get(name);
+		return timer == null ? 0 : timer.max.get();
+	}
+
+	/**
+	 * Returns the number of items processed by a timer.
+	 *
+	 * @param name name of the timer
+	 * @return items over every measurement
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getItems(String name) {
+		Timer timer = timers.get(name);
+		return timer == null ? 0 : timer.items.sum();
+	}
+
+	/**
+	 * Returns the value of a counter.
+	 *
+	 * @param name name of the counter
+	 * @return value, 0 if never incremented
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getCounter(String name) {
+		LongAdder counter = counters.get(name);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * Forgets every value.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void reset() {
+		timers.clear();
+		counters.clear();
+	}
+
+	/**
+	 * Returns a report of every timer and counter, one per line, by name.
+	 *
+	 * @return report
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public String report() {
+		StringBuilder report = new StringBuilder();
+		for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+			Timer timer = entry.getValue();
+			long calls = timer.calls.sum();
+			report.append(String.format("%-22s %8d calls %12.3f ms total %10.3f ms max %10d items%n", entry.getKey(),
+					calls, timer.nanos.sum()/1e6, timer.max.get()/1e6, timer.items.sum()));
+		}
+		for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+			report.append(String.format("%-22s %8d%n", entry.getKey(), entry.getValue().sum()));
+		}
+		return report.toString();
+	}
+
+	@Override
+	public String toString() {
+		return report();
+	}
+
+	/**
+	 * Values of one timer.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static class Timer {
+		final LongAdder calls = new LongAdder(); //measurements
+		final LongAdder nanos = new LongAdder(); //total time (ns)
+		final LongAccumulator max = new LongAccumulator(Math::max, 0); //longest measurement (ns)
+		final LongAdder items = new LongAdder(); //items processed
+	}
+}
@@ -0,0 +1,494 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.layers.LayerList;
+
+/**
+ * Marker layers of the catalog, one per object type. The layer of a type is built the first time the type is
+ * shown and kept in the layer list afterwards: showing another set of types only enables and disables layers.
+ * Since every object has exactly one type, a filter made of several types, such as all satellites or the whole
+ * catalog, reuses the layers of its types and no object is ever drawn twice.
+ * <p>
+ * Each type is a {@link PointCloudLayer}: the markers of a type are the points of one vertex buffer, drawn in a
+ * single call with the colour of their objects.
+ * <p>
+ * The cache belongs to the event dispatch thread. Layers can still be built on a worker thread with a
+ * {@link Build} taken by {@link #prepare(Collection)} and installed by {@link #install(Build)}, so a large type
+ * does not freeze the interface when it is first shown.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class MarkerLayerCache {
+
+	/** Types of the space objects, as given by {@link SpaceObject#setType(String)}. */
+	public static final List<String> TYPES = Collections.unmodifiableList(Arrays.asList(
+			"SATELLITE", "DEBRIS", "ROCKET_BODY", "ONEWEB", "BEIDOU", "IRIDIUM", "STARLINK"));
+
+	private static final double MARKER_PIXELS = 2d; //size of a marker
+	private static final Color HIGHLIGHT_COLOR = Color.CYAN; //colour of the highlighted markers
+
+	private final LayerList layers; //layer list the marker layers are added to
+	private final Map<String, TypeLayer> byType = new LinkedHashMap<>(); //layer of each type, in TYPES order
+	private final Set<String> shown = new HashSet<>(); //types whose layer is enabled
+	private List<SpaceObject> highlighted = new ArrayList<>(); //objects drawn with the highlight colour
+
+	/**
+	 * Objects of a type and, once built, their layer.
+	 */
+	private static final class TypeLayer {
+		final List<SpaceObject> objects = new ArrayList<>(); //objects of the type
+		PointCloudLayer layer; //null until the layer is built
+		Map<SpaceObject, Integer> points = new IdentityHashMap<>(); //point of each object in the layer
+		int version; //changes every time the objects of the type change
+
+		/**
+		 * Sets the points of the layer to the objects of the type.
+		 *
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void setPoints() {
+			layer.setPoints(objects);
+			points = indexPoints(objects);
+		}
+	}
+
+	/**
+	 * Objects of a type with their current position and colour, copied on the event dispatch thread.
+	 */
+	private static final class Points {
+		final List<SpaceObject> objects; //object of each point
+		final double[] lat, lon, alt; //position of each point (rad, m)
+		final Color[] colors; //colour of each point
+
+		/**
+		 * Copies the objects, positions and colours of a type.
+		 *
+		 * @param typeObjects objects of the type
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		Points(List<SpaceObject> typeObjects) {
+			objects = new ArrayList<>(typeObjects);
+			int n = objects.size();
+			lat = new double[n];
+			lon = new double[n];
+			alt = new double[n];
+			colors = new Color[n];
+			for (int k = 0; k < n; k++) {
+				SpaceObject obj = objects.get(k);
+				lat[k] = obj.getCurrentLat();
+				lon[k] = obj.getCurrentLon();
+				alt[k] = obj.getCurrentAlt();
+				colors[k] = obj.getColor();
+			}
+		}
+	}
+
+	/**
+	 * Marker layers of a selection of types built off the event dispatch thread. The objects of the types
+	 * lacking a layer are copied with their positions and colours when the build is prepared, so running it reads
+	 * nothing the event dispatch thread changes, such as the store's columns moved by load batches and animation
+	 * frames.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static final class Build implements Runnable {
+
+		private final List<String> types; //types of the selection
+		private final Map<String, Points> objects = new LinkedHashMap<>(); //points of each type to be built
+		private final Map<String, Integer> versions = new HashMap<>(); //version of each type when its objects were copied
+		private final Map<String, PointCloudLayer> built = new ConcurrentHashMap<>(); //layer of each type, once run
+		private final Map<String, Map<SpaceObject, Integer>> points = new ConcurrentHashMap<>(); //point of each object
+
+		/**
+		 * Creates the build of a selection.
+		 *
+		 * @param types types of the selection
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private Build(Collection<String> types) {
+			this.types = new ArrayList<>(types);
+		}
+
+		/**
+		 * Builds the layers. Stops with a CancellationException between two layers if the thread is interrupted.
+		 *
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		@Override
+		public void run() {
+			long start = Metrics.start();
+			int created = 0;
+			for (Map.Entry<String, Points> entry : objects.entrySet()) {
+				if (Thread.currentThread().isInterrupted()) {throw new CancellationException("Selection superseded");}
+				built.put(entry.getKey(), newLayer(entry.getKey(), entry.getValue()));
+				points.put(entry.getKey(), indexPoints(entry.getValue().objects));
+				created += entry.getValue().objects.size();
+			}
+			Metrics.stop(Metrics.Phase.LAYER_UPDATE, start, created);
+		}
+	}
+
+	/**
+	 * Creates the cache of a catalog. Objects are sorted by type here; layers are only built when a type is
+	 * first shown.
+	 *
+	 * @param layers layer list of the WorldWind model
+	 * @param objects space objects of the catalog, with their colour already set
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public MarkerLayerCache(LayerList layers, List<SpaceObject> objects) {
+		this.layers = layers;
+		for (String type : TYPES) {
+			byType.put(type, new TypeLayer());
+		}
+		for (SpaceObject obj : objects) {
+			typeLayer(obj.getType()).objects.add(obj);
+		}
+	}
+
+	/**
+	 * Shows the layers of some types and hides the others. The layers of types shown for the first time are built.
+	 *
+	 * @param types types to be shown
+	 * @return number of markers created
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int show(Collection<String> types) {
+
+		long start = Metrics.start();
+		int created = 0;
+		shown.clear();
+		shown.addAll(types);
+		for (Map.Entry<String, TypeLayer> entry : byType.entrySet()) {
+			TypeLayer typeLayer = entry.getValue();
+			boolean enabled = shown.contains(entry.getKey());
+			if (enabled && typeLayer.layer == null) {
+				typeLayer.layer = newLayer(entry.getKey(), new Points(typeLayer.objects));
+				typeLayer.points = indexPoints(typeLayer.objects);
+				layers.add(typeLayer.layer);
+				created += typeLayer.objects.size();
+			}
+			if (typeLayer.layer != null) {typeLayer.layer.setEnabled(enabled);} //toggle, never remove
+		}
+		if (created > 0) {highlight(highlighted);} //the new layers have the colours of their objects
+		Metrics.stop(Metrics.Phase.LAYER_UPDATE, start, created);
+		return created;
+	}
+
+	/**
+	 * Prepares the build of the layers a selection of types still lacks, to be run on a worker thread.
+	 *
+	 * @param types types to be shown
+	 * @return build of the missing layers
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public Build prepare(Collection<String> types) {
+		Build build = new Build(types);
+		for (String type : types) {
+			TypeLayer typeLayer = typeLayer(type);
+			if (typeLayer.layer == null && !build.objects.containsKey(type)) {
+				build.objects.put(type, new Points(typeLayer.objects));
+				build.versions.put(type, typeLayer.version);
+			}
+		}
+		return build;
+	}
+
+	/**
+	 * Adds the layers of a build that ran to the layer list and shows the types of its selection, all at once on
+	 * the event dispatch thread. The points of the types whose objects changed while the build was running are
+	 * set again.
+	 *
+	 * @param build build of a selection, already run
+	 * @return number of markers created here rather than by the build
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int install(Build build) {
+		int set = 0;
+		for (Map.Entry<String, PointCloudLayer> entry : build.built.entrySet()) {
+			TypeLayer typeLayer = byType.get(entry.getKey());
+			if (typeLayer.layer != null) {continue;} //built since
+			typeLayer.layer = entry.getValue();
+			typeLayer.points = build.points.get(entry.getKey());
+			if (typeLayer.version != build.versions.get(entry.getKey())) {
+				typeLayer.setPoints();
+				set += typeLayer.objects.size();
+			}
+			layers.add(typeLayer.layer);
+		}
+		highlight(highlighted); //the new layers have the colours of their objects
+		return set + show(build.types);
+	}
+
+	/**
+	 * Returns the objects of the shown layers.
+	 *
+	 * @return objects, layer by layer, in the order expected by {@link #getShownDisplay()}
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> getShownObjects() {
+		List<SpaceObject> objects = new ArrayList<>();
+		for (Map.Entry<String, TypeLayer> entry : byType.entrySet()) {
+			if (shown.contains(entry.getKey())) {objects.addAll(entry.getValue().objects);}
+		}
+		return objects;
+	}
+
+	/**
+	 * Returns the number of objects of the shown layers.
+	 *
+	 * @return size of {@link #getShownObjects()}
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int getShownCount() {
+		int count = 0;
+		for (Map.Entry<String, TypeLayer> entry : byType.entrySet()) {
+			if (shown.contains(entry.getKey())) {count += entry.getValue().objects.size();}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the display of the shown layers, for the animator. It moves the points of {@link #getShownObjects()},
+	 * in the same order, until the shown types or the layers change. Points appended to the layers afterwards by
+	 * a load batch are left where they are.
+	 *
+	 * @return display of the shown objects
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitAnimator.Display getShownDisplay() {
+		List<PointCloudLayer> shownLayers = new ArrayList<>();
+		for (Map.Entry<String, TypeLayer> entry : byType.entrySet()) {
+			if (shown.contains(entry.getKey())) {shownLayers.add(entry.getValue().layer);}
+		}
+		int[] counts = shownLayers.stream().mapToInt(PointCloudLayer::size).toArray(); //points of each layer now
+		return (lat, lon, alt) -> {
+			int k = 0;
+			for (int l = 0; l < counts.length; l++) {
+				PointCloudLayer layer = shownLayers.get(l);
+				for (int i = 0; i < counts[l]; i++, k++) {
+					layer.setPosition(i, lat[k], lon[k], alt[k]);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the object whose marker was drawn nearest to a screen position on the last frame. Each shown layer
+	 * looks its points up in its screen grid, so no pick pass is drawn.
+	 *
+	 * @param x x on the window, from its left (px)
+	 * @param y y on the window, from its top, as given by mouse events (px)
+	 * @param radius maximum distance (px)
+	 * @return nearest object, null if no marker is within the radius
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public SpaceObject objectAt(double x, double y, double radius) {
+		SpaceObject nearest = null;
+		double best = Double.POSITIVE_INFINITY;
+		for (Map.Entry<String, TypeLayer> entry : byType.entrySet()) {
+			PointCloudLayer layer = entry.getValue().layer;
+			if (layer == null || !shown.contains(entry.getKey())) {continue;}
+			int index = layer.pointAt(x, y, radius);
+			if (index >= 0 && layer.screenDistance(index, x, y) < best) {
+				best = layer.screenDistance(index, x, y);
+				nearest = layer.getObject(index);
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Draws some objects with the highlight colour and the previously highlighted ones with their own colour
+	 * again. Only the points of these objects are changed, whatever the size of the catalog.
+	 *
+	 * @param objects objects to be highlighted, e.g. the result of a {@link GeodeticIndex} query
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void highlight(Collection<SpaceObject> objects) {
+		for (SpaceObject obj : highlighted) {
+			setColor(obj, obj.getColor());
+		}
+		highlighted = new ArrayList<>(objects);
+		for (SpaceObject obj : highlighted) {
+			setColor(obj, HIGHLIGHT_COLOR);
+		}
+	}
+
+	/**
+	 * Changes the colour of the point of an object, if its layer is built.
+	 *
+	 * @param obj space object
+	 * @param color new colour
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void setColor(SpaceObject obj, Color color) {
+		TypeLayer typeLayer = byType.get(obj.getType());
+		Integer point = typeLayer == null ? null : typeLayer.points.get(obj);
+		if (point != null) {typeLayer.layer.setColor(point, color);}
+	}
+
+	/**
+	 * Patches the layers after a catalog refresh: the changed and removed objects leave their type, the changed
+	 * and new ones join the type they now have. The points of the built layers whose objects changed are set
+	 * again; when the refresh only adds objects, e.g. a load batch, their points are appended to the layers instead.
+	 *
+	 * @param refresh refresh applied to the catalog
+	 * @return number of markers set again
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int applyRefresh(CatalogRefresh refresh) {
+
+		long start = Metrics.start();
+		if (refresh.getChanged().isEmpty() && refresh.getRemoved().isEmpty()) {
+			int added = append(refresh.getAdded());
+			Metrics.stop(Metrics.Phase.LAYER_UPDATE, start, added);
+			return added;
+		}
+		Set<SpaceObject> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+		dropped.addAll(refresh.getChanged());
+		dropped.addAll(refresh.getRemoved());
+		Set<TypeLayer> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		//Take the dropped objects out of their type
+		for (TypeLayer typeLayer : byType.values()) {
+			if (typeLayer.objects.removeIf(dropped::contains)) {touched.add(typeLayer);}
+		}
+
+		//Sort the changed and new objects again
+		List<SpaceObject> sorted = new ArrayList<>(refresh.getChanged());
+		sorted.addAll(refresh.getAdded());
+		for (SpaceObject obj : sorted) {
+			TypeLayer typeLayer = typeLayer(obj.getType());
+			typeLayer.objects.add(obj);
+			touched.add(typeLayer);
+		}
+
+		int set = 0;
+		for (TypeLayer typeLayer : touched) {
+			typeLayer.version++;
+			if (typeLayer.layer != null) {
+				typeLayer.setPoints();
+				set += typeLayer.objects.size();
+			}
+		}
+		highlighted.removeIf(dropped::contains);
+		highlight(highlighted); //the points set again lost their highlight
+		Metrics.stop(Metrics.Phase.LAYER_UPDATE, start, set);
+		return set;
+	}
+
+	/**
+	 * Adds new objects to their type and appends their points to the built layers, leaving the other points as
+	 * they are.
+	 *
+	 * @param objects objects new in the catalog
+	 * @return number of points appended
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int append(List<SpaceObject> objects) {
+
+		Map<TypeLayer, List<SpaceObject>> byLayer = new IdentityHashMap<>();
+		for (SpaceObject obj : objects) {
+			byLayer.computeIfAbsent(typeLayer(obj.getType()), t -> new ArrayList<>()).add(obj);
+		}
+		int appended = 0;
+		for (Map.Entry<TypeLayer, List<SpaceObject>> entry : byLayer.entrySet()) {
+			TypeLayer typeLayer = entry.getKey();
+			List<SpaceObject> added = entry.getValue();
+			int first = typeLayer.objects.size(); //point of the first new object
+			typeLayer.objects.addAll(added);
+			typeLayer.version++;
+			if (typeLayer.layer != null) {
+				typeLayer.layer.addPoints(added);
+				for (int k = 0; k < added.size(); k++) {
+					typeLayer.points.put(added.get(k), first + k);
+				}
+				appended += added.size();
+			}
+		}
+		return appended;
+	}
+
+	/**
+	 * Creates the layer of a type.
+	 *
+	 * @param type type of the objects
+	 * @param points objects of the type with their position and colour
+	 * @return layer with one point per object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static PointCloudLayer newLayer(String type, Points points) {
+		PointCloudLayer layer = new PointCloudLayer();
+		layer.setPointSize(MARKER_PIXELS);
+		layer.setName(type);
+		layer.setPickEnabled(false); //found under the mouse by objectAt, without a pick pass
+		layer.setPoints(points.objects, points.lat, points.lon, points.alt, points.colors);
+		return layer;
+	}
+
+	/**
+	 * Maps each object of a layer to its point.
+	 *
+	 * @param objects objects of the layer, in point order
+	 * @return point of each object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static Map<SpaceObject, Integer> indexPoints(List<SpaceObject> objects) {
+		Map<SpaceObject, Integer> points = new IdentityHashMap<>(2*objects.size());
+		for (int k = 0; k < objects.size(); k++) {
+			points.put(objects.get(k), k);
+		}
+		return points;
+	}
+
+	/**
+	 * Returns the layer of a type.
+	 *
+	 * @param type type of an object
+	 * @return layer of the type
+	 * @throws IllegalArgumentException if the type is not one of {@link #TYPES}
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private TypeLayer typeLayer(String type) {
+		TypeLayer typeLayer = byType.get(type);
+		if (typeLayer == null) {throw new IllegalArgumentException("Unknown object type " + type);}
+		return typeLayer;
+	}
+}
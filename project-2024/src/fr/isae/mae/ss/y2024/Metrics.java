@@ -0,0 +1,248 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Instrumentation of the load phases and of the interaction. Every measurement goes to the current
+ * {@link MetricsRegistry} (an {@link InMemoryMetricsRegistry} by default) and, when a flight recording is
+ * running, to a JFR event "fr.isae.mae.ss.y2024.Phase", so that startup and interaction time can be broken down
+ * in production without attaching a profiler:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=orbits.jfr ...
+ * jfr print --events fr.isae.mae.ss.y2024.Phase orbits.jfr
+ * </pre>
+ * Measurements are taken with {@link #start()} and {@link #stop(Phase, long, long)}; they cost two reads of the
+ * clock and a few atomic additions. While the event is enabled, start begins an event on the calling thread and
+ * stop commits it, so the event spans the measured work on the recording's timeline.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public final class Metrics {
+
+	/**
+	 * Timed phases, with the name of their timer.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public enum Phase {
+		/** Whole construction of the catalog; items are objects */
+		LOAD_TOTAL("load.total"),
+		/** Mapping of the 3LE file; items are bytes */
+		LOAD_READ("load.read"),
+		/** Parsing of the records, without reading the file nor building the objects; items are records */
+		LOAD_PARSE("load.parse"),
+		/** Construction of the orbit of an object from its record; items are objects */
+		ORBIT_BUILD("load.orbit"),
+		/** Propagation of the current positions; items are objects */
+		CURRENT_POSITION("load.position"),
+		/** Propagation and conversion of an orbit path, on first display; items are positions */
+		PATH_PROPAGATION("path.propagation"),
+		/** Computation of an animation frame; items are objects */
+		FRAME_COMPUTE("frame.compute"),
+		/** Update of the markers with a frame, on the event dispatch thread; items are markers */
+		FRAME_MARKERS("frame.markers"),
+		/** Creation or patch of a marker layer; items are markers */
+		LAYER_UPDATE("layer.update"),
+		/** Contact check of the mouse dot; items are objects found */
+		CONTACT_QUERY("contact.query");
+
+		private final String key; //name of the timer
+
+		Phase(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * Returns the name of the phase's timer in the registry.
+		 *
+		 * @return timer name
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public String getKey() {
+			return key;
+		}
+	}
+
+	private static final int MAX_OPEN_EVENTS = 64; //events begun and not committed kept per thread
+	private static final EventType PHASE_EVENT = EventType.getEventType(PhaseEvent.class); //tells if JFR records it
+
+	private static volatile MetricsRegistry registry = new InMemoryMetricsRegistry(); //receives the measurements
+
+	/** Events begun by start on each thread and not committed yet, the latest first */
+	private static final ThreadLocal<ArrayDeque<PhaseEvent>> OPEN_EVENTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private Metrics() {} //static methods only
+
+	/**
+	 * Replaces the registry receiving the measurements.
+	 *
+	 * @param newRegistry registry, e.g. an adapter to a monitoring system
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void setRegistry(MetricsRegistry newRegistry) {
+		registry = newRegistry;
+	}
+
+	/**
+	 * Returns the registry receiving the measurements.
+	 *
+	 * @return current registry
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Starts a measurement. When the JFR event is enabled, an event is begun on the calling thread; it is
+	 * committed by the {@link #stop} given the returned time, on the same thread.
+	 *
+	 * @return start time, to be given to {@link #stop}
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static long start() {
+		long start = System.nanoTime();
+		if (PHASE_EVENT.isEnabled()) {
+			PhaseEvent event = new PhaseEvent();
+			event.start = start;
+			event.begin();
+			ArrayDeque<PhaseEvent> open = OPEN_EVENTS.get();
+			if (open.size() == MAX_OPEN_EVENTS) {open.removeLast();} //start never followed by stop
+			open.push(event);
+		}
+		return start;
+	}
+
+	/**
+	 * Ends a measurement of one item.
+	 *
+	 * @param phase phase measured
+	 * @param start value returned by {@link #start()}
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void stop(Phase phase, long start) {
+		stop(phase, start, 1);
+	}
+
+	/**
+	 * Ends a measurement.
+	 *
+	 * @param phase phase measured
+	 * @param start value returned by {@link #start()}
+	 * @param count number of items processed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void stop(Phase phase, long start, long count) {
+
+		long nanos = System.nanoTime() - start;
+		registry.record(phase.key, nanos, count);
+		PhaseEvent event = openEvent(start);
+		if (event != null) {
+			event.end();
+			event.phase = phase.key;
+			event.elapsed = nanos;
+			event.count = count;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Removes from the thread's open events the one begun by the start that returned a time, with the events
+	 * begun after it, which were started and never stopped.
+	 *
+	 * @param start value returned by {@link #start()}
+	 * @return event begun at that time, or null if the event was not enabled then
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static PhaseEvent openEvent(long start) {
+
+		ArrayDeque<PhaseEvent> open = OPEN_EVENTS.get();
+		for (Iterator<PhaseEvent> it = open.iterator(); it.hasNext();) {
+			if (it.next().start == start) {
+				PhaseEvent event;
+				do {
+					event = open.pop();
+				} while (event.start != start);
+				return event;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Records a measurement taken otherwise, e.g. a time from which nested phases were subtracted. The JFR event
+	 * has no start nor duration of its own, since the time was not measured in one span; the time is in its
+	 * elapsed field.
+	 *
+	 * @param phase phase measured
+	 * @param nanos time measured (ns)
+	 * @param count number of items processed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void record(Phase phase, long nanos, long count) {
+		registry.record(phase.key, nanos, count);
+		PhaseEvent event = new PhaseEvent();
+		if (event.isEnabled()) {
+			event.phase = phase.key;
+			event.elapsed = nanos;
+			event.count = count;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Adds to a counter of the registry.
+	 *
+	 * @param name name of the counter
+	 * @param delta value added
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static void count(String name, long delta) {
+		registry.increment(name, delta);
+	}
+
+	/**
+	 * JFR event of one measurement.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Name("fr.isae.mae.ss.y2024.Phase")
+	@Label("Orbit Viewer Phase")
+	@Category("Orbit Viewer")
+	@Description("Time spent in a load phase, an animation frame or a contact check")
+	static class PhaseEvent extends Event {
+
+		@Label("Phase")
+		String phase; //name of the timer
+
+		@Label("Elapsed")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsed; //time measured (ns)
+
+		@Label("Items")
+		long count; //items processed
+
+		transient long start; //value returned by start, not recorded
+	}
+}
@@ -0,0 +1,33 @@
+package fr.isae.mae.ss.y2024;
+
+/**
+ * Receives the timings and counters of the application, see {@link Metrics}. Implementations must be thread safe:
+ * the load workers, the animator and the event dispatch thread record concurrently. Plug another implementation
+ * with {@link Metrics#setRegistry(MetricsRegistry)} to forward the values to a monitoring system.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * Records one measurement of a timer.
+	 *
+	 * @param name name of the timer, e.g. "load.parse"
+	 * @param nanos time measured (ns)
+	 * @param count number of items processed during the measurement (objects, bytes, markers...)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	void record(String name, long nanos, long count);
+
+	/**
+	 * Adds to a counter.
+	 *
+	 * @param name name of the counter, e.g. "frame.dropped"
+	 * @param delta value added
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	void increment(String name, long delta);
+}
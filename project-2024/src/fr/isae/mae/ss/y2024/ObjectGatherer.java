@@ -2,16 +2,26 @@ package fr.isae.mae.ss.y2024;
 
 import java.io.File;
 import java.awt.Color;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
-import fr.cnes.sirius.patrius.bodies.BodyShape;
 import fr.cnes.sirius.patrius.bodies.GeodeticPoint;
-import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
-import fr.cnes.sirius.patrius.frames.FactoryManagedFrame;
+import fr.cnes.sirius.patrius.frames.Frame;
 import fr.cnes.sirius.patrius.frames.FramesFactory;
 import fr.cnes.sirius.patrius.math.ode.FirstOrderIntegrator;
 import fr.cnes.sirius.patrius.math.ode.nonstiff.ClassicalRungeKuttaIntegrator;
@@ -22,6 +32,8 @@ import fr.cnes.sirius.patrius.orbits.PositionAngle;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator;
 import fr.cnes.sirius.patrius.propagation.sampling.PatriusFixedStepHandler;
+import fr.cnes.sirius.patrius.propagation.sampling.PatriusStepHandler;
+import fr.cnes.sirius.patrius.propagation.sampling.PatriusStepInterpolator;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.time.TimeScalesFactory;
 import fr.cnes.sirius.patrius.utils.Constants;
@@ -56,98 +68,646 @@ import java.time.ZoneId;
  */
 public class ObjectGatherer {
 	
-	List<SpaceObject> allObjects = new ArrayList<>();
+	private static final int BATCH_SIZE = 256; //records built by one worker task
+	private static final String SNAPSHOT_EXTENSION = ".snapshot"; //suffix of the snapshot next to the catalog
+	private static final String EPHEMERIS_EXTENSION = ".ephemeris"; //suffix of the ephemeris cache next to the catalog
+	private static final double SNAPSHOT_POSITION_TOLERANCE = 60; //age under which saved current positions are kept (s)
+	private static final double EPOCH_TOLERANCE = 1e-3; //epoch difference under which a record is unchanged (s)
+	private static final double NUMERICAL_STEP = 20; //time between the numerically propagated points of a path (s)
+	
+	CatalogStore store = new CatalogStore(); //columns of every object, in file order
+	List<SpaceObject> allObjects = new ArrayList<>(); //views of the rows of the store
+	AbsoluteDate currentDate; //date of the current positions
+	private final PropagationMode mode; //engine used to propagate the orbits and current positions
+	private final int parallelism; //number of worker threads used to build objects
+	private boolean fromSnapshot; //true if the last progressive load read the snapshot
 
 	public ObjectGatherer(String fileName) throws PatriusException {
+		this(fileName, 1); //serial ingestion on the calling thread
+	}
+	
+	/**
+	 * Reads the catalog and builds the space objects using a pool of worker threads, with the analytic 
+	 * propagation engine. The file is streamed as 3-line records (name, line 1, line 2) and batches of 
+	 * records are turned into propagated SpaceObjects while the rest of the file is still being parsed. 
+	 * The objects in allObjects keep the same order as the records in the file.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @param parallelism number of worker threads; 1 or less builds the objects on the calling thread
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public ObjectGatherer(String fileName, int parallelism) throws PatriusException {
+		this(fileName, parallelism, PropagationMode.ANALYTIC);
+	}
+	
+	/**
+	 * Reads the catalog and builds the space objects with the chosen propagation engine.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @param parallelism number of worker threads; 1 or less builds the objects on the calling thread
+	 * @param mode engine used to propagate the orbits and current positions
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public ObjectGatherer(String fileName, int parallelism, PropagationMode mode) throws PatriusException {
+		this(fileName, parallelism, mode, false);
+	}
+	
+	/**
+	 * Reads the catalog and builds the space objects, reusing the binary snapshot saved next to the file 
+	 * (fileName.snapshot) when the file has not changed since the snapshot was written. Otherwise the 
+	 * catalog is parsed and propagated and a new snapshot is saved.
+	 * <p>
+	 * The current positions of a snapshot are kept if they are less than a minute old and propagated 
+	 * again otherwise; elements are always reused and paths are built when they are first displayed.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @param parallelism number of worker threads; 1 or less builds the objects on the calling thread
+	 * @param mode engine used to propagate the orbits and current positions
+	 * @param useSnapshot true to read and write the binary snapshot
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public ObjectGatherer(String fileName, int parallelism, PropagationMode mode, boolean useSnapshot) 
+			throws PatriusException {
+		
+		this.mode = mode;
+		this.parallelism = parallelism;
+		long start = Metrics.start();
 		
 		//Get file path
 		String currentDir = System.getProperty("user.dir");
     	String filePath = currentDir + File.separator + fileName; 
-    	
-    	//Read and store lines from .txt file
-        List<String> data = readFile(filePath);
         
         AbsoluteDate currentDateUTC = new AbsoluteDate(LocalDateTime.now(ZoneId.of("UTC")), TimeScalesFactory.getTAI()); //current UTC date
-        //Store the parameters from the txt
-        int nO = 0; //space object counter
-        for (String lineData : data) {
-        	
-        	//Each object has 3 lines associated with different info. The first element
-        	//tells us which line we are at, and we store the rest of the info accordingly
-        	switch (lineData.substring(0, 1)) {
-        	
-        	case "0": //line 0 only contains the name of the object
-        		
-        		//create object when there is a name
-        		SpaceObject object = new SpaceObject(lineData.substring(1)); //name without row index
-        		allObjects.add(object); //add to list with all space objects
-        		nO = nO + 1; //advance counter
-        		break;
-        		
-        	case "1": //line 1 contains the epoch time (UTC)
-        		
-        		// Format time data
-        		String date = lineData.substring(18,33); //date in the format yyddddddd....
-        		date = date.replace(" ", ""); //remove white spaces if day < 100
-        		AbsoluteDate UTCDate = yearDayToUTC(date); //epoch time in UTC; precision to the second
-        		
-        		allObjects.get(nO-1).addDate(UTCDate); //add time to space object nO
-        		break;
-        		
-        	case "2": //line 2 contains the orbit parameters
-        		
-        		double i = Double.parseDouble(lineData.substring(8, 17).strip())*Math.PI/180; //inclination (rad)
-        		double rAsc = Double.parseDouble(lineData.substring(17, 26).strip())*Math.PI/180; //right ascension of ascending node (rad)
-        		String eString = "0." + lineData.substring(26, 34).strip();
-        		double e = Double.parseDouble(eString); //eccentricity
-        		double argPer = Double.parseDouble(lineData.substring(34, 43).strip())*Math.PI/180; //argument of the perigee (rad)
-        		double theta = Double.parseDouble(lineData.substring(43,52).strip())*Math.PI/180; //mean anomaly (rad)
-        		double n = Double.parseDouble(lineData.substring(52,64).strip())*2*Math.PI/(24*60*60); //mean motion (rad/s)
-        		
-        		allObjects.get(nO-1).addOrbit(i,rAsc,e,argPer,theta,n); //add orbit parameters and initial position to space object
-        		allObjects.get(nO-1).addCurrentPosition(currentDateUTC, allObjects.get(nO-1).orbit); //add current position
-        		System.out.println(nO + "/" + data.size()/3); //Display progress
-        		break;
-        		
-        	default:
+        currentDate = currentDateUTC;
+        
+        //Reuse the snapshot if the file did not change
+        byte[] sourceHash = null;
+        java.nio.file.Path snapshotPath = Paths.get(filePath + SNAPSHOT_EXTENSION); //WorldWind's Path is imported
+        if (useSnapshot) {
+        	try {
+        		sourceHash = CatalogSnapshot.hash(Paths.get(filePath));
+        	} catch (IOException e) {
+        		e.printStackTrace();
         	}
+        	CatalogSnapshot snapshot = sourceHash == null ? null : CatalogSnapshot.read(snapshotPath, sourceHash, mode);
+        	if (snapshot != null) {
+        		store = snapshot.getStore();
+        		allObjects.addAll(store.objects());
+        		if (Math.abs(currentDateUTC.durationFrom(snapshot.getCurrentDate())) > SNAPSHOT_POSITION_TOLERANCE) {
+        			propagateCurrentPositions(store, currentDateUTC, mode);
+        		}
+        		Metrics.count("load.snapshot", 1);
+        		Metrics.stop(Metrics.Phase.LOAD_TOTAL, start, store.size());
+        		System.out.println(allObjects.size() + " objects read from " + snapshotPath);
+        		return;
+        	}
+        }
+        
+        if (parallelism <= 1) {
+        	//Build each object as soon as its record is parsed
+        	parseFile(filePath, record -> {
+        		try {
+        			buildObject(record, currentDateUTC, mode, store);
+        		} catch (PatriusException e) {
+        			throw new PropagationFailure(e);
+        		}
+        	});
+        } else {
+        	buildObjectsInParallel(filePath, currentDateUTC, parallelism, mode, store);
         }
+        allObjects.addAll(store.objects());
+        
+        //SGP4 moves the whole catalog to the current date in one batch
+        if (mode == PropagationMode.SGP4) {
+        	propagateCurrentPositions(store, currentDateUTC, mode);
+        }
+        
+        //Save the snapshot for the next launch
+        if (sourceHash != null) {
+        	try {
+        		CatalogSnapshot.write(snapshotPath, sourceHash, mode, currentDateUTC, store, false); //paths are built on display
+        	} catch (IOException e) {
+        		e.printStackTrace();
+        	}
+        }
+        Metrics.stop(Metrics.Phase.LOAD_TOTAL, start, store.size());
+        System.out.println(store.size() + " objects loaded in " + (System.nanoTime() - start)/1000000 + " ms");
+	}
+
+	/**
+	 * Creates an empty catalog, filled batch by batch by {@link #load(String, boolean, int, LoadListener, 
+	 * BooleanSupplier)}. The current positions will be computed at the date of creation.
+	 * 
+	 * @param parallelism number of worker threads; 1 or less builds the objects on the loading thread
+	 * @param mode engine used to propagate the orbits and current positions
+	 * @throws PatriusException if the current date cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public ObjectGatherer(int parallelism, PropagationMode mode) throws PatriusException {
+		this.mode = mode;
+		this.parallelism = parallelism;
+		currentDate = new AbsoluteDate(LocalDateTime.now(ZoneId.of("UTC")), TimeScalesFactory.getTAI()); //current UTC date
+	}
+	
+	/**
+	 * Receives the batches of a progressive load.
+	 * 
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public interface LoadListener {
+		
+		/**
+		 * Called on the loading thread each time a batch of objects is built and propagated. The batch only 
+		 * adds objects; batches must be applied with {@link ObjectGatherer#applyRefresh(CatalogRefresh)} in 
+		 * the order they are received.
+		 * 
+		 * @param batch objects of the batch
+		 * @param loaded objects built so far, this batch included
+		 * @param total objects in the file
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void batchLoaded(CatalogRefresh batch, int loaded, int total);
+	}
+	
+	/**
+	 * Loads a catalog progressively into this empty catalog. The records are parsed first, which is quick, then 
+	 * built and propagated batch after batch; each batch is handed to the listener as a refresh adding its objects, 
+	 * so the objects can be displayed while the next batches are built. A snapshot of an unchanged file is handed 
+	 * over as a single batch. Runs on the calling thread, which should not be the event dispatch thread; the 
+	 * catalog itself is only changed when the batches are applied.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @param useSnapshot true to read the binary snapshot; see {@link #saveSnapshot(String)} to write it
+	 * @param batchSize number of objects per batch
+	 * @param listener receives each batch
+	 * @param cancelled tells if the load must stop; checked before each batch
+	 * @return true if every object was loaded, false if the load was cancelled
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public boolean load(String fileName, boolean useSnapshot, int batchSize, LoadListener listener, 
+			BooleanSupplier cancelled) throws PatriusException {
+		
+		long start = Metrics.start();
+		String filePath = System.getProperty("user.dir") + File.separator + fileName;
+		
+		//Reuse the snapshot if the file did not change
+		if (useSnapshot) {
+			CatalogSnapshot snapshot = null;
+			try {
+				snapshot = CatalogSnapshot.read(Paths.get(filePath + SNAPSHOT_EXTENSION), 
+						CatalogSnapshot.hash(Paths.get(filePath)), mode);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			if (snapshot != null) {
+				CatalogStore loaded = snapshot.getStore();
+				if (Math.abs(currentDate.durationFrom(snapshot.getCurrentDate())) > SNAPSHOT_POSITION_TOLERANCE) {
+					propagateCurrentPositions(loaded, currentDate, mode);
+				}
+				Metrics.count("load.snapshot", 1);
+				Metrics.stop(Metrics.Phase.LOAD_TOTAL, start, loaded.size());
+				fromSnapshot = true;
+				listener.batchLoaded(new CatalogRefresh(0, new CatalogStore(1), new int[0], loaded, new int[0], 0), 
+						loaded.size(), loaded.size());
+				return true;
+			}
+		}
+		
+		//Parse everything, then build batch after batch
+		List<TleRecord> records = new ArrayList<>();
+		parseFile(filePath, records::add);
+		int loaded = 0;
+		for (int from = 0; from < records.size(); from += batchSize) {
+			if (cancelled.getAsBoolean()) {
+				System.out.println("Loading cancelled after " + loaded + " objects");
+				return false;
+			}
+			CatalogStore batch = buildRecords(records.subList(from, Math.min(records.size(), from + batchSize)));
+			int size = loaded; //size of the catalog once the previous batches are applied
+			loaded += batch.size();
+			listener.batchLoaded(new CatalogRefresh(size, new CatalogStore(1), new int[0], batch, new int[0], 0), 
+					loaded, records.size());
+		}
+		Metrics.stop(Metrics.Phase.LOAD_TOTAL, start, loaded);
+		System.out.println(loaded + " objects loaded in " + (System.nanoTime() - start)/1000000 + " ms");
+		return true;
 	}
 	
 	/**
-	 * Reads a .txt file and stores all the lines in a list of strings. Each element of the list
-	 * corresponds to a line.
+	 * Opens the ephemeris cache saved next to a file (fileName.ephemeris) and makes the space objects use it, so 
+	 * the paths propagated in previous runs are read back and only the others are propagated; see 
+	 * {@link EphemerisDiskCache}. Should be called before the catalog is loaded.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @return the cache, or null if it cannot be opened; the paths are then always propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static EphemerisDiskCache openEphemerisCache(String fileName) {
+		String filePath = System.getProperty("user.dir") + File.separator + fileName;
+		try {
+			EphemerisDiskCache cache = EphemerisDiskCache.open(Paths.get(filePath + EPHEMERIS_EXTENSION), 
+					EphemerisDiskCache.DEFAULT_BUDGET, OrbitSampler.DEFAULT_TOLERANCE, NUMERICAL_STEP);
+			EphemerisDiskCache.setDefault(cache);
+			System.out.println(cache.size() + " orbit paths read from " + filePath + EPHEMERIS_EXTENSION);
+			return cache;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Saves the catalog as the snapshot of a file, for the next launch; see {@link #load(String, boolean, int, 
+	 * LoadListener, BooleanSupplier)}. Does nothing if the catalog was read from that snapshot. Must run on the 
+	 * thread that changes the catalog.
+	 * 
+	 * @param fileName String containing the name of the .txt file the catalog was loaded from
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void saveSnapshot(String fileName) {
+		if (fromSnapshot) {return;} //already saved
+		String filePath = System.getProperty("user.dir") + File.separator + fileName;
+		try {
+			CatalogSnapshot.write(Paths.get(filePath + SNAPSHOT_EXTENSION), CatalogSnapshot.hash(Paths.get(filePath)), 
+					mode, currentDate, store, false); //paths are built on display
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Reads a newer copy of the 3LE file, applies the difference to the catalog and returns it, see 
+	 * {@link #prepareRefresh(String)} and {@link #applyRefresh(CatalogRefresh)}.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @return objects added, changed and removed
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public CatalogRefresh refresh(String fileName) throws PatriusException {
+		CatalogRefresh refresh = prepareRefresh(fileName);
+		applyRefresh(refresh);
+		return refresh;
+	}
+	
+	/**
+	 * Compares a newer copy of the 3LE file with the loaded catalog, by catalog number and epoch, and builds 
+	 * the objects that are new or whose epoch changed, with the engine and parallelism of the catalog. Their 
+	 * current positions are computed at the date of the catalog's current positions. Records published again 
+	 * with the same epoch are skipped without being built, and loaded objects missing from the file are marked 
+	 * for removal.
 	 * <p>
+	 * The catalog is only read, so this can run on a background thread while the catalog is displayed; it must 
+	 * not be changed until the refresh is applied.
+	 * 
+	 * @param fileName String containing the name of the .txt file
+	 * @return difference to be applied with {@link #applyRefresh(CatalogRefresh)}
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public CatalogRefresh prepareRefresh(String fileName) throws PatriusException {
+		
+		String filePath = System.getProperty("user.dir") + File.separator + fileName;
+		int size = store.size();
+		
+		//Row of each loaded catalog number; the first row wins if a number is repeated
+		Map<Integer, Integer> rowOf = new HashMap<>(2*size);
+		for (int row = size - 1; row >= 0; row--) {
+			rowOf.put(store.noradId[row], row);
+		}
+		
+		//Sort the records of the new file
+		boolean[] published = new boolean[size]; //rows found in the new file
+		List<TleRecord> changedRecords = new ArrayList<>();
+		List<Integer> changedRows = new ArrayList<>();
+		List<TleRecord> addedRecords = new ArrayList<>();
+		int[] unchanged = new int[1];
+		parseFile(filePath, record -> {
+			Integer row = rowOf.get(record.noradId);
+			if (row == null || published[row]) { //new object, or a repeated number
+				addedRecords.add(record);
+				return;
+			}
+			published[row] = true;
+			double epoch;
+			try {
+				epoch = yearDayToUTC(record.epochYear, record.epochDay).durationFrom(AbsoluteDate.J2000_EPOCH);
+			} catch (PatriusException e) {
+				throw new PropagationFailure(e);
+			}
+			if (Math.abs(epoch - store.epoch[row]) > EPOCH_TOLERANCE) {
+				changedRecords.add(record);
+				changedRows.add(row);
+			} else {
+				unchanged[0]++;
+			}
+		});
+		int[] removedRows = IntStream.range(0, size).filter(row -> !published[row]).toArray();
+		
+		//Build the new and changed objects only
+		CatalogStore changedStore = buildRecords(changedRecords);
+		CatalogStore addedStore = buildRecords(addedRecords);
+		return new CatalogRefresh(size, changedStore, changedRows.stream().mapToInt(Integer::intValue).toArray(), 
+				addedStore, removedRows, unchanged[0]);
+	}
+	
+	/**
+	 * Applies a refresh to the catalog: changed objects are overwritten in place and keep their views, removed 
+	 * objects are dropped and new objects are appended; allObjects is patched the same way. Views held elsewhere 
+	 * stay valid, but row indexes taken before (e.g. by a {@link SpatialGrid} or an {@link OrbitAnimator}) must 
+	 * be taken again. Must not run while the catalog is read on another thread.
+	 * 
+	 * @param refresh difference computed by {@link #prepareRefresh(String)} against this catalog
+	 * @throws IllegalStateException if the catalog changed since the refresh was prepared
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void applyRefresh(CatalogRefresh refresh) {
+		refresh.apply(store);
+		if (!refresh.getRemoved().isEmpty()) {
+			Set<SpaceObject> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+			removed.addAll(refresh.getRemoved());
+			allObjects.removeIf(removed::contains);
+		}
+		allObjects.addAll(refresh.getAdded());
+		Metrics.count("catalog.added", refresh.getAdded().size());
+		Metrics.count("catalog.changed", refresh.getChanged().size());
+		Metrics.count("catalog.removed", refresh.getRemoved().size());
+	}
+	
+	/**
+	 * Builds the space objects of some records with the engine and parallelism of the catalog, at the date of 
+	 * the catalog's current positions.
+	 * 
+	 * @param records records to be built, in order
+	 * @return store of the objects, in the same order as the records
+	 * @throws PatriusException if an orbit cannot be built or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private CatalogStore buildRecords(List<TleRecord> records) throws PatriusException {
+		
+		CatalogStore catalog = new CatalogStore(Math.max(records.size(), 1));
+		if (parallelism <= 1 || records.size() <= BATCH_SIZE) {
+			for (TleRecord record : records) {
+				buildObject(record, currentDate, mode, catalog);
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+			try {
+				List<Future<CatalogStore>> batches = new ArrayList<>();
+				for (int from = 0; from < records.size(); from += BATCH_SIZE) {
+					List<TleRecord> batch = records.subList(from, Math.min(records.size(), from + BATCH_SIZE));
+					batches.add(executor.submit(buildBatch(batch, currentDate, mode)));
+				}
+				for (Future<CatalogStore> batch : batches) {
+					catalog.append(batch.get());
+				}
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof PatriusException) {throw (PatriusException) e.getCause();}
+				throw new IllegalStateException("Failed to build space objects", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt(); //keep interrupt status for the caller
+				throw new IllegalStateException("Interrupted while building space objects", e);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+		if (mode == PropagationMode.SGP4 && catalog.size() > 0) {
+			propagateCurrentPositions(catalog, currentDate, mode);
+		}
+		return catalog;
+	}
+
+	/**
+	 * Screens every object against every other from the current date, see {@link ConjunctionScreener}.
+	 *
+	 * @param duration length of the window (s), e.g. 86400 for a day
+	 * @param threshold miss distance under which a close approach is reported (m)
+	 * @return close approaches, in TCA order
+	 * @throws PatriusException if the objects cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<ConjunctionScreener.CloseApproach> screenConjunctions(double duration, double threshold)
+			throws PatriusException {
+		return new ConjunctionScreener(store, allObjects).screen(currentDate, duration, threshold);
+	}
+
+	/**
+	 * Computes the current position of every object of a store. The analytic engine runs over the element 
+	 * columns and SGP4 propagates the whole store with one batch call; objects that SGP4 cannot propagate 
+	 * (decayed, invalid elements) fall back to the analytic two-body solution. The numerical engine 
+	 * propagates each object in turn.
+	 * 
+	 * @param catalog store of the space objects with their orbit and TLE terms
+	 * @param currentDateUTC AbsoluteDate corresponding the current date in UTC format
+	 * @param mode engine used to propagate the positions
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static void propagateCurrentPositions(CatalogStore catalog, AbsoluteDate currentDateUTC, 
+			PropagationMode mode) throws PatriusException {
+		
+		long start = Metrics.start();
+		switch (mode) {
+		case ANALYTIC:
+			catalog.propagateCurrentPositions(currentDateUTC);
+			break;
+		case SGP4:
+			int n = catalog.size();
+			double[] lat = new double[n];
+			double[] lon = new double[n];
+			double[] alt = new double[n];
+			new Sgp4Propagator(catalog.objects()).propagate(currentDateUTC, lat, lon, alt);
+			for (int k = 0; k < n; k++) {
+				if (Double.isNaN(lat[k])) {
+					catalog.get(k).addCurrentPosition(currentDateUTC); //closed-form fallback
+				} else {
+					catalog.setCurrentPosition(k, lat[k], lon[k], alt[k]);
+				}
+			}
+			break;
+		default:
+			for (SpaceObject obj : catalog.objects()) {
+				obj.addCurrentPosition(currentDateUTC);
+			}
+		}
+		Metrics.stop(Metrics.Phase.CURRENT_POSITION, start, catalog.size());
+	}
+	
+	/**
+	 * Creates a space object from its parsed record in a new row of a store and propagates its orbit and 
+	 * current position.
+	 * 
+	 * @param record fields of line 0, line 1 and line 2 of the object
+	 * @param currentDateUTC AbsoluteDate corresponding the current date in UTC format
+	 * @param mode engine used to propagate the orbit and current position
+	 * @param catalog store receiving the object
+	 * @return SpaceObject with its orbit, path and current position
+	 * @throws PatriusException if the orbit cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static SpaceObject buildObject(TleRecord record, AbsoluteDate currentDateUTC, PropagationMode mode, 
+			CatalogStore catalog) throws PatriusException {
+		
+		//line 0 only contains the name of the object
+		long start = Metrics.start();
+		SpaceObject object = new SpaceObject(catalog, record.name);
+		object.setPropagationMode(mode);
+		
+		//line 1 contains the epoch time (UTC) and the drag terms
+		object.addDate(yearDayToUTC(record.epochYear, record.epochDay)); //epoch time in UTC
+		object.addTleTerms(record.noradId, record.nDot, record.nDDot, record.bStar);
+		
+		//line 2 contains the orbit parameters
+		object.addOrbit(record.i, record.rAsc, record.e, record.argPer, record.theta, record.n); //add orbit parameters and initial position to space object
+		Metrics.stop(Metrics.Phase.ORBIT_BUILD, start);
+		if (mode != PropagationMode.SGP4) {
+			start = Metrics.start();
+			object.addCurrentPosition(currentDateUTC); //add current position; SGP4 does it in batch
+			Metrics.stop(Metrics.Phase.CURRENT_POSITION, start);
+		}
+		return object;
+	}
+	
+	/**
+	 * Builds the space objects on a fixed pool of worker threads while the file is parsed. The records are 
+	 * grouped in batches in file order and each batch is submitted as soon as it is full, so the workers start 
+	 * propagating before the end of the file is reached.
+	 * 
 	 * @param filePath String containing the full file path
-	 * @return List of rows as strings
-	 * @since 27/12/2024
+	 * @param currentDateUTC AbsoluteDate corresponding the current date in UTC format
+	 * @param parallelism number of worker threads
+	 * @param mode engine used to propagate the orbits and current positions
+	 * @param catalog store receiving the space objects in the same order as the records
+	 * @throws PatriusException if any orbit cannot be built or propagated
+	 * @since 17/10/2026
 	 * @author joaom
 	 */
-    private static List<String> readFile(String filePath) {
-    	
-    	//Open file and close at the end
-        List<String> data = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) { 
-            String line = new String();
-            
-            //Read line and separate elements until file ends
-            while ((line = br.readLine()) != null) {
-                data.add(line);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return data;
-    }
+	private static void buildObjectsInParallel(String filePath, AbsoluteDate currentDateUTC, 
+			int parallelism, PropagationMode mode, CatalogStore catalog) throws PatriusException {
+		
+		final List<Future<CatalogStore>> batches = new ArrayList<>(); //results in file order
+		
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			//Submit a task for every full batch of records
+			final List<List<TleRecord>> pending = new ArrayList<>(1);
+			pending.add(new ArrayList<>(BATCH_SIZE));
+			parseFile(filePath, record -> {
+				pending.get(0).add(record);
+				if (pending.get(0).size() == BATCH_SIZE) {
+					batches.add(executor.submit(buildBatch(pending.get(0), currentDateUTC, mode)));
+					pending.set(0, new ArrayList<>(BATCH_SIZE));
+				}
+			});
+			if (!pending.get(0).isEmpty()) {
+				batches.add(executor.submit(buildBatch(pending.get(0), currentDateUTC, mode))); //last batch
+			}
+			
+			//Wait for every batch, append its rows in order and forward the first failure
+			for (Future<CatalogStore> batch : batches) {
+				catalog.append(batch.get());
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof PatriusException) {throw (PatriusException) e.getCause();}
+			throw new IllegalStateException("Failed to build space objects", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt(); //keep interrupt status for the caller
+			throw new IllegalStateException("Interrupted while building space objects", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Creates the task building the space objects of a batch of records.
+	 * 
+	 * @param records records of the batch, in file order
+	 * @param currentDateUTC AbsoluteDate corresponding the current date in UTC format
+	 * @param mode engine used to propagate the orbits and current positions
+	 * @return task returning a store of the space objects in the same order as the records
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static Callable<CatalogStore> buildBatch(List<TleRecord> records, AbsoluteDate currentDateUTC, 
+			PropagationMode mode) {
+		return () -> {
+			CatalogStore batch = new CatalogStore(records.size());
+			for (TleRecord record : records) {
+				buildObject(record, currentDateUTC, mode, batch);
+			}
+			return batch;
+		};
+	}
 	
 	/**
-	 * Converts a date in UTC to an AbosoluteDate in UTC accurate to the second to be used by the KeplerianOrbit class. 
+	 * Streams the records of a catalog to a consumer. A file that cannot be read is reported and gives 
+	 * no records, as before.
+	 * 
+	 * @param filePath String containing the full file path
+	 * @param consumer receives each record as soon as it is parsed
+	 * @throws PatriusException if the consumer failed to propagate an object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static void parseFile(String filePath, Consumer<TleRecord> consumer) throws PatriusException {
+		try {
+			TleParser.parse(Paths.get(filePath), consumer);
+		} catch (PropagationFailure e) {
+			throw e.getCause();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Unchecked wrapper used to carry a PatriusException out of a record consumer.
+	 * 
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static class PropagationFailure extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		PropagationFailure(PatriusException cause) {
+			super(cause);
+		}
+		
+		@Override
+		public synchronized PatriusException getCause() {
+			return (PatriusException) super.getCause();
+		}
+	}
+	
+	/**
+	 * Converts a date in UTC to an AbosoluteDate in UTC to be used by the KeplerianOrbit class. The fraction of 
+	 * second is kept since SGP4 needs the exact epoch of the elements.
 	 * The date must be in the following format: yydddddd....
 	 * <br> This function only works from the year 2000 to 2999. 
 	 * 
 	 * @param date String containing the last 2 digits of the year (starting from 2000) 
 	 * in the first 2 characters and the day in the rest
-	 * @return date converted to AbsoluteDate accurate to the second
+	 * @return date converted to AbsoluteDate
 	 * @since 30/12/2024
      * @author joaom
 	 */
@@ -155,6 +715,21 @@ public class ObjectGatherer {
 		
 		int year = Integer.parseInt(date.substring(0, 2)) + 2000; //year starting from 2000
 		double rest = Double.parseDouble(date.substring(2)); //days in raw format
+		return yearDayToUTC(year, rest);
+	}
+	
+	/**
+	 * Converts a year and a day of the year with its fraction to an AbsoluteDate in UTC.
+	 * 
+	 * @param year year (4 digits)
+	 * @param dayOfYear day of the year with its fraction; 1.0 is January 1st at 00:00
+	 * @return date converted to AbsoluteDate
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static AbsoluteDate yearDayToUTC(int year, double dayOfYear) throws PatriusException{
+		
+		double rest = dayOfYear; //days in raw format
 		int day = (int) rest; 
 		rest = rest - day; //remove day; get decimals for hours
 		LocalDate utcDate = LocalDate.ofYearDay(year, day); //get date in UTC
@@ -165,7 +740,7 @@ public class ObjectGatherer {
 		rest = rest*24 - hour; //remove hour; get decimals for minutes
 		int minute = (int) (rest*60);
 		rest = rest*60 - minute; //remove minute; get decimals for seconds
-		int second = (int) (rest*60); 
+		double second = rest*60; //seconds with their fraction
 
 		//get UTC date in the correct format for the KeplerianOrbit class
 		AbsoluteDate UTCDate = new AbsoluteDate(year,month,day,hour,minute,second);
@@ -176,6 +751,9 @@ public class ObjectGatherer {
 	 * Used to store the characteristics of a space object and its orbit received from a line of text
 	 * from SpaceTrack's .txt catalog. The values are meant to be stored
 	 * in SI units.
+	 * <p>
+	 * A SpaceObject is a view over one row of a {@link CatalogStore}: its fields live in the store's columns.
+	 * An object created with {@link #SpaceObject(String)} gets a store of its own.
 	 * 
 	 * @returns SpaceObject with corresponding name, last sampling date, orbit parameters and position in space
 	 * @since 29/12/2024
@@ -183,15 +761,9 @@ public class ObjectGatherer {
 	 */
 	public static class SpaceObject {
 		
-		private String name = ""; //name of space object
-		private String type = ""; //type of space object (satellite, debris, etc..)
-		private Color cor = Color.YELLOW; //marker color for WorldWind; yellow by default
-		private AbsoluteDate date; //epoch UTC time of the data sampling with accuracy to the second
-		
-		private KeplerianOrbit orbit; //Keplerian orbit
-		private Path path; //path to be drawn; contains points of orbit as well (lat, long, alt)
-		private double[] initialPos = new double[3]; //position of the object when data is read (lat long alt) in rad; m
-		private double[] currentPos = new double[3]; //current position of the object (lat long alt) in rad; m
+		private CatalogStore store; //store holding the fields of the object
+		private int id; //row of the object in the store
+		private Sgp4Propagator sgp4; //SGP4 propagator of the object, built on first use and dropped when its elements change
 		
 		
 		/**
@@ -202,10 +774,60 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public SpaceObject(String objectName) {
-			name = objectName;
+			this(new CatalogStore(1), objectName);
+		}
+		
+		/**
+		 * Creates a space object in a new row of a store.
+		 * 
+		 * @param catalog store receiving the object
+		 * @param objectName String containing the object's name and type.
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		SpaceObject(CatalogStore catalog, String objectName) {
+			store = catalog;
+			id = catalog.add(this, objectName);
 			setType(objectName);
 		}
 		
+		/**
+		 * Points the view to the row the object was moved to, or whose values were overwritten. The SGP4 
+		 * propagator built from the former values is dropped.
+		 * 
+		 * @param catalog store now holding the object
+		 * @param row row of the object in that store
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void rebind(CatalogStore catalog, int row) {
+			store = catalog;
+			id = row;
+			sgp4 = null;
+		}
+		
+		/**
+		 * Returns the row of the object in its store.
+		 * 
+		 * @return index of the object
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public int getId() {
+			return id;
+		}
+		
+		/**
+		 * Returns the store holding the object's fields.
+		 * 
+		 * @return store of the object
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public CatalogStore getStore() {
+			return store;
+		}
+		
 		/**
 		 * Sets space object last data sampling time, in UTC time date.
 		 * 
@@ -214,11 +836,43 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public void addDate(AbsoluteDate dataTime) {
-			date = dataTime;
+			store.epoch[id] = dataTime.durationFrom(AbsoluteDate.J2000_EPOCH);
+			sgp4 = null;
+		}
+		
+		/**
+		 * Sets the catalog number and the terms of line 1 that are only used by SGP4.
+		 * 
+		 * @param id catalog number
+		 * @param meanMotionDot first derivative of mean motion (rad/s^2)
+		 * @param meanMotionDDot second derivative of mean motion (rad/s^3)
+		 * @param drag B* drag term (1/earth radii)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public void addTleTerms(int id, double meanMotionDot, double meanMotionDDot, double drag) {
+			store.noradId[this.id] = id;
+			store.nDot[this.id] = meanMotionDot;
+			store.nDDot[this.id] = meanMotionDDot;
+			store.bStar[this.id] = drag;
+			sgp4 = null;
 		}
 		
 		/**
-		 * Stores the objects orbit as a KeplerianOrbit and a WorldWind path to be drawn on the application.
+		 * Sets the engine used by addOrbit and addCurrentPosition. The analytic engine is used by default.
+		 * 
+		 * @param propagationMode ANALYTIC, NUMERICAL or SGP4
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public void setPropagationMode(PropagationMode propagationMode) {
+			store.modes[id] = propagationMode;
+		}
+		
+		/**
+		 * Stores the objects orbit elements and its position at epoch. The WorldWind path to be drawn on the 
+		 * application is only propagated when it is first requested by {@link #getPath()}, or, with the numerical
+		 * engine, in the same propagation as the current position.
 		 * 
 		 * @param i inclination (rad)
 		 * @param rAsc right ascension of ascending node (rad)
@@ -234,26 +888,219 @@ public class ObjectGatherer {
                 double theta, double n) throws PatriusException {
 			
 			//Get orbits and initial position
-			orbit = computeOrbit(i,rAsc,e,argPer,theta,n); //add orbit to space object
-			double T = orbit.getKeplerianPeriod(); //orbit period (s)
+			computeOrbit(i,rAsc,e,argPer,theta,n); //add orbit to space object
+			store.pathCache.remove(this); //the elements changed
+			
+			double[] initialPos = new double[3];
+			if (getPropagationMode() == PropagationMode.SGP4) {
+				double[] lat = new double[1], lon = new double[1], alt = new double[1];
+				getSgp4().propagate(getDate(), lat, lon, alt);
+				initialPos = new double[] {lat[0], lon[0], alt[0]};
+			}
+			if (Double.isNaN(initialPos[0]) || getPropagationMode() != PropagationMode.SGP4) {
+				//the numerical propagation starts from the same state as the closed form
+				AnalyticOrbitPropagator.positionGeodetic(store.elements(id), getDate(), 0, initialPos);
+			}
+			store.initialLat[id] = initialPos[0]; //latitude (rad)
+			store.initialLon[id] = initialPos[1]; //longitude (rad)
+			store.initialAlt[id] = initialPos[2]; //altitude (m)
+		}
+		
+		/**
+		 * Samples one period of the orbit with the object's engine, with more points where the orbit bends away
+		 * from the drawn path, e.g. around the perigee of eccentric orbits; see {@link OrbitSampler}. The numerical
+		 * engine cannot be evaluated at any time, so its orbit is propagated every NUMERICAL_STEP seconds and 
+		 * sampled among these points.
+		 * 
+		 * @return samples of the orbit in ITRF, the first one at epoch
+		 * @throws PatriusException if the orbit cannot be propagated
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private OrbitSampler.Samples propagatePath() throws PatriusException {
+			
+			double T = getT(); //orbit period (s)
+			
+			switch (getPropagationMode()) {
+			case NUMERICAL:
+				return sampleNumerical(propagateOrbit(getOrbit(), numericalTimes(0)));
+			case SGP4:
+				Sgp4Propagator sgp4 = getSgp4();
+				double[] first = new double[3];
+				sgp4.positionGeodetic(0, 0, first);
+				if (!Double.isNaN(first[0])) {
+					return OrbitSampler.sample((dt, geodetic) -> sgp4.positionGeodetic(0, dt, geodetic), 
+							T, getE(), getTheta(), OrbitSampler.DEFAULT_TOLERANCE, 0);
+				}
+				break; //SGP4 cannot propagate this object; use the closed form
+			default:
+				break;
+			}
+			double[] elements = store.elements(id);
+			return OrbitSampler.sample((dt, geodetic) -> AnalyticOrbitPropagator.positionGeodetic(elements, getDate(), dt, geodetic),
+					T, getE(), getTheta(), OrbitSampler.DEFAULT_TOLERANCE, 0);
+		}
+		
+		/**
+		 * Returns the times the numerical engine propagates a path at: one every NUMERICAL_STEP seconds from epoch 
+		 * until one period is covered, followed by free slots for other output times of the same propagation.
+		 * 
+		 * @param extra number of free slots at the end, set to 0
+		 * @return times after epoch (s)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private double[] numericalTimes(int extra) {
+			
+			int steps = (int) Math.ceil(getT()/NUMERICAL_STEP);
+			double[] times = new double[steps + 1 + extra];
+			for (int k = 0; k <= steps; k++) {
+				times[k] = k*NUMERICAL_STEP;
+			}
+			return times;
+		}
+		
+		/**
+		 * Samples one period of the orbit among numerically propagated points.
+		 * 
+		 * @param points points at the times of {@link #numericalTimes(int)}; points past the grid are ignored
+		 * @return samples of the orbit in ITRF, the first one at epoch
+		 * @throws PatriusException never, the points are already propagated
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private OrbitSampler.Samples sampleNumerical(List<GeodeticPoint> points) throws PatriusException {
 			
-			//get patrius points; more points for more eccentric orbits
-			List<GeodeticPoint> patriusPoints = propagateOrbit(orbit,T,100);
-			path = new Path(glueBetweenPatriusAndWorldwind(patriusPoints)); //convert to world wind path
+			int last = (int) Math.ceil(getT()/NUMERICAL_STEP); //index of the last grid point
+			return OrbitSampler.sample((dt, geodetic) -> {
+				GeodeticPoint point = points.get(Math.min((int) Math.round(dt/NUMERICAL_STEP), last));
+				geodetic[0] = point.getLatitude();
+				geodetic[1] = point.getLongitude();
+				geodetic[2] = point.getAltitude();
+			}, getT(), getE(), getTheta(), OrbitSampler.DEFAULT_TOLERANCE, NUMERICAL_STEP);
+		}
+		
+		/**
+		 * Propagates the orbit numerically once for both its current position and, when it is not cached yet, its 
+		 * path: the current time is one more output time of the path's propagation.
+		 * 
+		 * @param currentDate AbsoluteDate corresponding the current date in UTC format
+		 * @throws PatriusException if the orbit cannot be propagated
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void propagateNumerical(AbsoluteDate currentDate) throws PatriusException {
+			
+			//seconds passed since epoch date until current date - adjusted for orbit periods
+			double current = adjustTime(currentDate.durationFrom(getDate()), getT());
+			boolean withPath = store.pathCache.get(this) == null;
+			if (withPath) {
+				OrbitSampler.Samples saved = readPath();
+				if (saved != null) {
+					store.pathCache.put(this, createPath(saved));
+					withPath = false; //only the current position is left to propagate
+				}
+			}
+			double[] times = withPath ? numericalTimes(1) : new double[1];
+			times[times.length - 1] = current;
+			
+			long start = Metrics.start();
+			List<GeodeticPoint> points = propagateOrbit(getOrbit(), times);
+			GeodeticPoint currentPoint = points.get(times.length - 1);
+			setCurrentPosition(currentPoint.getLatitude(), currentPoint.getLongitude(), currentPoint.getAltitude());
+			if (withPath) {
+				OrbitSampler.Samples samples = sampleNumerical(points);
+				store.pathCache.put(this, createPath(samples));
+				Metrics.stop(Metrics.Phase.PATH_PROPAGATION, start, samples.size());
+				writePath(samples);
+			}
+		}
+		
+		/**
+		 * Reads the samples of the path from the disk cache, see {@link EphemerisDiskCache#setDefault}. The entry 
+		 * is keyed by the TLE fields, the engine and the period after epoch that the path covers.
+		 * 
+		 * @return samples saved by a previous propagation, or null if there is no disk cache or no such entry
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private OrbitSampler.Samples readPath() {
+			EphemerisDiskCache disk = EphemerisDiskCache.getDefault();
+			return disk == null ? null : disk.get(tleHash(), getPropagationMode(), 
+					store.epoch[id], getT());
+		}
+		
+		/**
+		 * Writes the samples of the path to the disk cache, if there is one.
+		 * 
+		 * @param samples samples just propagated
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void writePath(OrbitSampler.Samples samples) {
+			EphemerisDiskCache disk = EphemerisDiskCache.getDefault();
+			if (disk != null) {
+				disk.put(tleHash(), getPropagationMode(), store.epoch[id], getT(), samples);
+			}
+		}
+		
+		/**
+		 * Hashes the fields of the TLE the object was built from; a new TLE of the object has another hash.
+		 * 
+		 * @return hash of the epoch, the orbital elements and the TLE terms
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private long tleHash() {
+			return EphemerisDiskCache.hash(store.epoch[id], getI(), getRAsc(), getE(), 
+					getArgPer(), getTheta(), getN(), getMeanMotionDot(), getMeanMotionDDot(), getBStar());
+		}
+		
+		/**
+		 * Restores the orbit and path saved in a catalog snapshot, without propagating anything.
+		 * 
+		 * @param i inclination (rad)
+		 * @param rAsc right ascension of ascending node (rad)
+		 * @param e eccentricity
+		 * @param argPer argument of the perigee (rad)
+		 * @param theta mean anomaly (rad)
+		 * @param n mean motion (rad/s)
+		 * @param pathPositions points of the orbit's path; the first one is the position at epoch
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void restoreOrbit(double i, double rAsc, double e, double argPer, double theta, double n,
+				List<Position> pathPositions) {
+			computeOrbit(i,rAsc,e,argPer,theta,n);
 			
 			//Initial positions
-			initialPos[0] = patriusPoints.get(0).getLatitude(); //latitude (rad)
-			initialPos[1] = patriusPoints.get(0).getLongitude(); //longitude (rad)
-			initialPos[2] = patriusPoints.get(0).getAltitude(); //altitude (m)
+			store.initialLat[id] = pathPositions.get(0).getLatitude().radians; //latitude (rad)
+			store.initialLon[id] = pathPositions.get(0).getLongitude().radians; //longitude (rad)
+			store.initialAlt[id] = pathPositions.get(0).getAltitude(); //altitude (m)
+			store.pathCache.put(this, createPath(new OrbitSampler.Samples(pathPositions)));
+		}
+		
+		/**
+		 * Creates the WorldWind path of the orbit.
+		 * 
+		 * @param samples ranked samples of the orbit
+		 * @return path with the object's colour, not visible, decimated with the zoom
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private Path createPath(OrbitSampler.Samples samples) {
+			
+			Path path = new OrbitPath(samples);
 
 			//Set path's attributes
 			ShapeAttributes attrs = new BasicShapeAttributes(); //initialise shape and attributes
-			attrs.setOutlineMaterial(new Material(cor));
+			attrs.setOutlineMaterial(new Material(getColor()));
 			attrs.setOutlineWidth(0.5d); //set thickness
 			path.setAttributes(attrs);
 			path.setVisible(false); //starts not visible by default
 			path.setAltitudeMode(WorldWind.RELATIVE_TO_GROUND);  //altitude is measured relative to ground
 			path.setPathType(AVKey.GREAT_CIRCLE); //orbits are eliptical - closest shape is circle
+			return path;
 		}
 		
 		/**
@@ -266,13 +1113,91 @@ public class ObjectGatherer {
 		 */
 		public void addCurrentPosition (AbsoluteDate currentDate, Orbit orbit) throws PatriusException {
 			
-			//seconds passed since epoch date until current date - adjusted for orbit periods - program runs faster
-			double timeDiff = currentDate.durationFrom(date); 
-			double timeDiffAdjusted = adjustTime(timeDiff, orbit.getKeplerianPeriod());
-			GeodeticPoint currentPoint = propagateOrbit(orbit,timeDiffAdjusted,timeDiffAdjusted).get(1);
-			currentPos[0] = currentPoint.getLatitude(); //latitude (rad)
-			currentPos[1] = currentPoint.getLongitude(); //longitude (rad) 
-			currentPos[2] = currentPoint.getAltitude(); //altitude(rad)
+			if (getPropagationMode() == PropagationMode.NUMERICAL) {
+				//seconds passed since epoch date until current date - adjusted for orbit periods - program runs faster
+				double timeDiff = currentDate.durationFrom(getDate()); 
+				double timeDiffAdjusted = adjustTime(timeDiff, orbit.getKeplerianPeriod());
+				GeodeticPoint currentPoint = propagateOrbit(orbit, new double[] {timeDiffAdjusted}).get(0);
+				setCurrentPosition(currentPoint.getLatitude(), currentPoint.getLongitude(), currentPoint.getAltitude());
+			} else if (getPropagationMode() == PropagationMode.ANALYTIC && orbit instanceof KeplerianOrbit) {
+				GeodeticPoint currentPoint = AnalyticOrbitPropagator.propagateTo((KeplerianOrbit) orbit, currentDate);
+				setCurrentPosition(currentPoint.getLatitude(), currentPoint.getLongitude(), currentPoint.getAltitude());
+			} else {
+				addCurrentPosition(currentDate);
+			}
+		}
+		
+		/**
+		 * Adds the current position of the space object, propagated from its own elements.
+		 * @param currentDate AbsoluteDate corresponding the current date in UTC format
+		 * @throws PatriusException if the Earth frame cannot be built
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public void addCurrentPosition(AbsoluteDate currentDate) throws PatriusException {
+			
+			if (getPropagationMode() == PropagationMode.NUMERICAL) {
+				propagateNumerical(currentDate); //path in the same pass
+				return;
+			}
+			if (getPropagationMode() == PropagationMode.SGP4) {
+				double[] lat = new double[1], lon = new double[1], alt = new double[1];
+				getSgp4().propagate(currentDate, lat, lon, alt);
+				if (!Double.isNaN(lat[0])) {
+					setCurrentPosition(lat[0], lon[0], alt[0]);
+					return;
+				}
+				//SGP4 cannot propagate this object; use the closed form
+			}
+			
+			//closed form - no need to fold the time into one period
+			double[] geodetic = new double[3];
+			AnalyticOrbitPropagator.positionGeodetic(store.elements(id), getDate(), 
+					currentDate.durationFrom(getDate()), geodetic);
+			setCurrentPosition(geodetic[0], geodetic[1], geodetic[2]);
+		}
+		
+		/**
+		 * Sets the current position computed outside of the object, e.g. by a batch propagator.
+		 * 
+		 * @param lat latitude (rad)
+		 * @param lon longitude (rad)
+		 * @param alt altitude (m)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void setCurrentPosition(double lat, double lon, double alt) {
+			store.setCurrentPosition(id, lat, lon, alt);
+		}
+		
+		/**
+		 * Returns the SGP4 propagator of this object, building it the first time it is needed after the elements
+		 * were set.
+		 * 
+		 * @return SGP4 propagator holding only this object
+		 * @throws PatriusException if the propagator cannot be built
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private Sgp4Propagator getSgp4() throws PatriusException {
+			Sgp4Propagator propagator = sgp4;
+			if (propagator == null) {
+				propagator = new Sgp4Propagator(Collections.singletonList(this));
+				sgp4 = propagator;
+			}
+			return propagator;
+		}
+		
+		/**
+		 * Builds the object's orbit as a Patrius KeplerianOrbit in GCRF.
+		 * 
+		 * @return Keplerian orbit of the object at its epoch
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public KeplerianOrbit getOrbit() {
+			return new KeplerianOrbit(getA(),getE(),getI(),getArgPer(),getRAsc(),getTheta(),PositionAngle.MEAN,
+					FramesFactory.getGCRF(),getDate(),Constants.WGS84_EARTH_MU);
 		}
 		
 		/**
@@ -283,7 +1208,51 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public String getName() {
-			return name;
+			return store.names[id];
+		}
+		
+		/**
+		 * Returns the object's catalog number.
+		 * 
+		 * @return NORAD catalog number
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public int getNoradId() {
+			return store.noradId[id];
+		}
+		
+		/**
+		 * Returns the first derivative of the mean motion in rad/s^2.
+		 * 
+		 * @return first derivative of mean motion (rad/s^2)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public double getMeanMotionDot() {
+			return store.nDot[id];
+		}
+		
+		/**
+		 * Returns the second derivative of the mean motion in rad/s^3.
+		 * 
+		 * @return second derivative of mean motion (rad/s^3)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public double getMeanMotionDDot() {
+			return store.nDDot[id];
+		}
+		
+		/**
+		 * Returns the B* drag term of the TLE.
+		 * 
+		 * @return B* (1/earth radii)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public double getBStar() {
+			return store.bStar[id];
 		}
 		
 		/**
@@ -294,7 +1263,7 @@ public class ObjectGatherer {
 		 * @author pedro
 		 */
 		public String getType() {
-            return type;
+            return store.types[id];
         }
 		
 		/**
@@ -305,7 +1274,7 @@ public class ObjectGatherer {
 		 * @author pedro
 		 */
 		public Color getColor() {
-			return cor;
+			return store.colors[id];
 		}
 		
 		/**
@@ -316,7 +1285,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public AbsoluteDate getDate() {
-			return date;
+			return AbsoluteDate.J2000_EPOCH.shiftedBy(store.epoch[id]);
 		}
 		
 		/**
@@ -327,7 +1296,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getT() {
-			return orbit.getKeplerianPeriod();
+			return 2*Math.PI/store.n[id];
 		}
 		
 		/**
@@ -338,7 +1307,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getA() {
-			return orbit.getA();
+			return store.a[id];
 		}
 		
 		/**
@@ -349,7 +1318,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getI() {
-			return orbit.getI();
+			return store.i[id];
 		}
 		
 		/**
@@ -360,7 +1329,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getRAsc() {
-			return orbit.getRightAscensionOfAscendingNode();
+			return store.rAsc[id];
 		}
 		
 		/**
@@ -371,7 +1340,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getE() {
-			return orbit.getE();
+			return store.e[id];
 		}
 		
 		/**
@@ -382,7 +1351,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getArgPer() {
-			return orbit.getPerigeeArgument();
+			return store.argPer[id];
 		}
 		
 		/**
@@ -393,7 +1362,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getTheta() {
-			return orbit.getAnomaly(PositionAngle.MEAN);
+			return store.theta[id];
 		}
 		
 		/**
@@ -404,7 +1373,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getN() {
-			return orbit.getKeplerianMeanMotion();
+			return store.n[id];
 		}
 		
 		/**
@@ -415,7 +1384,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getInitialLat() {
-			return initialPos[0];
+			return store.initialLat[id];
 		}
 		
 		/**
@@ -426,7 +1395,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getCurrentLat() {
-			return currentPos[0];
+			return store.currentLat[id];
 		}
 		
 		/**
@@ -437,7 +1406,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getInitialLon() {
-			return initialPos[1];
+			return store.initialLon[id];
 		}
 		
 		/**
@@ -448,7 +1417,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getCurrentLon() {
-			return currentPos[1];
+			return store.currentLon[id];
 		}
 		
 		/**
@@ -459,7 +1428,7 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getInitialAlt() {
-			return initialPos[2];
+			return store.initialAlt[id];
 		}
 	
 		/**
@@ -470,29 +1439,48 @@ public class ObjectGatherer {
 		 * @author joaom
 		 */
 		public double getCurrentAlt() {
-			return currentPos[2];
+			return store.currentAlt[id];
 		}
 		
 		/**
-		 * Returns the orbit's WorldWind path.
+		 * Returns the orbit's WorldWind path. The path is read from the disk cache or propagated on the first 
+		 * request and kept in the store's path cache until it is evicted.
 		 * 
 		 * @return WorldWind orbit's path
+		 * @throws IllegalStateException if the orbit cannot be propagated
 		 * @since 01/01/2025
 		 * @author joaom
 		 */
 		public Path getPath() {
+			Path path = store.pathCache.get(this);
+			if (path == null) {
+				OrbitSampler.Samples samples = readPath(); //saved by a previous run
+				if (samples == null) {
+					try {
+						long start = Metrics.start();
+						samples = propagatePath();
+						Metrics.stop(Metrics.Phase.PATH_PROPAGATION, start, samples.size());
+					} catch (PatriusException e) {
+						throw new IllegalStateException("Cannot propagate the orbit of " + getName(), e);
+					}
+					writePath(samples);
+				}
+				path = createPath(samples);
+				store.pathCache.put(this, path);
+			}
 			return path;
 		}
 		
 		/**
-		 * Set orbit visibility on WorldWind.
+		 * Set orbit visibility on WorldWind. Hiding an orbit whose path was never built does not build it.
 		 * 
 		 * @param state true for visible or false for invisible
 		 * @since 01/01/2025
 		 * @author joaom
 		 */
 		public void setVisible(boolean state) {
-			path.setVisible(state);
+			Path path = state ? getPath() : store.pathCache.get(this);
+			if (path != null) {path.setVisible(state);}
 		}
 		
 		/**
@@ -502,7 +1490,29 @@ public class ObjectGatherer {
 		 * @author pedro
 		 */		 
 		public void setColor(Color selectedColor) {
-			cor = selectedColor;
+			store.colors[id] = selectedColor;
+		}
+		
+		/**
+		 * Sets the object's type directly, e.g. when it is read back from a catalog snapshot.
+		 * 
+		 * @param objectType type of the object, as given by {@link #setType(String)}
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void restoreType(String objectType) {
+			store.types[id] = objectType;
+		}
+		
+		/**
+		 * Returns the object's propagation engine.
+		 * 
+		 * @return ANALYTIC, NUMERICAL or SGP4
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public PropagationMode getPropagationMode() {
+			return store.modes[id];
 		}
 		
 
@@ -515,6 +1525,7 @@ public class ObjectGatherer {
 		 * @author pedro
 		 */
 		public void setType(String name){
+			String type;
             if (name.contains("R/B")) {
                 type = "ROCKET_BODY";
             } else if (name.contains("DEB")) {
@@ -530,6 +1541,7 @@ public class ObjectGatherer {
             } else {
                 type = "SATELLITE";
             }
+            store.types[id] = type;
 		}
 		
 		/**
@@ -545,7 +1557,7 @@ public class ObjectGatherer {
 		}
 		
 		/**
-		 * Computes the object's orbit. Necessary to get WorldWind points to draw the orbit's path.
+		 * Computes the object's orbit elements. Necessary to get WorldWind points to draw the orbit's path.
 		 * 
 		 * @param i inclination (rad)
 		 * @param rAsc right ascension of ascending node (rad)
@@ -556,17 +1568,22 @@ public class ObjectGatherer {
 		 * @since 01/01/2025
 		 * @author joaom
 		 */
-		private KeplerianOrbit computeOrbit(double i, double rAsc, double e, double argPer, 
+		private void computeOrbit(double i, double rAsc, double e, double argPer, 
 				                  double theta, double n) {
 			
 			// Period and semi-major axis necessary for orbit
 			double T = (2*Math.PI/n); //period (s)
 			double a = Math.pow(Math.cbrt(T*Math.sqrt(Constants.WGS84_EARTH_MU)/(2*Math.PI)),2); //semi-major axis (m)
 			
-			orbit = new KeplerianOrbit(a,e,i,argPer,rAsc,theta,PositionAngle.MEAN,FramesFactory.getGCRF(),
-					   date,Constants.WGS84_EARTH_MU); //compute object orbit
-			
-			return orbit;
+			//store the elements in the object's row
+			store.a[id] = a;
+			store.e[id] = e;
+			store.i[id] = i;
+			store.argPer[id] = argPer;
+			store.rAsc[id] = rAsc;
+			store.theta[id] = theta;
+			store.n[id] = n;
+			sgp4 = null;
 		}
 		
 		/**
@@ -591,9 +1608,7 @@ public class ObjectGatherer {
 			
 			
 			//Step handler
-			final FactoryManagedFrame ITRF = FramesFactory.getITRF();
-			final BodyShape EARTH = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
-					Constants.WGS84_EARTH_FLATTENING, ITRF); //create Earth
+			final Frame FRAME = iniOrbit.getFrame(); //frame of the propagated states
 			//step handler
 			final ArrayList<GeodeticPoint> listOfStates = new ArrayList<>();
 			PatriusFixedStepHandler myStepHandler = new PatriusFixedStepHandler() {
@@ -607,8 +1622,8 @@ public class ObjectGatherer {
 
 					GeodeticPoint geodeticPoint;
 					try {
-						geodeticPoint = EARTH.transform(currentState.getPVCoordinates().getPosition(), ITRF,
-								currentState.getDate()); //latitude (rad), longitude (rad), altitude (m)
+						geodeticPoint = EarthFrames.toGeodetic(currentState.getPVCoordinates().getPosition(), FRAME,
+								currentState.getDate()); //latitude (rad), longitude (rad), altitude (m), shared transforms
 					} catch (PatriusException e) {
 						throw new PropagationException(e);
 					}
@@ -625,6 +1640,67 @@ public class ObjectGatherer {
 			return listOfStates; //latitude(rad), longitude (rad), altitude (m)
 		}
 		
+		/**
+		 * Propagates an orbit numerically once and returns its coordinates at any set of times. The points are 
+		 * interpolated within the integrator's steps, so asking for more times costs no more integration.
+		 * 
+		 * @param iniOrbit Orbit of space object to be propagated
+		 * @param times times after the orbit's date (s), not negative, in any order
+		 * @return coordinates in ITRF at each time, in the order of the times - latitude(rad), longitude (rad), altitude (m)
+		 * @throws PatriusException if the orbit cannot be propagated
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public static List<GeodeticPoint> propagateOrbit(Orbit iniOrbit, double[] times) throws PatriusException {
+			
+			final AbsoluteDate epoch = iniOrbit.getDate();
+			final Frame frame = iniOrbit.getFrame();
+			final GeodeticPoint[] points = new GeodeticPoint[times.length];
+			final int[] order = IntStream.range(0, times.length).boxed()
+					.sorted((k, l) -> Double.compare(times[k], times[l])).mapToInt(Integer::intValue).toArray();
+			
+			//Times at epoch need no integration
+			int next = 0; //next output in time order
+			while (next < order.length && times[order[next]] <= 0) {
+				points[order[next++]] = EarthFrames.toGeodetic(iniOrbit.getPVCoordinates().getPosition(), frame, epoch);
+			}
+			
+			if (next < order.length) {
+				final int first = next;
+				NumericalPropagator propagator = new NumericalPropagator(new ClassicalRungeKuttaIntegrator(100)); //same step as propagateOrbit
+				propagator.resetInitialState(new SpacecraftState(iniOrbit));
+				propagator.setOrbitType(OrbitType.CARTESIAN);
+				
+				//dense output: every output time is interpolated in the step containing it
+				propagator.setMasterMode(new PatriusStepHandler() {
+					
+					private static final long serialVersionUID = 1L;
+					private int k = first; //next output in time order
+					
+					public void init(SpacecraftState s0, AbsoluteDate t) {} //not necessary
+					
+					public void handleStep(PatriusStepInterpolator interpolator, boolean isLast) throws PropagationException {
+						try {
+							double end = interpolator.getCurrentDate().durationFrom(epoch);
+							for (; k < order.length && (times[order[k]] <= end || isLast); k++) {
+								interpolator.setInterpolatedDate(epoch.shiftedBy(times[order[k]]));
+								SpacecraftState state = interpolator.getInterpolatedState();
+								points[order[k]] = EarthFrames.toGeodetic(state.getPVCoordinates().getPosition(), frame, 
+										state.getDate());
+							}
+						} catch (PatriusException e) {
+							throw new PropagationException(e);
+						}
+					}
+				});
+				propagator.propagate(epoch.shiftedBy(times[order[order.length - 1]]));
+			}
+			
+			List<GeodeticPoint> list = new ArrayList<>(times.length);
+			Collections.addAll(list, points);
+			return list;
+		}
+		
 		/** 
 		 * This method maps the points of Patrius to positions of WorldWind to draw the orbits.
 		 * @param points List with Patrius points - latitude (rad), longitude (rad), altitude (m)
@@ -0,0 +1,292 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Moves the displayed markers in real time. The simulation time advances at a fixed rate; on every tick the
+ * positions of the displayed objects are computed in a background batch (split over the cores) and then,
+ * on the event dispatch thread, written to the catalog store and to the display of the objects, which is moved
+ * in place. The positions are interpolated from an {@link EphemerisCache}, so the simulation date can also be
+ * moved freely with {@link #setSimulationDate} or sped up with {@link #setTimeScale}.
+ * <p>
+ * If the previous frame has not been applied yet when a tick starts, the frame is dropped. If a tick lasts longer
+ * than the period, the scheduler runs the missed ticks late, back to back; those start more than a period after
+ * their scheduled time and are dropped too, each counted once. The simulation time keeps advancing at the same
+ * rate. The duration of the last tick
+ * and the number of dropped frames are exposed for monitoring, and recorded in {@link Metrics}.
+ * <p>
+ * The ephemerides are propagated by a {@link BatchPropagator}: SGP4 objects with SGP4 and every other object
+ * with the closed-form solution, since the numerical engine is too slow to run continuously. They are computed
+ * from a copy of the elements taken by {@link #setTargets}, so the background threads never read the store, which
+ * is only written on the event dispatch thread.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class OrbitAnimator {
+
+	/** Default time between two ticks (ms) */
+	public static final long DEFAULT_PERIOD = 100;
+	private static final double LOOK_AHEAD = 10; //real time whose positions are filled in advance (s)
+
+	private final CatalogStore store; //columns of the objects
+	private final long period; //time between two ticks (ms)
+	private final Runnable onFrame; //called on the event dispatch thread after a frame was applied
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "orbit-animator");
+		thread.setDaemon(true); //do not keep the application alive
+		return thread;
+	});
+
+	private volatile Targets target; //objects being animated and their display
+	private volatile double timeScale = 1; //simulated seconds per real second
+	private volatile double simTime; //simulation date (s since J2000)
+	private final AtomicBoolean framePending = new AtomicBoolean(); //a frame waits for the event dispatch thread
+	private final AtomicLong ticks = new AtomicLong(); //ticks run
+	private final AtomicLong droppedFrames = new AtomicLong(); //frames not displayed
+	private volatile long lastTickNanos; //duration of the last tick (ns)
+	private long firstTickNanos; //scheduled start of the first tick (System.nanoTime)
+	private boolean started;
+
+	/**
+	 * Creates an animator, stopped.
+	 *
+	 * @param store store of the animated objects
+	 * @param start simulation date of the first frame
+	 * @param period time between two ticks (ms)
+	 * @param onFrame called on the event dispatch thread after each frame, e.g. to redraw WorldWind
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitAnimator(CatalogStore store, AbsoluteDate start, long period, Runnable onFrame) {
+		this.store = store;
+		this.period = period;
+		this.onFrame = onFrame;
+		simTime = start.durationFrom(AbsoluteDate.J2000_EPOCH);
+	}
+
+	/**
+	 * Display of the animated objects, e.g. the points of a {@link PointCloudLayer}.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public interface Display {
+
+		/**
+		 * Moves the animated objects. Called on the event dispatch thread; the arrays are only valid during the
+		 * call.
+		 *
+		 * @param lat latitude of each animated row (rad)
+		 * @param lon longitude of each animated row (rad)
+		 * @param alt altitude of each animated row (m)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void move(double[] lat, double[] lon, double[] alt);
+	}
+
+	/**
+	 * Sets the objects to be animated and their display; the k-th values given to the display are the position 
+	 * of rows[k]. Replaces the previous objects; a frame computed for them is discarded. Runs on the event 
+	 * dispatch thread, which changes the store: the elements of the rows are copied here, and the animator and
+	 * its prefetches only read the copy.
+	 *
+	 * @param rows rows of the store to be animated
+	 * @param display display of the rows, moved in place
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setTargets(int[] rows, Display display) {
+		target = new Targets(rows, display);
+	}
+
+	/**
+	 * Starts the ticks.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized void start() {
+		if (started) {return;}
+		started = true;
+		firstTickNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(period);
+		scheduler.scheduleAtFixedRate(this::tick, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the ticks for good.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void stop() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Sets the speed of the simulation.
+	 *
+	 * @param scale simulated seconds per real second; 1 for real time, negative to go backwards
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setTimeScale(double scale) {
+		timeScale = scale;
+	}
+
+	/**
+	 * Moves the simulation to a date, e.g. to scrub the view. The next tick starts from this date.
+	 *
+	 * @param date new simulation date
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setSimulationDate(AbsoluteDate date) {
+		simTime = date.durationFrom(AbsoluteDate.J2000_EPOCH);
+	}
+
+	/**
+	 * Returns the date of the last tick.
+	 *
+	 * @return simulation date
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public AbsoluteDate getSimulationDate() {
+		return AbsoluteDate.J2000_EPOCH.shiftedBy(simTime);
+	}
+
+	/**
+	 * Returns the duration of the last tick, from the start of the propagation to the frame being queued.
+	 *
+	 * @return duration (ms)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public double getLastTickMillis() {
+		return lastTickNanos/1e6;
+	}
+
+	/**
+	 * Returns the number of ticks run.
+	 *
+	 * @return number of ticks
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getTickCount() {
+		return ticks.get();
+	}
+
+	/**
+	 * Returns the number of frames that were not displayed because the previous one was still waiting or their
+	 * tick started a period late or more.
+	 *
+	 * @return number of dropped frames
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getDroppedFrames() {
+		return droppedFrames.get();
+	}
+
+	/**
+	 * Advances the simulation time and computes the next frame. Runs on the animator thread.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void tick() {
+
+		simTime += period/1000.0*timeScale;
+		long scheduled = firstTickNanos + ticks.getAndIncrement()*TimeUnit.MILLISECONDS.toNanos(period);
+		Targets frame = target;
+		if (frame == null) {return;}
+		boolean late = System.nanoTime() - scheduled >= TimeUnit.MILLISECONDS.toNanos(period); //missed tick run late
+		if (late || framePending.get()) { //or the event dispatch thread did not apply the previous frame yet
+			droppedFrames.incrementAndGet();
+			Metrics.count("frame.dropped", 1);
+			return;
+		}
+
+		long start = Metrics.start();
+		try {
+			frame.compute(simTime);
+		} catch (PatriusException | RuntimeException e) {
+			e.printStackTrace(); //keep ticking; an exception would cancel the schedule
+			return;
+		}
+		lastTickNanos = System.nanoTime() - start;
+		Metrics.stop(Metrics.Phase.FRAME_COMPUTE, start, frame.rows.length);
+
+		framePending.set(true);
+		SwingUtilities.invokeLater(() -> {
+			if (frame == target) {frame.apply();}
+			framePending.set(false);
+			onFrame.run();
+		});
+	}
+
+	/**
+	 * Objects and display of one animation with the buffers of their next positions.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private class Targets {
+
+		private final int[] rows; //rows of the store
+		private final Display display; //display of the rows
+		private final double[] lat, lon, alt; //next positions, written by the animator, read by the EDT
+		private final EphemerisCache ephemeris; //positions of the rows around the simulation date
+
+		Targets(int[] rows, Display display) {
+			this.rows = rows.clone();
+			this.display = display;
+			lat = new double[rows.length];
+			lon = new double[rows.length];
+			alt = new double[rows.length];
+			ephemeris = new EphemerisCache(store, rows, getSimulationDate());
+		}
+
+		/**
+		 * Interpolates every object at a date and fills the segments the animation will reach next in the 
+		 * background.
+		 *
+		 * @param t date (s since J2000)
+		 * @throws PatriusException if the Earth frame cannot be built or an object cannot be propagated
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void compute(double t) throws PatriusException {
+			ephemeris.positions(t, lat, lon, alt);
+			double lookAhead = Math.max(EphemerisCache.DEFAULT_SEGMENT, Math.abs(timeScale)*LOOK_AHEAD)*Math.signum(timeScale);
+			ephemeris.prefetchAsync(t, t + lookAhead);
+		}
+
+		/**
+		 * Writes the computed positions to the store and moves the display. Runs on the event dispatch thread.
+		 *
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void apply() {
+			long start = Metrics.start();
+			for (int k = 0; k < rows.length; k++) {
+				store.setCurrentPosition(rows[k], lat[k], lon[k], alt[k]);
+			}
+			display.move(lat, lon, alt);
+			Metrics.stop(Metrics.Phase.FRAME_MARKERS, start, rows.length);
+		}
+	}
+}
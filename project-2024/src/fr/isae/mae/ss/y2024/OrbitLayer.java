@@ -0,0 +1,180 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.layers.RenderableLayer;
+import gov.nasa.worldwind.render.Material;
+import gov.nasa.worldwind.render.Path;
+import gov.nasa.worldwind.render.ShapeAttributes;
+
+/**
+ * Single layer of the displayed orbits. Each object has at most one path in the layer; showing an object again
+ * only marks it as the most recently shown, and when more than the maximum number of orbits are shown the least
+ * recently shown ones are removed. The number of paths drawn per frame is thus bounded however long the session.
+ * <p>
+ * Orbits are shown and hidden on the event dispatch thread.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class OrbitLayer extends RenderableLayer {
+
+	/** Default maximum number of orbits displayed at once */
+	public static final int DEFAULT_MAX_ORBITS = 64;
+
+	private final LinkedHashMap<SpaceObject, Path> shown = new LinkedHashMap<>(16, 0.75f, true); //access order
+	private int maxOrbits; //maximum number of orbits displayed at once
+
+	/**
+	 * Creates an empty layer.
+	 *
+	 * @param maxOrbits maximum number of orbits displayed at once
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitLayer(int maxOrbits) {
+		setMaxOrbits(maxOrbits);
+		setName("Orbits");
+	}
+
+	/**
+	 * Shows the orbit of an object, or marks it as the most recently shown if it already is, and hides the least
+	 * recently shown orbits beyond the maximum.
+	 *
+	 * @param obj space object
+	 * @return true if the orbit was not shown yet
+	 * @throws IllegalStateException if the orbit cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public boolean show(SpaceObject obj) {
+
+		if (shown.get(obj) != null) {return false;} //touched
+
+		Path path = obj.getPath();
+		ShapeAttributes attrs = path.getAttributes();
+		attrs.setOutlineMaterial(new Material(obj.getColor())); //same colour as the marker
+		path.setAttributes(attrs);
+		path.setVisible(true);
+		shown.put(obj, path);
+		addRenderable(path);
+		evict();
+		return true;
+	}
+
+	/**
+	 * Hides the orbit of an object.
+	 *
+	 * @param obj space object
+	 * @return true if the orbit was shown
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public boolean hide(SpaceObject obj) {
+
+		Path path = shown.remove(obj);
+		if (path == null) {return false;}
+		path.setVisible(false);
+		removeRenderable(path);
+		return true;
+	}
+
+	/**
+	 * Hides every orbit.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void hideAll() {
+		for (Path path : shown.values()) {
+			path.setVisible(false);
+		}
+		shown.clear();
+		removeAllRenderables();
+	}
+
+	/**
+	 * Tells if the orbit of an object is shown, without marking it as recently shown.
+	 *
+	 * @param obj space object
+	 * @return true if the orbit is shown
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public boolean isShown(SpaceObject obj) {
+		return shown.containsKey(obj);
+	}
+
+	/**
+	 * Returns the objects whose orbit is shown.
+	 *
+	 * @return objects, from the least to the most recently shown
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public List<SpaceObject> getShownObjects() {
+		return new ArrayList<>(shown.keySet());
+	}
+
+	/**
+	 * Returns the number of orbits shown.
+	 *
+	 * @return number of orbits
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return shown.size();
+	}
+
+	/**
+	 * Returns the maximum number of orbits displayed at once.
+	 *
+	 * @return maximum number of orbits
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int getMaxOrbits() {
+		return maxOrbits;
+	}
+
+	/**
+	 * Changes the maximum number of orbits displayed at once, hiding the least recently shown ones beyond it.
+	 *
+	 * @param maxOrbits maximum number of orbits, at least 1
+	 * @throws IllegalArgumentException if the maximum is less than 1
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setMaxOrbits(int maxOrbits) {
+		if (maxOrbits < 1) {throw new IllegalArgumentException("At least one orbit must be displayed: " + maxOrbits);}
+		this.maxOrbits = maxOrbits;
+		evict();
+	}
+
+	/**
+	 * Hides the least recently shown orbits beyond the maximum.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void evict() {
+		Iterator<Map.Entry<SpaceObject, Path>> eldest = shown.entrySet().iterator();
+		while (shown.size() > maxOrbits) {
+			Path path = eldest.next().getValue();
+			eldest.remove();
+			path.setVisible(false);
+			removeRenderable(path);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Orbits (" + shown.size() + "/" + maxOrbits + ")";
+	}
+}
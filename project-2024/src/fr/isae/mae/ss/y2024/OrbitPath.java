@@ -0,0 +1,91 @@
+package fr.isae.mae.ss.y2024;
+
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Vec4;
+import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.render.DrawContext;
+import gov.nasa.worldwind.render.Path;
+
+/**
+ * WorldWind path of an orbit that decimates itself with the zoom. Before each frame the size of a pixel at the
+ * orbit's point nearest to the eye gives the error the path can have without it showing; the path then keeps only
+ * the samples of its {@link OrbitSampler.Samples} ranked above that error. Tolerances are rounded to powers of two
+ * of the sampling tolerance so the positions are only replaced when the zoom changes noticeably.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class OrbitPath extends Path {
+
+	private static final double PIXEL_TOLERANCE = 0.5; //error allowed on screen (px)
+
+	private final OrbitSampler.Samples samples; //every sample of the orbit, ranked
+	private Vec4[] points; //model coordinates of the samples on the last globe
+	private Globe globe; //globe the points were computed on
+	private int level = Integer.MIN_VALUE; //tolerance of the current positions, as a power of two of the sampling one
+
+	/**
+	 * Creates the path of an orbit with every sample.
+	 *
+	 * @param samples ranked samples of the orbit
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitPath(OrbitSampler.Samples samples) {
+		super(samples.positions(0));
+		this.samples = samples;
+	}
+
+	/**
+	 * Returns the samples of the orbit, including the ones skipped at the current zoom.
+	 *
+	 * @return ranked samples
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitSampler.Samples getSamples() {
+		return samples;
+	}
+
+	@Override
+	public void render(DrawContext dc) {
+		if (isVisible()) {decimate(dc);}
+		super.render(dc);
+	}
+
+	/**
+	 * Replaces the positions when the tolerance allowed by the zoom changed level.
+	 *
+	 * @param dc draw context
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void decimate(DrawContext dc) {
+
+		//Samples in model coordinates, once per globe
+		if (dc.getGlobe() != globe) {
+			globe = dc.getGlobe();
+			points = new Vec4[samples.size()];
+			int k = 0;
+			for (Position position : samples.positions(0)) {
+				points[k++] = globe.computePointFromPosition(position);
+			}
+		}
+
+		//Pixel size at the nearest point
+		Vec4 eye = dc.getView().getEyePoint();
+		double nearest = Double.POSITIVE_INFINITY;
+		for (Vec4 point : points) {
+			nearest = Math.min(nearest, point.distanceToSquared3(eye));
+		}
+		double tolerance = PIXEL_TOLERANCE*dc.getView().computePixelSizeAtDistance(Math.sqrt(nearest));
+
+		//Rounded to a power of two of the sampling tolerance; below it every sample is kept
+		int newLevel = tolerance < OrbitSampler.DEFAULT_TOLERANCE ? -1
+				: (int) Math.floor(Math.log(tolerance/OrbitSampler.DEFAULT_TOLERANCE)/Math.log(2));
+		if (newLevel != level) {
+			level = newLevel;
+			setPositions(samples.positions(level < 0 ? 0 : OrbitSampler.DEFAULT_TOLERANCE*Math.pow(2, level)));
+		}
+	}
+}
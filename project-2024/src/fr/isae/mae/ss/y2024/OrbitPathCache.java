@@ -0,0 +1,167 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.render.Path;
+
+/**
+ * Bounded cache of the WorldWind paths of the orbits. Paths are built on first display and kept in least
+ * recently used order; when the estimated memory of the cached paths exceeds the budget, the least recently
+ * used ones are dropped and will be propagated again if they are requested later.
+ * <p>
+ * The memory of a path is estimated from its number of positions. All methods are synchronized so paths can be
+ * requested from the event dispatch thread while a loader adds others.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class OrbitPathCache {
+
+	/** Default memory budget of a cache (64 MB) */
+	public static final long DEFAULT_BUDGET = 64L << 20;
+	private static final long PATH_BYTES = 1024; //estimated memory of a path without its positions
+	private static final long POSITION_BYTES = 128; //estimated memory of one position and its tessellation
+
+	private final long budget; //maximum estimated memory of the cached paths (bytes)
+	private long used; //estimated memory of the cached paths (bytes)
+	private final LinkedHashMap<SpaceObject, Path> paths = new LinkedHashMap<>(16, 0.75f, true); //access order
+	private final Map<SpaceObject, Long> sizes = new LinkedHashMap<>(); //estimated memory of each path
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param budgetBytes maximum estimated memory of the cached paths (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public OrbitPathCache(long budgetBytes) {
+		budget = budgetBytes;
+	}
+
+	/**
+	 * Returns the cached path of an object and marks it as the most recently used.
+	 *
+	 * @param obj space object
+	 * @return path of the object, or null if it is not cached
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized Path get(SpaceObject obj) {
+		return paths.get(obj);
+	}
+
+	/**
+	 * Adds the path of an object and drops the least recently used paths until the cache fits in its budget.
+	 * The path just added is always kept.
+	 *
+	 * @param obj space object
+	 * @param path path of the object's orbit
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized void put(SpaceObject obj, Path path) {
+
+		remove(obj);
+		long size = sizeOf(path);
+		paths.put(obj, path);
+		sizes.put(obj, size);
+		used += size;
+
+		//Evict the least recently used paths
+		Iterator<SpaceObject> eldest = paths.keySet().iterator();
+		while (used > budget && paths.size() > 1) {
+			SpaceObject evicted = eldest.next();
+			if (evicted == obj) {continue;}
+			eldest.remove();
+			used -= sizes.remove(evicted);
+		}
+	}
+
+	/**
+	 * Drops the path of an object.
+	 *
+	 * @param obj space object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized void remove(SpaceObject obj) {
+		if (paths.remove(obj) != null) {
+			used -= sizes.remove(obj);
+		}
+	}
+
+	/**
+	 * Moves every path of another cache into this one, keeping their order of use.
+	 *
+	 * @param other cache whose paths are moved; left empty
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void putAll(OrbitPathCache other) {
+
+		Map<SpaceObject, Path> moved;
+		synchronized (other) {
+			moved = new LinkedHashMap<>(other.paths);
+			other.paths.clear();
+			other.sizes.clear();
+			other.used = 0;
+		}
+		for (Map.Entry<SpaceObject, Path> entry : moved.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Returns the number of cached paths.
+	 *
+	 * @return number of paths
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized int size() {
+		return paths.size();
+	}
+
+	/**
+	 * Returns the estimated memory of the cached paths.
+	 *
+	 * @return estimated memory (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public synchronized long getUsedBytes() {
+		return used;
+	}
+
+	/**
+	 * Returns the memory budget of the cache.
+	 *
+	 * @return maximum estimated memory of the cached paths (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Estimates the memory held by a path.
+	 *
+	 * @param path WorldWind path
+	 * @return estimated memory (bytes)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static long sizeOf(Path path) {
+
+		long count = 0;
+		if (path.getPositions() != null) {
+			for (@SuppressWarnings("unused") Position position : path.getPositions()) {count++;}
+		}
+		return PATH_BYTES + count*POSITION_BYTES;
+	}
+}
@@ -0,0 +1,413 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import gov.nasa.worldwind.geom.Position;
+
+/**
+ * Adaptive sampling of one period of an orbit for display. WorldWind joins the points of an orbit's path along
+ * great circles with a linear altitude, so a sample is only needed where that arc drifts away from the orbit:
+ * the samples start from seeds equally spaced in true anomaly, which packs them around the perigee of eccentric
+ * orbits, and every interval whose midpoint is further than the tolerance from the arc is split. Circular and
+ * geostationary orbits end up with few points while perigee passes get as many as they need.
+ * <p>
+ * Each sample is then ranked by the error its removal would add to the drawn path, removing the least useful
+ * sample first and never ranking a sample below one removed before it. The samples ranked above a coarser
+ * tolerance therefore still form a path within that tolerance: {@link Samples#positions(double)} decimates the
+ * path for zoomed-out views without propagating again.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public final class OrbitSampler {
+
+	/** Default distance allowed between the orbit and its drawn path (m) */
+	public static final double DEFAULT_TOLERANCE = 1000;
+	private static final int SEEDS = 12; //samples equally spaced in true anomaly
+	private static final int MAX_DEPTH = 6; //successive splits of a seed interval
+	private static final int MAX_PARTS = 16; //parts an interval is split into at once
+	private static final double R = Constants.WGS84_EARTH_EQUATORIAL_RADIUS; //radius of the interpolation sphere (m)
+
+	private OrbitSampler() {} //static methods only
+
+	/**
+	 * Position of an orbit some time after its epoch.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public interface Trajectory {
+
+		/**
+		 * Computes a position.
+		 *
+		 * @param dt time since the epoch (s)
+		 * @param geodetic array receiving latitude (rad), longitude (rad), altitude (m)
+		 * @throws PatriusException if the position cannot be computed
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void position(double dt, double[] geodetic) throws PatriusException;
+	}
+
+	/**
+	 * Samples one period of an orbit, from its epoch to one period later.
+	 *
+	 * @param trajectory positions of the orbit
+	 * @param period orbit period (s)
+	 * @param e eccentricity, used to place the seeds
+	 * @param meanAnomaly mean anomaly at epoch (rad), used to place the seeds
+	 * @param tolerance distance allowed between the orbit and its drawn path (m)
+	 * @param grid if positive, samples are only taken at multiples of this time (s), e.g. the steps of a
+	 * propagation already done
+	 * @return ranked samples in time order; the first one is the position at epoch
+	 * @throws PatriusException if a position cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static Samples sample(Trajectory trajectory, double period, double e, double meanAnomaly, double tolerance,
+			double grid) throws PatriusException {
+
+		//Seeds equally spaced in true anomaly, as times since epoch
+		double n = 2*Math.PI/period; //mean motion (rad/s)
+		double[] seeds = new double[SEEDS + 2];
+		for (int k = 0; k < SEEDS; k++) {
+			double nu = 2*Math.PI*k/SEEDS; //true anomaly (rad)
+			double E = 2*Math.atan2(Math.sqrt(1 - e)*Math.sin(nu/2), Math.sqrt(1 + e)*Math.cos(nu/2)); //eccentric anomaly
+			double M = E - e*Math.sin(E); //mean anomaly (rad)
+			double dt = ((M - meanAnomaly)%(2*Math.PI) + 2*Math.PI)%(2*Math.PI)/n; //first time the anomaly is reached
+			seeds[k] = grid > 0 ? Math.min(snap(dt, grid), Math.floor(period/grid)*grid) : dt;
+		}
+		seeds[SEEDS] = 0; //the path starts at epoch...
+		seeds[SEEDS + 1] = grid > 0 ? Math.ceil(period/grid)*grid : period; //...and ends one period later
+		Arrays.sort(seeds);
+
+		//Split each seed interval
+		Samples samples = new Samples(4*SEEDS);
+		double[] a = new double[3];
+		trajectory.position(0, a);
+		samples.add(a);
+		for (int k = 1; k < seeds.length; k++) {
+			if (seeds[k] <= seeds[k - 1]) {continue;} //seeds snapped to the same time
+			double[] b = new double[3];
+			trajectory.position(seeds[k], b);
+			refine(trajectory, seeds[k - 1], a, seeds[k], b, 0, tolerance, grid, samples);
+			samples.add(b);
+			a = b;
+		}
+		samples.rank();
+		return samples;
+	}
+
+	/**
+	 * Adds the samples needed strictly between two samples, in time order. The error of the drawn path grows
+	 * with the square of the time between its points, so an interval whose midpoint is off by more than the
+	 * tolerance is split at once into as many equal parts as that error suggests, each part being checked again.
+	 *
+	 * @param trajectory positions of the orbit
+	 * @param ta time of the first sample (s)
+	 * @param a first sample
+	 * @param tb time of the second sample (s)
+	 * @param b second sample
+	 * @param depth splits done since the seed interval
+	 * @param tolerance distance allowed between the orbit and its drawn path (m)
+	 * @param grid if positive, samples are only taken at multiples of this time (s)
+	 * @param samples samples receiving the new ones
+	 * @throws PatriusException if a position cannot be computed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static void refine(Trajectory trajectory, double ta, double[] a, double tb, double[] b, int depth,
+			double tolerance, double grid, Samples samples) throws PatriusException {
+
+		if (depth >= MAX_DEPTH) {return;}
+		double tm = snap((ta + tb)/2, grid);
+		if (tm <= ta || tm >= tb) {return;} //no grid time left in between
+		double[] m = new double[3];
+		trajectory.position(tm, m);
+		double error = distanceToArc(a, b, m);
+		if (error <= tolerance) {return;}
+
+		//Split into parts expected to be within the tolerance
+		int parts = Math.max(2, Math.min(MAX_PARTS, (int) Math.ceil(Math.sqrt(error/tolerance))));
+		double[] previous = a;
+		double tPrevious = ta;
+		for (int k = 1; k <= parts; k++) {
+			double t = k == parts ? tb : snap(ta + (tb - ta)*k/parts, grid);
+			if (t <= tPrevious) {continue;}
+			double[] p = b;
+			if (k < parts && t == tm) {
+				p = m;
+			} else if (k < parts) {
+				p = new double[3];
+				trajectory.position(t, p);
+			}
+			refine(trajectory, tPrevious, previous, t, p, depth + 1, tolerance, grid, samples);
+			if (k < parts) {samples.add(p);}
+			previous = p;
+			tPrevious = t;
+		}
+	}
+
+	/**
+	 * Computes the distance between a position and the path WorldWind draws between two points: the great circle
+	 * arc joining them, with an altitude linear along the arc.
+	 *
+	 * @param a first point: latitude (rad), longitude (rad), altitude (m)
+	 * @param b second point
+	 * @param m position of the orbit between them
+	 * @return distance (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double distanceToArc(double[] a, double[] b, double[] m) {
+
+		double[] ua = unit(a), ub = unit(b), um = unit(m);
+		double ra = R + a[2], rb = R + b[2], rm = R + m[2];
+
+		//Normal of the arc's plane
+		double nx = ua[1]*ub[2] - ua[2]*ub[1], ny = ua[2]*ub[0] - ua[0]*ub[2], nz = ua[0]*ub[1] - ua[1]*ub[0];
+		double sin = Math.sqrt(nx*nx + ny*ny + nz*nz);
+		double cos = ua[0]*ub[0] + ua[1]*ub[1] + ua[2]*ub[2];
+		if (sin < 1e-12) { //same direction: the arc is a vertical segment; opposite: any great circle
+			return cos > 0 ? distance(rm, um, ra + (rb - ra)/2, ua) : Double.POSITIVE_INFINITY;
+		}
+		nx /= sin;
+		ny /= sin;
+		nz /= sin;
+		double arc = Math.atan2(sin, cos); //angle of the arc (rad)
+
+		//Angle along the arc of the position's projection on the arc's plane
+		double out = um[0]*nx + um[1]*ny + um[2]*nz; //sine of the angle out of the plane
+		double px = um[0] - out*nx, py = um[1] - out*ny, pz = um[2] - out*nz;
+		double tx = ny*ua[2] - nz*ua[1], ty = nz*ua[0] - nx*ua[2], tz = nx*ua[1] - ny*ua[0]; //along the arc at a
+		double along = Math.atan2(px*tx + py*ty + pz*tz, px*ua[0] + py*ua[1] + pz*ua[2]);
+		if (along <= 0) {return distance(rm, um, ra, ua);}
+		if (along >= arc) {return distance(rm, um, rb, ub);}
+
+		//Point of the drawn path at that angle
+		double r = ra + (rb - ra)*along/arc;
+		double c = Math.cos(along), s = Math.sin(along);
+		double[] ud = {c*ua[0] + s*tx, c*ua[1] + s*ty, c*ua[2] + s*tz};
+		return distance(rm, um, r, ud);
+	}
+
+	/**
+	 * Returns the distance between two points given by their radius and direction.
+	 *
+	 * @param r1 radius of the first point (m)
+	 * @param u1 direction of the first point
+	 * @param r2 radius of the second point (m)
+	 * @param u2 direction of the second point
+	 * @return distance (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double distance(double r1, double[] u1, double r2, double[] u2) {
+		double dx = r1*u1[0] - r2*u2[0], dy = r1*u1[1] - r2*u2[1], dz = r1*u1[2] - r2*u2[2];
+		return Math.sqrt(dx*dx + dy*dy + dz*dz);
+	}
+
+	/**
+	 * Returns the direction of a position from the centre of the Earth.
+	 *
+	 * @param p latitude (rad), longitude (rad), altitude (m)
+	 * @return unit vector
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double[] unit(double[] p) {
+		double cosLat = Math.cos(p[0]);
+		return new double[] {cosLat*Math.cos(p[1]), cosLat*Math.sin(p[1]), Math.sin(p[0])};
+	}
+
+	/**
+	 * Rounds a time to the sampling grid.
+	 *
+	 * @param t time (s)
+	 * @param grid grid step (s), or 0 for none
+	 * @return rounded time (s)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static double snap(double t, double grid) {
+		return grid > 0 ? Math.round(t/grid)*grid : t;
+	}
+
+	/**
+	 * Samples of an orbit in time order, each ranked by the error its removal adds to the drawn path.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static final class Samples {
+
+		private double[][] points; //latitude (rad), longitude (rad), altitude (m) of each sample
+		private double[] rank; //error added by removing each sample (m); infinite for the ends
+		private int size;
+
+		/**
+		 * Creates empty samples.
+		 *
+		 * @param capacity initial capacity
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		Samples(int capacity) {
+			points = new double[Math.max(capacity, 2)][];
+		}
+
+		/**
+		 * Creates ranked samples from the points of a path, e.g. read back from a snapshot.
+		 *
+		 * @param positions points of the path
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		Samples(List<Position> positions) {
+			this(positions.size());
+			for (Position p : positions) {
+				add(new double[] {p.getLatitude().radians, p.getLongitude().radians, p.getAltitude()});
+			}
+			rank();
+		}
+
+		/**
+		 * Creates samples already ranked, e.g. read back from an {@link EphemerisDiskCache}.
+		 *
+		 * @param points latitude (rad), longitude (rad), altitude (m) of each sample
+		 * @param rank rank of each sample (m)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		Samples(double[][] points, double[] rank) {
+			this.points = points;
+			this.rank = rank;
+			size = points.length;
+		}
+
+		/**
+		 * Appends a sample.
+		 *
+		 * @param p latitude (rad), longitude (rad), altitude (m)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void add(double[] p) {
+			if (size == points.length) {points = Arrays.copyOf(points, 2*size);}
+			points[size++] = p;
+		}
+
+		/**
+		 * Ranks the samples: the sample whose removal adds the least error to the path joining its current
+		 * neighbours is removed first, its neighbours are ranked again, and so on. A sample is never ranked
+		 * below a sample removed before it.
+		 *
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		void rank() {
+
+			rank = new double[size];
+			int[] previous = new int[size], next = new int[size];
+			double[] error = new double[size];
+			for (int k = 0; k < size; k++) {
+				previous[k] = k - 1;
+				next[k] = k + 1;
+				error[k] = k == 0 || k == size - 1 ? Double.POSITIVE_INFINITY
+						: distanceToArc(points[k - 1], points[k + 1], points[k]);
+			}
+			rank[0] = Double.POSITIVE_INFINITY;
+			rank[size - 1] = Double.POSITIVE_INFINITY;
+
+			//Remove the inner samples one by one; paths are a few hundred points
+			boolean[] removed = new boolean[size];
+			double floor = 0; //rank of the last removed sample
+			for (int left = size - 2; left > 0; left--) {
+				int min = -1;
+				for (int k = 1; k < size - 1; k++) {
+					if (!removed[k] && (min < 0 || error[k] < error[min])) {min = k;}
+				}
+				floor = Math.max(floor, error[min]);
+				rank[min] = floor;
+				removed[min] = true;
+				int p = previous[min], q = next[min];
+				next[p] = q;
+				previous[q] = p;
+				if (p > 0) {error[p] = distanceToArc(points[previous[p]], points[q], points[p]);}
+				if (q < size - 1) {error[q] = distanceToArc(points[p], points[next[q]], points[q]);}
+			}
+		}
+
+		/**
+		 * Returns the number of samples.
+		 *
+		 * @return number of samples
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Returns a sample.
+		 *
+		 * @param k index of the sample, in time order
+		 * @return latitude (rad), longitude (rad), altitude (m)
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		double[] point(int k) {
+			return points[k];
+		}
+
+		/**
+		 * Returns the rank of a sample.
+		 *
+		 * @param k index of the sample, in time order
+		 * @return error added by removing the sample (m); infinite for the ends
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		double rank(int k) {
+			return rank[k];
+		}
+
+		/**
+		 * Returns the number of samples kept for a tolerance.
+		 *
+		 * @param tolerance distance allowed between the orbit and its drawn path (m)
+		 * @return number of samples ranked above the tolerance
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public int count(double tolerance) {
+			int count = 0;
+			for (int k = 0; k < size; k++) {
+				if (rank[k] > tolerance) {count++;}
+			}
+			return count;
+		}
+
+		/**
+		 * Returns the points of the path for a tolerance; samples ranked below it are skipped.
+		 *
+		 * @param tolerance distance allowed between the orbit and its drawn path (m); 0 for every sample
+		 * @return WorldWind positions in time order
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		public List<Position> positions(double tolerance) {
+			List<Position> positions = new ArrayList<>(count(tolerance));
+			for (int k = 0; k < size; k++) {
+				if (rank[k] > tolerance) {positions.add(Position.fromRadians(points[k][0], points[k][1], points[k][2]));}
+			}
+			return positions;
+		}
+	}
+}
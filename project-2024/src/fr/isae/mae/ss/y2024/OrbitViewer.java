@@ -7,30 +7,38 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
 
-import fr.cnes.sirius.patrius.utils.Constants;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
 import gov.nasa.worldwind.WorldWind;
 import gov.nasa.worldwind.geom.Position;
-import gov.nasa.worldwind.layers.Layer;
 import gov.nasa.worldwind.layers.LayerList;
-import gov.nasa.worldwind.layers.MarkerLayer;
 import gov.nasa.worldwind.layers.RenderableLayer;
 import gov.nasa.worldwind.render.Material;
 import gov.nasa.worldwind.render.PointPlacemark;
 import gov.nasa.worldwind.render.PointPlacemarkAttributes;
-import gov.nasa.worldwind.render.ShapeAttributes;
-import gov.nasa.worldwind.render.markers.BasicMarker;
-import gov.nasa.worldwind.render.markers.BasicMarkerAttributes;
-import gov.nasa.worldwind.render.markers.Marker;
-import gov.nasa.worldwind.render.markers.MarkerAttributes;
 import gov.nasa.worldwindx.examples.ApplicationTemplate;
 
 /**
@@ -59,10 +67,37 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 	    private final List<SpaceObject> starlink = new ArrayList<>();
 	    private final List<SpaceObject> iridium = new ArrayList<>();
 	    private List<SpaceObject> activeFilter;
+	    private SpatialGrid activeGrid; //index of the positions of the active filter
+	    private final Map<List<SpaceObject>, SpatialGrid> grids = new IdentityHashMap<>(); //index of each filter
+	    private GeodeticIndex activeRegions; //ground index of the positions of the active filter
+	    private final Map<List<SpaceObject>, GeodeticIndex> regions = new IdentityHashMap<>(); //ground index of each filter
+	    private Position regionCenter; //ground point whose footprint is highlighted, null if none
+	    private CatalogStore catalog; //columns of all space objects
+	    private ObjectGatherer orbitsData; //loaded catalog, refreshed in place
+	    private MarkerLayerCache markerLayers; //marker layer of each object type, built once
+	    private final OrbitLayer orbitLayer = new OrbitLayer(OrbitLayer.DEFAULT_MAX_ORBITS); //orbits displayed by the contact checks
+	    private final JButton refreshButton = new JButton("Refresh catalog"); //reads the 3LE file again
+	    private final JProgressBar loadProgress = new JProgressBar(); //objects loaded so far
+	    private final JButton cancelButton = new JButton("Cancel loading"); //stops the load after the current batch
+	    private final AtomicBoolean loadCancelled = new AtomicBoolean(); //set by the cancel button
+	    private static final int LOAD_BATCH = 2048; //objects added to the display at once while loading
+	    private final ExecutorService layerBuilder = Executors.newSingleThreadExecutor(r -> {
+	    	Thread thread = new Thread(r, "marker-layer-builder");
+	    	thread.setDaemon(true); //does not keep the application alive
+	    	return thread;
+	    }); //builds the marker layers of a new selection
+	    private Future<?> pendingDisplay; //build of the latest selection, null if none
+	    private int displayRequest; //number of the latest selection
+	    private static final double CONTACT_RADIUS = 100000; //distance under which an orbit is displayed (m)
+	    private static final double FOOTPRINT_RADIUS = 1000000; //ground distance under which an object is highlighted (m)
+	    private OrbitAnimator animator; //moves the displayed markers
+	    private int[] animatedRows = new int[0]; //rows moved by the animator on each frame
+	    private final JLabel animationStats = new JLabel(); //tick duration and dropped frames
+	    private final JLabel hoveredObject = new JLabel(" "); //name of the object under the mouse
+	    private static final double HOVER_RADIUS = 6; //distance from the cursor under which a marker is hovered (px)
 	    //TODO add gps; add TBD
 	    
 	    final private LayerList layers = getWwd().getModel().getLayers(); //layer list to add markers
-	    private Layer currentLayer; //current layer being displayed
 
 		/**
 		 * Initialise application.
@@ -71,16 +106,34 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 			super(false,false,false); //toggle some visual controls (status bar, layer panel, status panel)
 			getWwd().setView(new FullOrbitView()); //make objects appear all around Earth
 			
-			//Get space objects' information
-			final ObjectGatherer orbitsData = new ObjectGatherer("3le.txt");
-			allObjects = orbitsData.allObjects; //all space objects
-			sortObjects(allObjects); //sort the elements into the filter layers
+			//Empty catalog, loaded in the background once the globe is up
+			orbitsData = new ObjectGatherer(Runtime.getRuntime().availableProcessors(), 
+					PropagationMode.ANALYTIC); //one worker per core
+			allObjects = orbitsData.allObjects; //all space objects, patched by each loaded batch
+			catalog = orbitsData.store; //columns used by the contact checks
+			markerLayers = new MarkerLayerCache(layers, allObjects); //markers are created on first display
+			layers.add(orbitLayer);
 			
 			//Add the combo box
 	        addComboBox();
 	        
+	        //Move the displayed markers in real time from the date of the current positions
+	        animator = new OrbitAnimator(catalog, orbitsData.currentDate, OrbitAnimator.DEFAULT_PERIOD, () -> {
+	        	if (activeGrid != null) {activeGrid.update(animatedRows);} //only the animated rows moved
+	        	if (regionCenter != null && activeRegions != null) {activeRegions.rebuild();} //once per frame
+	        	highlightFootprint(); //the objects moved in and out of it
+	        	getWwd().redraw();
+	        	animationStats.setText(String.format("tick %.1f ms, %d dropped frames", 
+	        			animator.getLastTickMillis(), animator.getDroppedFrames()));
+	        });
+	        animator.start();
+	        
 	        //Create and move mouse pointer
 	        spawnMouse();
+	        trackCursor();
+	        
+	        //Stream the objects in; reuse the snapshot of an unchanged file
+	        loadCatalog("3le.txt");
 		}
 		
 		//TODO finish comments
@@ -139,10 +192,9 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 	        comboBoxPanel.setLayout(new FlowLayout(FlowLayout.LEFT)); // Align it to the left
 
 	        // Create a combo box with options
-	        String[] options = {"Satellites", "Debris", "Rocket Bodies", "OneWeb", "Beidou", "Iridium", "Starlink"};
+	        String[] options = {"Satellites", "Debris", "Rocket Bodies", "OneWeb", "Beidou", "Iridium", "Starlink", "All"};
 	        final JComboBox<String> comboBox = new JComboBox<>(options);
 	        
-	        //TODO add option to display all objects
 	        comboBox.addActionListener(new ActionListener() {
 	            @Override
 	            public void actionPerformed(ActionEvent e) {
@@ -150,43 +202,28 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 
 	                switch (selectedOption) {
 	                    case "Satellites":
-	                    	 if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                         currentLayer = displayObjects(satellites);
-	                         activeFilter = satellites;
+	                    	displayObjects(satellites, "SATELLITE", "ONEWEB", "BEIDOU", "IRIDIUM", "STARLINK");
 	                        break;
 	                    case "Debris":
-	                    	if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                    	currentLayer = displayObjects(debris);
-	                    	activeFilter = debris;
+	                    	displayObjects(debris, "DEBRIS");
 	                        break;
 	                    case "Rocket Bodies":
-	                    	if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                    	currentLayer = displayObjects(rocketBodies);
-	                    	activeFilter = rocketBodies;
+	                    	displayObjects(rocketBodies, "ROCKET_BODY");
 	                        break;
 	                    case "OneWeb":
-	                    	if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                    	currentLayer = displayObjects(oneweb);
-	                    	activeFilter = oneweb;
+	                    	displayObjects(oneweb, "ONEWEB");
 	                        break;
 	                    case "Iridium":
-	                    	if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                    	currentLayer = displayObjects(iridium);
-	                    	activeFilter = iridium;
+	                    	displayObjects(iridium, "IRIDIUM");
 	                        break;
 	                    case "Beidou":
-	                    	if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                    	currentLayer = displayObjects(beidou);
-	                    	activeFilter = beidou;
+	                    	displayObjects(beidou, "BEIDOU");
 	                        break;
 	                    case "Starlink":
-	                    	if (currentLayer != null) {getWwd().getModel().getLayers().remove(currentLayer);}
-	                    	currentLayer = displayObjects(starlink);
-	                    	activeFilter = starlink;
+	                    	displayObjects(starlink, "STARLINK");
 	                        break;
 	                    case "All":
-	                    	displayObjects(allObjects);
-	                    	activeFilter = allObjects;
+	                    	displayObjects(allObjects, MarkerLayerCache.TYPES.toArray(new String[0]));
 	                        break;
 	                }
 	            }
@@ -196,6 +233,17 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 	        // Add the combo box to the panel
 	        comboBoxPanel.add(new JLabel("Select an option:")); // Add a label
 	        comboBoxPanel.add(comboBox);
+	        comboBoxPanel.add(animationStats);
+	        comboBoxPanel.add(hoveredObject);
+	        refreshButton.addActionListener(e -> refreshCatalog("3le.txt"));
+	        comboBoxPanel.add(refreshButton);
+	        loadProgress.setStringPainted(true);
+	        comboBoxPanel.add(loadProgress);
+	        cancelButton.addActionListener(e -> {
+	        	loadCancelled.set(true);
+	        	cancelButton.setEnabled(false);
+	        });
+	        comboBoxPanel.add(cancelButton);
 
 	        // Add the panel to the frame
 	        this.getContentPane().add(comboBoxPanel, BorderLayout.NORTH);
@@ -203,7 +251,8 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 		
 	    /**
 	     * Creates and moves mouse pointer. Space and shift keys increase and decrease the altitude, respectively,
-	     * arrow keys increase or decrease longitude and latitude
+	     * arrow keys increase or decrease longitude and latitude, and the R key toggles the highlight of the
+	     * objects over the ground around the pointer
 	     * @since 10/01/2025
 	     * @author joaom
 	     */
@@ -265,96 +314,297 @@ public static class AppFrame extends ApplicationTemplate.AppFrame {
 	                        e.consume(); //prevent default action
 	                        changed = true; //flag changed
 	                        break;
+	                    case KeyEvent.VK_R: //R toggles the footprint highlight
+	                    	regionCenter = regionCenter == null ? dot.getPosition() : null;
+	                        e.consume(); //prevent default action
+	                        changed = true; //flag changed
+	                        break;
 	                }
 
 	                //Update the position of the dot and WorldWind if changes were detected
 	                if (changed) {
 	                	dot.setPosition(Position.fromDegrees(latitude, longitude, altitude));
-	                	checkContact(dot, activeFilter);
+	                	if (regionCenter != null) {regionCenter = dot.getPosition();}
+	                	checkContact(dot);
+	                	highlightFootprint();
 		                getWwd().redraw();
 	                }
 	            }
 	        });
 		}
 		
-		private void checkContact(PointPlacemark dot, List<SpaceObject> spaceObjects) {
+		/**
+		 * Shows the name of the object under the cursor and displays its orbit when it is clicked. The object is
+		 * looked up in the screen positions of the last frame, which is cheap enough for every mouse move.
+		 * 
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void trackCursor() {
+			
+			MouseAdapter cursor = new MouseAdapter() {
+				@Override
+				public void mouseMoved(MouseEvent e) {
+					SpaceObject obj = markerLayers.objectAt(e.getX(), e.getY(), HOVER_RADIUS);
+					hoveredObject.setText(obj == null ? " " : obj.getName());
+				}
+				
+				@Override
+				public void mouseClicked(MouseEvent e) {
+					SpaceObject obj = markerLayers.objectAt(e.getX(), e.getY(), HOVER_RADIUS);
+					if (obj != null && orbitLayer.show(obj)) {getWwd().redraw();}
+				}
+			};
+			getWwd().getInputHandler().addMouseMotionListener(cursor);
+			getWwd().getInputHandler().addMouseListener(cursor);
+		}
+		
+		/**
+		 * Displays the orbit of every object of the active filter within 100 km of the mouse dot. Only the 
+		 * objects in the cells of the filter's spatial grid around the dot are tested. The orbits go to the orbit 
+		 * layer, which keeps only the most recently found ones.
+		 * 
+		 * @param dot mouse dot
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void checkContact(PointPlacemark dot) {
 			
 			//Dot position
+			long start = Metrics.start();
 			double dotLat = Math.toRadians(dot.getPosition().getLatitude().degrees); //latitude (rad)
 		    double dotLon = Math.toRadians(dot.getPosition().getLongitude().degrees); //longitude (rad)
 		    double dotAlt = dot.getPosition().getAltitude(); //altitude (m)
 		    //Convert dot's position to Cartesian coordinates
-		    double dotX = (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + dotAlt) * Math.cos(dotLat) * Math.cos(dotLon); //x (m)
-		    double dotY = (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + dotAlt) * Math.cos(dotLat) * Math.sin(dotLon); //y (m)
-		    double dotZ = (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + dotAlt) * Math.sin(dotLat); //z (m)
+		    double[] dotXYZ = CatalogStore.toCartesian(dotLat, dotLon, dotAlt); //x, y, z (m)
 			
-			if(spaceObjects != null) {
-				for(SpaceObject obj : spaceObjects) {
-					
-					//Convert marker's position to Cartesian coordinates
-					double markerX = (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + obj.getCurrentAlt()) * Math.cos(obj.getCurrentLat()) * Math.cos(obj.getCurrentLon());
-					double markerY = (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + obj.getCurrentAlt()) * Math.cos(obj.getCurrentLat()) * Math.sin(obj.getCurrentLon());
-					double markerZ = (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + obj.getCurrentAlt()) * Math.sin(obj.getCurrentLat());
-					
-				    //Compute the distance between dot and marker
-			        double distance = Math.sqrt(
-			            Math.pow(dotX - markerX, 2) +
-			            Math.pow(dotY - markerY, 2) +
-			            Math.pow(dotZ - markerZ, 2)
-			        );
-					
-					if(distance <= 100000) {
-						displayOrbit(obj);
-					}
-				}
-			}
+		    int[] found = activeGrid == null ? new int[0] : activeGrid.withinDistance(dotXYZ[0], dotXYZ[1], dotXYZ[2], CONTACT_RADIUS);
+		    Metrics.stop(Metrics.Phase.CONTACT_QUERY, start, found.length);
+		    for (int id : found) {
+		    	orbitLayer.show(catalog.get(id)); //no duplicates, oldest orbits dropped
+		    }
 		}
 		
-		private void displayOrbit(SpaceObject obj) {
+		/**
+		 * Highlights the objects of the active filter whose ground point is within FOOTPRINT_RADIUS of the 
+		 * region centre, or removes the highlight if there is no centre. Only the objects in the cells of the 
+		 * filter's ground index around the centre are tested.
+		 * 
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void highlightFootprint() {
 			
-			final RenderableLayer orbitsLayer = new RenderableLayer(); //layer for all orbits
-			obj.getPath().setVisible(true);	
-			ShapeAttributes attrs = obj.getPath().getActiveAttributes();
-			attrs.setOutlineMaterial(new Material(obj.getColor()));
-			obj.getPath().setAttributes(attrs);
-			obj.getPath().getActiveAttributes().setOutlineMaterial(new Material(obj.getColor())); //change colour to be the same as marker
-			orbitsLayer.addRenderable(obj.getPath()); //render orbits in respective layer
-			layers.add(orbitsLayer); //add layer to worldwind
+			int[] found = new int[0];
+			if (regionCenter != null && activeRegions != null) {
+				found = activeRegions.withinGroundDistance(regionCenter.getLatitude().radians, 
+						regionCenter.getLongitude().radians, FOOTPRINT_RADIUS, Double.NEGATIVE_INFINITY, 
+						Double.POSITIVE_INFINITY);
+			}
+			List<SpaceObject> objects = new ArrayList<>(found.length);
+			for (int id : found) {
+				objects.add(catalog.get(id));
+			}
+			markerLayers.highlight(objects);
 		}
 		
 		/**
-		 * Function to display desired space objects on world wind as markers.
-		 * @param spaceObjects Space Objects to be drawn on WorldWind as markers.
-		 * @return Layer marker layer added
-		 * @since 10/01/2025
+		 * Sets the filter used by the contact checks and the footprint highlight. The spatial grid and ground 
+		 * index of each filter are built the first time the filter is selected and kept up to date with the 
+		 * positions afterwards: the grid of the active filter moves the animated rows to their new cells after 
+		 * each frame, so a contact check never rebuilds it.
+		 * 
+		 * @param filter space objects of the selected filter
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void setActiveFilter(List<SpaceObject> filter) {
+			activeFilter = filter;
+			activeGrid = grids.computeIfAbsent(filter, f -> new SpatialGrid(catalog, catalog.ids(f), CONTACT_RADIUS));
+			activeRegions = regions.computeIfAbsent(filter, f -> new GeodeticIndex(catalog, catalog.ids(f), FOOTPRINT_RADIUS));
+		}
+		
+		/**
+		 * Loads the catalog on a background thread while the globe is usable. The objects are built in batches; 
+		 * each batch is applied on the event dispatch thread as a refresh adding its objects, so they are sorted 
+		 * into the filters and appear in the displayed marker layers as soon as they are propagated. The progress 
+		 * bar follows the objects loaded and the cancel button stops the load after the current batch, keeping the 
+		 * objects already loaded. The ephemeris cache of the file is opened first, so the orbit paths of the 
+		 * previous runs are reused. The snapshot is saved once everything is loaded.
+		 * 
+		 * @param fileName name of the 3LE file
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void loadCatalog(String fileName) {
+			refreshButton.setEnabled(false); //refreshes need the whole catalog
+			loadProgress.setString("Loading " + fileName);
+			CompletableFuture.supplyAsync(() -> {
+				ObjectGatherer.openEphemerisCache(fileName); //maps a file, kept off the event dispatch thread
+				try {
+					return orbitsData.load(fileName, true, LOAD_BATCH, (batch, loaded, total) -> 
+						SwingUtilities.invokeLater(() -> {
+							applyCatalogRefresh(batch);
+							loadProgress.setMaximum(total);
+							loadProgress.setValue(loaded);
+							loadProgress.setString(loaded + " / " + total + " objects");
+						}), loadCancelled::get);
+				} catch (PatriusException e) {
+					throw new IllegalStateException(e);
+				}
+			}).whenComplete((complete, failure) -> SwingUtilities.invokeLater(() -> { //after every batch
+				if (failure != null) {
+					failure.printStackTrace();
+					loadProgress.setString("Loading failed after " + catalog.size() + " objects");
+				} else if (complete) {
+					orbitsData.saveSnapshot(fileName);
+					loadProgress.setString(catalog.size() + " objects");
+				} else {
+					loadProgress.setString("Cancelled, " + catalog.size() + " objects");
+				}
+				if (activeFilter != null) {animateShownObjects();} //the objects of the last batches too
+				cancelButton.setEnabled(false);
+				refreshButton.setEnabled(true);
+			}));
+		}
+		
+		/**
+		 * Reads a newer copy of the 3LE file and patches the catalog and the display with the objects that were
+		 * added, changed or removed. The new and changed objects are built on a background thread; the catalog,
+		 * the filter lists and the displayed markers are then patched on the event dispatch thread.
+		 * 
+		 * @param fileName name of the 3LE file
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void refreshCatalog(String fileName) {
+			refreshButton.setEnabled(false);
+			CompletableFuture.supplyAsync(() -> {
+				try {
+					return orbitsData.prepareRefresh(fileName);
+				} catch (PatriusException e) {
+					throw new IllegalStateException(e);
+				}
+			}).whenComplete((refresh, failure) -> SwingUtilities.invokeLater(() -> {
+				if (failure != null) {
+					failure.printStackTrace();
+				} else if (!refresh.isEmpty()) {
+					applyCatalogRefresh(refresh);
+				}
+				refreshButton.setEnabled(true);
+			}));
+		}
+		
+		/**
+		 * Applies a refresh to the catalog and patches the display: the changed and removed objects leave the 
+		 * filter lists, the changed and new ones are sorted into them again, and the cached marker layers of the 
+		 * types that changed set their points again. allObjects is patched by the catalog itself. When rows moved, 
+		 * the spatial grids and ground indexes are dropped, the ones of the active filter are built again and the 
+		 * animator takes the shown objects again.
+		 * <p>
+		 * A refresh that only adds objects, such as a load batch, moves no row: the new objects are appended to 
+		 * the filter lists, the indexes and the marker layers, so a load costs the event dispatch thread about as 
+		 * much as the objects it adds. The animator takes the shown objects again each time their number doubled, 
+		 * and once the load is over.
+		 * 
+		 * @param refresh difference prepared against the catalog
+		 * @since 17/10/2026
 		 * @author joaom
 		 */
-		private Layer displayObjects(List<SpaceObject> spaceObjects) {
+		private void applyCatalogRefresh(CatalogRefresh refresh) {
 			
-			System.out.println("Displaying " +  spaceObjects.size() + " objects.");
-			final List<Marker> markers = new ArrayList<>(spaceObjects.size()); //list to store the markers
+			orbitsData.applyRefresh(refresh);
+			boolean rowsMoved = !refresh.getChanged().isEmpty() || !refresh.getRemoved().isEmpty();
 			
-			//Create a marker for each object
-			for (int k = 0; k < spaceObjects.size(); k++) {
-				
-				//Set marker's attributes
-				MarkerAttributes attrs = new BasicMarkerAttributes();
-				attrs.setMaterial(new Material(spaceObjects.get(k).getColor())); //colour
-				attrs.setMarkerPixels(2d); //size
-				
-				//Create marker
-				markers.add(new BasicMarker(Position.fromRadians(spaceObjects.get(k).getCurrentLat(), spaceObjects.get(k).getCurrentLon(), 
-						                                         spaceObjects.get(k).getCurrentAlt()), attrs)); //create marker at starting position for object k
+			//Patch the filter lists
+			if (rowsMoved) {
+				Set<SpaceObject> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+				dropped.addAll(refresh.getChanged());
+				dropped.addAll(refresh.getRemoved());
+				for (List<SpaceObject> filter : Arrays.asList(satellites, debris, rocketBodies, oneweb, beidou, starlink, iridium)) {
+					filter.removeIf(dropped::contains);
+				}
+				sortObjects(refresh.getChanged()); //their type may have changed with their name
+				for (SpaceObject obj : dropped) {
+					orbitLayer.hide(obj); //their path is outdated or gone
+				}
 			}
+			sortObjects(refresh.getAdded());
 			
-			final MarkerLayer markerLayer = new MarkerLayer(); //marker layer
-			markerLayer.setMarkers(markers); //add markers to layer
-			layers.add(markerLayer); //add layer to worldwind
+			//Patch the indexes
+			if (rowsMoved) {
+				grids.clear();
+				regions.clear();
+				if (activeFilter != null) {setActiveFilter(activeFilter);}
+			} else { //the new objects are at the end of their filters
+				for (Map.Entry<List<SpaceObject>, SpatialGrid> entry : grids.entrySet()) {
+					List<SpaceObject> filter = entry.getKey();
+					entry.getValue().add(catalog.ids(filter.subList(entry.getValue().size(), filter.size())));
+				}
+				for (Map.Entry<List<SpaceObject>, GeodeticIndex> entry : regions.entrySet()) {
+					List<SpaceObject> filter = entry.getKey();
+					entry.getValue().add(catalog.ids(filter.subList(entry.getValue().size(), filter.size())));
+				}
+			}
 			
-			//Temporary - code to display orbits
-			//TODO Create button to toggle the orbits - similar process to combobox - do it outside of this function obviously
+			//Patch the marker layers
+			markerLayers.applyRefresh(refresh);
+			if (activeFilter != null && (rowsMoved || markerLayers.getShownCount() >= 2*animatedRows.length)) {
+				animateShownObjects();
+			}
+			getWwd().redraw();
+		}
+		
+		/**
+		 * Makes the animator move the objects of the shown marker layers, from their current rows.
+		 * 
+		 * @since 17/10/2026
+		 * @author joaom
+		 */
+		private void animateShownObjects() {
+			animatedRows = catalog.ids(markerLayers.getShownObjects());
+			animator.setTargets(animatedRows, markerLayers.getShownDisplay());
+		}
+		
+		/**
+		 * Function to display desired space objects on world wind as markers. The marker layers of the filter's 
+		 * types that were never displayed are built on the layer builder thread; the build of a previous 
+		 * selection still running is cancelled. Once built, the layers are added and the filter's types enabled, 
+		 * the other layers disabled, in one task on the event dispatch thread, and only if no newer selection was 
+		 * made meanwhile.
+		 * @param filter Space Objects of the filter, used by the contact checks
+		 * @param types types of the objects of the filter
+		 * @since 10/01/2025
+		 * @author joaom
+		 */
+		private void displayObjects(List<SpaceObject> filter, String... types) {
 			
-			return markerLayer;
+			int request = ++displayRequest;
+			if (pendingDisplay != null) {pendingDisplay.cancel(true);} //superseded
+			MarkerLayerCache.Build build = markerLayers.prepare(Arrays.asList(types));
+			pendingDisplay = layerBuilder.submit(() -> {
+				try {
+					build.run();
+				} catch (CancellationException e) {
+					return; //a newer selection was made
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+					return;
+				}
+				SwingUtilities.invokeLater(() -> {
+					if (request != displayRequest) {return;} //a newer selection was made
+					pendingDisplay = null;
+					markerLayers.install(build); //swap the layers in
+					animateShownObjects(); //move these markers from now on
+					setActiveFilter(filter);
+					highlightFootprint();
+					
+					//Temporary - code to display orbits
+					//TODO Create button to toggle the orbits - similar process to combobox - do it outside of this function obviously
+					
+					getWwd().redraw();
+				});
+			});
 		}
 	}
 }
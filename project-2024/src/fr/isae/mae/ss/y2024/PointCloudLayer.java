@@ -0,0 +1,453 @@
+package fr.isae.mae.ss.y2024;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2;
+import com.jogamp.opengl.GLContext;
+import com.jogamp.opengl.fixedfunc.GLPointerFunc;
+
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+import gov.nasa.worldwind.geom.Angle;
+import gov.nasa.worldwind.geom.Matrix;
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Vec4;
+import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.layers.AbstractLayer;
+import gov.nasa.worldwind.pick.PickedObject;
+import gov.nasa.worldwind.render.DrawContext;
+import gov.nasa.worldwind.util.OGLStackHandler;
+
+/**
+ * Layer drawing a set of space objects as points of a few pixels, all in one draw call. The position and colour
+ * of every point are interleaved in a single vertex buffer; when positions change, only the changed points are
+ * converted to model coordinates and uploaded, in contiguous runs, on the next frame.
+ * <p>
+ * Picking draws the same buffer with a range of unique pick colours, one per point, and reads back the colour
+ * under the pick point: the picked object is the space object of that point and its index is stored under
+ * {@link #INDEX}.
+ * <p>
+ * Every frame the drawn points are also projected to the screen and put in a {@link ScreenGrid}, so the point
+ * under the mouse is found by {@link #pointAt(double, double, double)} without drawing anything; the markers can
+ * then be left out of WorldWind's pick pass with setPickEnabled(false).
+ * <p>
+ * Only OpenGL 1.5 fixed-function calls are used (vertex buffer objects, client arrays and GL_POINTS), so the
+ * layer also runs under software renderers such as Mesa llvmpipe, e.g. with LIBGL_ALWAYS_SOFTWARE=1 under
+ * xvfb-run on a headless Linux box.
+ * <p>
+ * Points are set and moved on the event dispatch thread, which is also the thread WorldWind renders on.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class PointCloudLayer extends AbstractLayer {
+
+	/** Key of the index of the picked point in the value list of a {@link PickedObject}. */
+	public static final String INDEX = "fr.isae.mae.ss.y2024.PointCloudLayer.Index";
+
+	private static final int STRIDE = 16; //bytes per point: x, y, z as floats, then r, g, b, a
+	private static final int COLOR_OFFSET = 12; //offset of the colour in a point (bytes)
+	private static final float PICK_POINT_SIZE = 5; //minimum size of the points when picking (px)
+	private static final double SCREEN_CELL = 8; //edge of a cell of the screen grid (px)
+
+	private final OGLStackHandler stack = new OGLStackHandler();
+	private List<SpaceObject> objects = Collections.emptyList(); //object of each point
+	private double[] lat = new double[0], lon = new double[0], alt = new double[0]; //position of each point (rad, m)
+	private ByteBuffer vertices = ByteBuffer.allocateDirect(0); //interleaved positions and colours
+	private ByteBuffer pickColors = ByteBuffer.allocateDirect(0); //pick colour of each point, r, g, b
+	private final BitSet dirty = new BitSet(); //points whose position or colour changed since the last upload
+	private final ScreenGrid screen = new ScreenGrid(SCREEN_CELL); //screen positions of the last frame's points
+	private float pointSize = 2; //size of the points (px)
+
+	private int vbo; //vertex buffer object, 0 until first drawn
+	private int vboCapacity; //points the vertex buffer was allocated for
+	private GLContext vboContext; //context the vertex buffer belongs to
+	private Globe globe; //globe the positions were converted with
+	private double exaggeration = Double.NaN; //vertical exaggeration the positions were converted with
+
+	/**
+	 * Sets the points: one per object, at its current position and with its colour. The whole buffer is uploaded
+	 * on the next frame.
+	 *
+	 * @param spaceObjects objects to be drawn
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setPoints(List<SpaceObject> spaceObjects) {
+
+		int n = spaceObjects.size();
+		double[] latitudes = new double[n], longitudes = new double[n], altitudes = new double[n];
+		Color[] colors = new Color[n];
+		for (int k = 0; k < n; k++) {
+			SpaceObject obj = spaceObjects.get(k);
+			latitudes[k] = obj.getCurrentLat();
+			longitudes[k] = obj.getCurrentLon();
+			altitudes[k] = obj.getCurrentAlt();
+			colors[k] = obj.getColor();
+		}
+		setPoints(spaceObjects, latitudes, longitudes, altitudes, colors);
+	}
+
+	/**
+	 * Sets the points from positions and colours already read, e.g. copied from the catalog on another thread
+	 * than the one building the layer. The arrays are kept by the layer.
+	 *
+	 * @param spaceObjects object of each point
+	 * @param latitudes latitude of each point (rad)
+	 * @param longitudes longitude of each point (rad)
+	 * @param altitudes altitude of each point (m)
+	 * @param colors colour of each point
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setPoints(List<SpaceObject> spaceObjects, double[] latitudes, double[] longitudes, double[] altitudes,
+			Color[] colors) {
+
+		int n = spaceObjects.size();
+		objects = new ArrayList<>(spaceObjects);
+		lat = latitudes;
+		lon = longitudes;
+		alt = altitudes;
+		if (vertices.capacity() < n*STRIDE) {
+			vertices = ByteBuffer.allocateDirect(n*STRIDE).order(ByteOrder.nativeOrder());
+		}
+		for (int k = 0; k < n; k++) {
+			putColor(k, colors[k]);
+		}
+		dirty.clear();
+		dirty.set(0, n);
+	}
+
+	/**
+	 * Adds points after the existing ones: one per object, at its current position and with its colour. The arrays
+	 * grow by doubling, so adding a catalog batch by batch costs as much as setting it at once; only the new points
+	 * are uploaded on the next frame.
+	 *
+	 * @param spaceObjects objects to be drawn in addition
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void addPoints(List<SpaceObject> spaceObjects) {
+
+		int from = objects.size();
+		int n = from + spaceObjects.size();
+		if (!(objects instanceof ArrayList)) {objects = new ArrayList<>(objects);}
+		objects.addAll(spaceObjects);
+		if (lat.length < n) {
+			int capacity = Math.max(n, 2*lat.length);
+			lat = Arrays.copyOf(lat, capacity);
+			lon = Arrays.copyOf(lon, capacity);
+			alt = Arrays.copyOf(alt, capacity);
+		}
+		if (vertices.capacity() < n*STRIDE) {
+			ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(n, 2*vertices.capacity()/STRIDE)*STRIDE)
+					.order(ByteOrder.nativeOrder());
+			vertices.rewind();
+			larger.put(vertices).rewind();
+			vertices = larger;
+		}
+		for (int k = from; k < n; k++) {
+			SpaceObject obj = objects.get(k);
+			lat[k] = obj.getCurrentLat();
+			lon[k] = obj.getCurrentLon();
+			alt[k] = obj.getCurrentAlt();
+			putColor(k, obj.getColor());
+		}
+		dirty.set(from, n);
+	}
+
+	/**
+	 * Returns the number of points.
+	 *
+	 * @return number of points
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return objects.size();
+	}
+
+	/**
+	 * Returns the object of a point.
+	 *
+	 * @param index index of the point
+	 * @return space object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public SpaceObject getObject(int index) {
+		return objects.get(index);
+	}
+
+	/**
+	 * Moves a point. The point is uploaded on the next frame.
+	 *
+	 * @param index index of the point
+	 * @param latitude latitude (rad)
+	 * @param longitude longitude (rad)
+	 * @param altitude altitude (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setPosition(int index, double latitude, double longitude, double altitude) {
+		lat[index] = latitude;
+		lon[index] = longitude;
+		alt[index] = altitude;
+		dirty.set(index);
+	}
+
+	/**
+	 * Changes the colour of a point. The point is uploaded on the next frame.
+	 *
+	 * @param index index of the point
+	 * @param color new colour
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setColor(int index, Color color) {
+		putColor(index, color);
+		dirty.set(index);
+	}
+
+	/**
+	 * Sets the size of the points.
+	 *
+	 * @param pixels size (px)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void setPointSize(double pixels) {
+		pointSize = (float) pixels;
+	}
+
+	/**
+	 * Returns the point drawn nearest to a screen position on the last frame.
+	 *
+	 * @param x x on the window, from its left (px)
+	 * @param y y on the window, from its top, as given by mouse events (px)
+	 * @param radius maximum distance (px)
+	 * @return index of the point, or -1 if no point visible on the last frame is within the radius
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int pointAt(double x, double y, double radius) {
+		int index = screen.nearest(x, y, radius);
+		return index < objects.size() ? index : -1; //the points may have been set again since
+	}
+
+	/**
+	 * Returns the screen distance between a point drawn on the last frame and a screen position.
+	 *
+	 * @param index index of the point
+	 * @param x x on the window, from its left (px)
+	 * @param y y on the window, from its top (px)
+	 * @return distance (px), NaN if the point was not visible
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public double screenDistance(int index, double x, double y) {
+		return screen.distance(index, x, y);
+	}
+
+	@Override
+	protected void doRender(DrawContext dc) {
+		draw(dc, false);
+		project(dc);
+	}
+
+	/**
+	 * Projects the points just drawn to the screen and puts the visible ones in the screen grid. Points behind
+	 * the eye or hidden by the Earth are left out; the Earth is taken as the sphere of its polar radius, so only
+	 * points surely hidden are.
+	 *
+	 * @param dc draw context
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void project(DrawContext dc) {
+
+		int n = objects.size();
+		screen.reset(n);
+		if (n == 0) {return;}
+		Matrix m = dc.getView().getProjectionMatrix().multiply(dc.getView().getModelviewMatrix());
+		Rectangle viewport = dc.getView().getViewport();
+		Vec4 eye = dc.getView().getEyePoint();
+		double r2 = dc.getGlobe().getPolarRadius()*dc.getGlobe().getPolarRadius();
+		double c = eye.x*eye.x + eye.y*eye.y + eye.z*eye.z - r2; //eye outside the sphere if positive
+
+		for (int k = 0; k < n; k++) {
+			double x = vertices.getFloat(k*STRIDE), y = vertices.getFloat(k*STRIDE + 4), z = vertices.getFloat(k*STRIDE + 8);
+
+			//Hidden if the segment from the eye hits the sphere before the point
+			double dx = x - eye.x, dy = y - eye.y, dz = z - eye.z;
+			double a = dx*dx + dy*dy + dz*dz;
+			double b = eye.x*dx + eye.y*dy + eye.z*dz; //half the linear coefficient
+			double disc = b*b - a*c;
+			if (c > 0 && disc > 0) {
+				double t = (-b - Math.sqrt(disc))/a; //first intersection along the segment
+				if (t > 0 && t < 1) {continue;}
+			}
+
+			//Clip coordinates, then window coordinates from the top left
+			double w = m.m41*x + m.m42*y + m.m43*z + m.m44;
+			if (w <= 0) {continue;} //behind the eye
+			double cx = (m.m11*x + m.m12*y + m.m13*z + m.m14)/w;
+			double cy = (m.m21*x + m.m22*y + m.m23*z + m.m24)/w;
+			screen.add(k, viewport.x + (cx + 1)/2*viewport.width,
+					viewport.height - (viewport.y + (cy + 1)/2*viewport.height));
+		}
+	}
+
+	@Override
+	protected void doPick(DrawContext dc, Point pickPoint) {
+
+		int n = objects.size();
+		if (n == 0 || pickPoint == null) {return;}
+
+		//One pick colour per point, from a contiguous range
+		int first = dc.getUniquePickColorRange(n).getRGB() & 0xFFFFFF;
+		if (pickColors.capacity() < 3*n) {pickColors = ByteBuffer.allocateDirect(3*n);}
+		for (int k = 0; k < n; k++) {
+			int code = first + k;
+			pickColors.put(3*k, (byte) (code >> 16));
+			pickColors.put(3*k + 1, (byte) (code >> 8));
+			pickColors.put(3*k + 2, (byte) code);
+		}
+		draw(dc, true);
+
+		//The colour under the pick point tells the point
+		int index = (dc.getPickColorAtPoint(pickPoint) & 0xFFFFFF) - first;
+		if (index >= 0 && index < n) {
+			PickedObject picked = new PickedObject(first + index, objects.get(index),
+					Position.fromRadians(lat[index], lon[index], alt[index]), false);
+			picked.setValue(INDEX, index);
+			dc.addPickedObject(picked);
+		}
+	}
+
+	/**
+	 * Uploads the changed points and draws every point in one call.
+	 *
+	 * @param dc draw context
+	 * @param picking true to draw with the pick colours
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void draw(DrawContext dc, boolean picking) {
+
+		int n = objects.size();
+		if (n == 0) {return;}
+		GL2 gl = dc.getGL().getGL2();
+		upload(dc, gl);
+
+		stack.pushAttrib(gl, GL2.GL_ENABLE_BIT | GL2.GL_CURRENT_BIT | GL2.GL_POINT_BIT | GL2.GL_COLOR_BUFFER_BIT);
+		stack.pushClientAttrib(gl, GL2.GL_CLIENT_VERTEX_ARRAY_BIT);
+		try {
+			gl.glDisable(GL2.GL_LIGHTING);
+			gl.glDisable(GL.GL_TEXTURE_2D);
+			gl.glEnable(GL.GL_DEPTH_TEST); //hide the points behind the Earth
+			gl.glPointSize(picking ? Math.max(pointSize, PICK_POINT_SIZE) : pointSize);
+			if (picking) {gl.glDisable(GL.GL_BLEND);}
+
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, vbo);
+			gl.glEnableClientState(GLPointerFunc.GL_VERTEX_ARRAY);
+			gl.glVertexPointer(3, GL.GL_FLOAT, STRIDE, 0);
+			gl.glEnableClientState(GLPointerFunc.GL_COLOR_ARRAY);
+			if (picking) {
+				gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+				gl.glColorPointer(3, GL.GL_UNSIGNED_BYTE, 0, pickColors.rewind()); //client array, changes every pick
+			} else {
+				gl.glColorPointer(4, GL.GL_UNSIGNED_BYTE, STRIDE, COLOR_OFFSET);
+			}
+			gl.glDrawArrays(GL.GL_POINTS, 0, n);
+		} finally {
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+			stack.pop(gl);
+		}
+	}
+
+	/**
+	 * Converts the changed points to model coordinates and uploads them. Everything is converted again when the
+	 * globe or the vertical exaggeration changed, and uploaded again when the buffer was reallocated.
+	 *
+	 * @param dc draw context
+	 * @param gl OpenGL interface
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void upload(DrawContext dc, GL2 gl) {
+
+		int n = objects.size();
+		if (dc.getGlobe() != globe || dc.getVerticalExaggeration() != exaggeration) {
+			globe = dc.getGlobe();
+			exaggeration = dc.getVerticalExaggeration();
+			dirty.set(0, n);
+		}
+
+		//Buffer of this context, large enough
+		if (vbo == 0 || vboContext != dc.getGLContext() || vboCapacity < n) {
+			int[] ids = new int[1];
+			if (vbo != 0 && vboContext == dc.getGLContext()) {
+				ids[0] = vbo;
+				gl.glDeleteBuffers(1, ids, 0);
+			}
+			gl.glGenBuffers(1, ids, 0);
+			vbo = ids[0];
+			vboCapacity = vboContext == dc.getGLContext() ? Math.max(n, 2*vboCapacity) : n; //doubles as points are added
+			vboContext = dc.getGLContext();
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, vbo);
+			gl.glBufferData(GL.GL_ARRAY_BUFFER, (long) vboCapacity*STRIDE, null, GL.GL_DYNAMIC_DRAW);
+			dirty.set(0, n);
+		} else {
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, vbo);
+		}
+
+		//Upload the runs of changed points
+		for (int from = dirty.nextSetBit(0); from >= 0 && from < n; from = dirty.nextSetBit(from)) {
+			int to = Math.min(dirty.nextClearBit(from), n);
+			for (int k = from; k < to; k++) {
+				Vec4 point = globe.computePointFromPosition(Angle.fromRadians(lat[k]), Angle.fromRadians(lon[k]),
+						alt[k]*exaggeration);
+				vertices.putFloat(k*STRIDE, (float) point.x);
+				vertices.putFloat(k*STRIDE + 4, (float) point.y);
+				vertices.putFloat(k*STRIDE + 8, (float) point.z);
+			}
+			ByteBuffer run = vertices.duplicate().order(ByteOrder.nativeOrder());
+			run.position(from*STRIDE).limit(to*STRIDE);
+			gl.glBufferSubData(GL.GL_ARRAY_BUFFER, (long) from*STRIDE, (long) (to - from)*STRIDE, run.slice());
+			from = to;
+		}
+		dirty.clear();
+		gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Writes the colour of a point to the vertex data.
+	 *
+	 * @param index index of the point
+	 * @param color colour
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void putColor(int index, Color color) {
+		int offset = index*STRIDE + COLOR_OFFSET;
+		vertices.put(offset, (byte) color.getRed());
+		vertices.put(offset + 1, (byte) color.getGreen());
+		vertices.put(offset + 2, (byte) color.getBlue());
+		vertices.put(offset + 3, (byte) color.getAlpha());
+	}
+
+	@Override
+	public String toString() {
+		return "Point cloud (" + objects.size() + " points)";
+	}
+}
@@ -0,0 +1,19 @@
+package fr.isae.mae.ss.y2024;
+
+/**
+ * Engines available to propagate the orbits of the space objects.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public enum PropagationMode {
+
+	/** Closed-form two-body solution of Kepler's equation; default and fastest mode */
+	ANALYTIC,
+
+	/** Patrius numerical propagator with a Runge-Kutta integrator; high-fidelity opt-in mode */
+	NUMERICAL,
+
+	/** SGP4/SDP4 propagation of the TLE mean elements, including the drag term */
+	SGP4
+}
@@ -0,0 +1,143 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the screen positions of a set of points, used to find the point under the mouse without a
+ * pick pass. The screen is cut into square cells and each point is linked into the list of the bucket of its
+ * cell, so a lookup only tests the points of the few cells around the cursor.
+ * <p>
+ * The grid is filled again every frame with {@link #reset(int)} and {@link #add(int, double, double)}; points
+ * that are not added, e.g. behind the Earth or the eye, cannot be found.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class ScreenGrid {
+
+	private static final int EMPTY = -1; //end of a bucket's list
+
+	private final double cellPixels; //edge of a cell (px)
+	private int mask; //number of buckets minus one
+	private int[] head = new int[0]; //first point of each bucket
+	private int[] next = new int[0]; //next point in the same bucket
+	private double[] xs = new double[0], ys = new double[0]; //screen position of each point (px), NaN if not added
+
+	/**
+	 * Creates an empty grid.
+	 *
+	 * @param cellPixels edge of a cell (px); lookups are cheapest with a radius close to it
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public ScreenGrid(double cellPixels) {
+		this.cellPixels = cellPixels;
+		reset(0);
+	}
+
+	/**
+	 * Empties the grid for a new frame.
+	 *
+	 * @param count number of points of the frame; points are numbered from 0
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void reset(int count) {
+
+		int buckets = Integer.highestOneBit(Math.max(2*count, 8) - 1) << 1; //power of two over twice the points
+		if (head.length != buckets) {head = new int[buckets];}
+		mask = buckets - 1;
+		Arrays.fill(head, EMPTY);
+		if (next.length < count) {
+			next = new int[count];
+			xs = new double[count];
+			ys = new double[count];
+		}
+		Arrays.fill(xs, Double.NaN);
+	}
+
+	/**
+	 * Adds a point at its screen position.
+	 *
+	 * @param index number of the point
+	 * @param x x on the screen (px)
+	 * @param y y on the screen (px)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void add(int index, double x, double y) {
+		xs[index] = x;
+		ys[index] = y;
+		int bucket = bucket(cell(x), cell(y));
+		next[index] = head[bucket];
+		head[bucket] = index;
+	}
+
+	/**
+	 * Returns the point nearest to a screen position within a radius.
+	 *
+	 * @param x x on the screen (px)
+	 * @param y y on the screen (px)
+	 * @param radius maximum distance (px)
+	 * @return number of the point, or -1 if no point is within the radius
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int nearest(double x, double y, double radius) {
+
+		int nearest = -1;
+		double best = radius*radius;
+		for (int cx = cell(x - radius); cx <= cell(x + radius); cx++) {
+			for (int cy = cell(y - radius); cy <= cell(y + radius); cy++) {
+				for (int index = head[bucket(cx, cy)]; index != EMPTY; index = next[index]) {
+					double dx = xs[index] - x, dy = ys[index] - y;
+					double d2 = dx*dx + dy*dy;
+					if (d2 <= best) {
+						best = d2;
+						nearest = index;
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Returns the screen distance between a point and a screen position.
+	 *
+	 * @param index number of the point
+	 * @param x x on the screen (px)
+	 * @param y y on the screen (px)
+	 * @return distance (px), NaN if the point was not added this frame
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public double distance(int index, double x, double y) {
+		return Math.hypot(xs[index] - x, ys[index] - y);
+	}
+
+	/**
+	 * Returns the index of the cell holding a coordinate along one axis.
+	 *
+	 * @param coordinate x or y (px)
+	 * @return cell index along the axis
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int cell(double coordinate) {
+		return (int) Math.floor(coordinate/cellPixels);
+	}
+
+	/**
+	 * Hashes a cell to its bucket.
+	 *
+	 * @param cx cell index along x
+	 * @param cy cell index along y
+	 * @return bucket index
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int bucket(int cx, int cy) {
+		return (cx*73856093 ^ cy*19349663) & mask;
+	}
+}
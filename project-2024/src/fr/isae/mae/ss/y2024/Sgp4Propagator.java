@@ -0,0 +1,434 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.List;
+
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLE;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLEPropagator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Batch SGP4/SDP4 propagation of TLE mean elements, following the revised SGP4 model of Vallado et al.
+ * (AIAA 2006-6753) with the WGS72 constants used to generate the TLEs.
+ * <p>
+ * The near-Earth model (period under 225 min) is initialised once per object into primitive arrays and
+ * propagated in a single loop, so a whole catalog is moved to a common date in one call. Deep-space objects
+ * need the lunar-solar and resonance terms of SDP4; they are delegated to Patrius' TLE propagator.
+ * <p>
+ * Positions are computed in TEME and converted to ITRF with one frame transform per day shared by every object.
+ * Objects whose elements cannot be propagated (decayed, eccentricity out of range) get NaN positions. A
+ * deep-space object that Patrius fails to initialise or to propagate is marked as failed and gets NaN positions
+ * from then on, so one bad TLE never stops the propagation of the others.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class Sgp4Propagator {
+
+	//WGS72 constants used by SGP4
+	private static final double RE = 6378.135; //Earth equatorial radius (km)
+	private static final double MU = 398600.8; //Earth gravitational parameter (km^3/s^2)
+	private static final double XKE = 60/Math.sqrt(RE*RE*RE/MU); //sqrt(mu) in Earth radii^1.5/min
+	private static final double J2 = 0.001082616;
+	private static final double J3 = -0.00000253881;
+	private static final double J4 = -0.00000165597;
+	private static final double J3OJ2 = J3/J2;
+	private static final double X2O3 = 2.0/3.0;
+	private static final double TWO_PI = 2*Math.PI;
+	private static final double DEEP_SPACE_PERIOD = 225; //period above which SDP4 is needed (min)
+
+	private final int n; //number of objects
+	private final Frame teme; //frame of the SGP4 output
+	private final double[] epoch; //epoch of the elements (s since J2000)
+
+	//Mean elements at epoch
+	private final double[] no, ecco, inclo, nodeo, argpo, mo, bstar;
+
+	//Initialised SGP4 coefficients
+	private final boolean[] isimp, valid;
+	private final double[] con41, cc1, cc4, cc5, d2, d3, d4, delmo, eta, argpdot, omgcof, sinmao, t2cof, t3cof,
+			t4cof, t5cof, x1mth2, x7thm1, mdot, nodedot, xlcof, xmcof, nodecf, aycof;
+
+	/** Patrius SDP4 propagators of the deep-space objects; null for near-Earth and failed objects */
+	private final TLEPropagator[] deepSpace;
+
+	/**
+	 * Initialises SGP4 for a list of space objects. Their TLE terms must have been set with
+	 * {@link SpaceObject#addTleTerms}.
+	 *
+	 * @param objects space objects with their epoch, orbit and TLE terms
+	 * @throws PatriusException if the TEME frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public Sgp4Propagator(List<SpaceObject> objects) throws PatriusException {
+
+		n = objects.size();
+		teme = FramesFactory.getTEME();
+		epoch = new double[n];
+		no = new double[n]; ecco = new double[n]; inclo = new double[n]; nodeo = new double[n];
+		argpo = new double[n]; mo = new double[n]; bstar = new double[n];
+		isimp = new boolean[n]; valid = new boolean[n];
+		con41 = new double[n]; cc1 = new double[n]; cc4 = new double[n]; cc5 = new double[n];
+		d2 = new double[n]; d3 = new double[n]; d4 = new double[n]; delmo = new double[n]; eta = new double[n];
+		argpdot = new double[n]; omgcof = new double[n]; sinmao = new double[n]; t2cof = new double[n];
+		t3cof = new double[n]; t4cof = new double[n]; t5cof = new double[n]; x1mth2 = new double[n];
+		x7thm1 = new double[n]; mdot = new double[n]; nodedot = new double[n]; xlcof = new double[n];
+		xmcof = new double[n]; nodecf = new double[n]; aycof = new double[n];
+		deepSpace = new TLEPropagator[n];
+
+		for (int k = 0; k < n; k++) {
+			SpaceObject obj = objects.get(k);
+			epoch[k] = obj.getDate().durationFrom(AbsoluteDate.J2000_EPOCH);
+			no[k] = obj.getN()*60; //rad/min
+			ecco[k] = obj.getE();
+			inclo[k] = obj.getI();
+			nodeo[k] = obj.getRAsc();
+			argpo[k] = obj.getArgPer();
+			mo[k] = obj.getTheta();
+			bstar[k] = obj.getBStar();
+			if (!initialise(k)) {
+				//deep-space object; SDP4 is handled by Patrius
+				TLE tle = new TLE(obj.getNoradId(), 'U', 0, 0, "", 0, 0, obj.getDate(), obj.getN(),
+						obj.getMeanMotionDot(), obj.getMeanMotionDDot(), obj.getE(), obj.getI(), obj.getArgPer(),
+						obj.getRAsc(), obj.getTheta(), 0, obj.getBStar());
+				try {
+					deepSpace[k] = TLEPropagator.selectExtrapolator(tle);
+					valid[k] = true;
+				} catch (PatriusException e) {
+					valid[k] = false; //NaN positions, see position
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of objects handled by the propagator.
+	 *
+	 * @return number of objects
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Propagates every object to a common date and returns the TEME positions.
+	 *
+	 * @param date AbsoluteDate of the positions
+	 * @param x array receiving the x coordinates (m)
+	 * @param y array receiving the y coordinates (m)
+	 * @param z array receiving the z coordinates (m)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagateTeme(AbsoluteDate date, double[] x, double[] y, double[] z) {
+
+		double t = date.durationFrom(AbsoluteDate.J2000_EPOCH); //s since J2000
+		double[] r = new double[3];
+		for (int k = 0; k < n; k++) {
+			position(k, t, date, r);
+			x[k] = r[0];
+			y[k] = r[1];
+			z[k] = r[2];
+		}
+	}
+
+	/**
+	 * Propagates every object to a common date and returns the ITRF positions.
+	 *
+	 * @param date AbsoluteDate of the positions
+	 * @param x array receiving the x coordinates (m); NaN if the object cannot be propagated
+	 * @param y array receiving the y coordinates (m)
+	 * @param z array receiving the z coordinates (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagateEarthFixed(AbsoluteDate date, double[] x, double[] y, double[] z) throws PatriusException {
+		propagateTeme(date, x, y, z);
+		EarthFrames.toItrf(teme, date.durationFrom(AbsoluteDate.J2000_EPOCH), x, y, z); //one transform for all
+	}
+
+	/**
+	 * Propagates every object to a common date and returns the geodetic positions.
+	 *
+	 * @param date AbsoluteDate of the positions
+	 * @param lat array receiving the latitudes (rad)
+	 * @param lon array receiving the longitudes (rad)
+	 * @param alt array receiving the altitudes (m)
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void propagate(AbsoluteDate date, double[] lat, double[] lon, double[] alt) throws PatriusException {
+		propagateTeme(date, lat, lon, alt); //x, y, z for now
+		EarthFrames.toGeodetic(teme, date, lat, lon, alt); //one transform for all
+	}
+
+	/**
+	 * Computes the geodetic position of one object some time after its epoch.
+	 *
+	 * @param k index of the object
+	 * @param dt time since the object's epoch (s)
+	 * @param geodetic array receiving latitude (rad), longitude (rad), altitude (m); NaN if the object cannot be
+	 * propagated
+	 * @throws PatriusException if the Earth frame cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void positionGeodetic(int k, double dt, double[] geodetic) throws PatriusException {
+
+		double t = epoch[k] + dt;
+		double[] r = new double[3];
+		position(k, t, deepSpace[k] == null ? null : AbsoluteDate.J2000_EPOCH.shiftedBy(t), r);
+		EarthFrames.toItrf(teme, t, r);
+		AnalyticOrbitPropagator.toGeodetic(r[0], r[1], r[2], geodetic);
+	}
+
+	/**
+	 * Computes the TEME position of one object.
+	 *
+	 * @param k index of the object
+	 * @param t date (s since J2000)
+	 * @param date same date as an AbsoluteDate; only used by deep-space objects
+	 * @param r array receiving x, y, z (m); NaN if the object cannot be propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void position(int k, double t, AbsoluteDate date, double[] r) {
+
+		TLEPropagator sdp4 = deepSpace[k];
+		if (sdp4 != null) {
+			try {
+				Vector3D p = sdp4.getPVCoordinates(date).getPosition();
+				r[0] = p.getX();
+				r[1] = p.getY();
+				r[2] = p.getZ();
+				return;
+			} catch (PatriusException e) {
+				valid[k] = false; //e.g. decayed; the closed form takes over
+				deepSpace[k] = null;
+			}
+		}
+		if (!valid[k] || !sgp4(k, (t - epoch[k])/60, r)) {
+			r[0] = Double.NaN;
+			r[1] = Double.NaN;
+			r[2] = Double.NaN;
+		}
+	}
+
+	/**
+	 * Initialises the near-Earth SGP4 coefficients of one object (sgp4init).
+	 *
+	 * @param k index of the object
+	 * @return false if the object is a deep-space object, true otherwise
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private boolean initialise(int k) {
+
+		double e = ecco[k];
+		double i = inclo[k];
+
+		//Recover the original mean motion and semi-major axis from the Kozai mean motion (initl)
+		double eccsq = e*e;
+		double omeosq = 1 - eccsq;
+		double rteosq = Math.sqrt(omeosq);
+		double cosio = Math.cos(i);
+		double cosio2 = cosio*cosio;
+		double ak = Math.pow(XKE/no[k], X2O3);
+		double d1 = 0.75*J2*(3*cosio2 - 1)/(rteosq*omeosq);
+		double del = d1/(ak*ak);
+		double adel = ak*(1 - del*del - del*(1.0/3.0 + 134*del*del/81));
+		del = d1/(adel*adel);
+		no[k] = no[k]/(1 + del); //un-Kozai'd mean motion (rad/min)
+
+		if (TWO_PI/no[k] >= DEEP_SPACE_PERIOD) {return false;}
+
+		double ao = Math.pow(XKE/no[k], X2O3); //semi-major axis (Earth radii)
+		double sinio = Math.sin(i);
+		double po = ao*omeosq;
+		double con42 = 1 - 5*cosio2;
+		con41[k] = -con42 - cosio2 - cosio2;
+		double posq = po*po;
+		double rp = ao*(1 - e);
+		valid[k] = omeosq > 0 && no[k] > 0;
+		if (!valid[k]) {return true;}
+
+		//Perigee-dependent atmosphere parameters
+		isimp[k] = rp < 220/RE + 1; //perigee below 220 km: simplified drag terms
+		double sfour = 78/RE + 1;
+		double qzms24 = Math.pow((120 - 78)/RE, 4);
+		double perige = (rp - 1)*RE;
+		if (perige < 156) {
+			sfour = perige < 98 ? 20 : perige - 78;
+			qzms24 = Math.pow((120 - sfour)/RE, 4);
+			sfour = sfour/RE + 1;
+		}
+
+		double pinvsq = 1/posq;
+		double tsi = 1/(ao - sfour);
+		eta[k] = ao*e*tsi;
+		double etasq = eta[k]*eta[k];
+		double eeta = e*eta[k];
+		double psisq = Math.abs(1 - etasq);
+		double coef = qzms24*Math.pow(tsi, 4);
+		double coef1 = coef/Math.pow(psisq, 3.5);
+		double cc2 = coef1*no[k]*(ao*(1 + 1.5*etasq + eeta*(4 + etasq))
+				+ 0.375*J2*tsi/psisq*con41[k]*(8 + 3*etasq*(8 + etasq)));
+		cc1[k] = bstar[k]*cc2;
+		double cc3 = e > 1e-4 ? -2*coef*tsi*J3OJ2*no[k]*sinio/e : 0;
+		x1mth2[k] = 1 - cosio2;
+		cc4[k] = 2*no[k]*coef1*ao*omeosq*(eta[k]*(2 + 0.5*etasq) + e*(0.5 + 2*etasq)
+				- J2*tsi/(ao*psisq)*(-3*con41[k]*(1 - 2*eeta + etasq*(1.5 - 0.5*eeta))
+				+ 0.75*x1mth2[k]*(2*etasq - eeta*(1 + etasq))*Math.cos(2*argpo[k])));
+		cc5[k] = 2*coef1*ao*omeosq*(1 + 2.75*(etasq + eeta) + eeta*etasq);
+
+		//Secular rates due to J2 and J4
+		double cosio4 = cosio2*cosio2;
+		double temp1 = 1.5*J2*pinvsq*no[k];
+		double temp2 = 0.5*temp1*J2*pinvsq;
+		double temp3 = -0.46875*J4*pinvsq*pinvsq*no[k];
+		mdot[k] = no[k] + 0.5*temp1*rteosq*con41[k] + 0.0625*temp2*rteosq*(13 - 78*cosio2 + 137*cosio4);
+		argpdot[k] = -0.5*temp1*con42 + 0.0625*temp2*(7 - 114*cosio2 + 395*cosio4)
+				+ temp3*(3 - 36*cosio2 + 49*cosio4);
+		double xhdot1 = -temp1*cosio;
+		nodedot[k] = xhdot1 + (0.5*temp2*(4 - 19*cosio2) + 2*temp3*(3 - 7*cosio2))*cosio;
+		omgcof[k] = bstar[k]*cc3*Math.cos(argpo[k]);
+		xmcof[k] = e > 1e-4 ? -X2O3*coef*bstar[k]/eeta : 0;
+		nodecf[k] = 3.5*omeosq*xhdot1*cc1[k];
+		t2cof[k] = 1.5*cc1[k];
+		double cosio1 = Math.abs(cosio + 1) > 1.5e-12 ? 1 + cosio : 1.5e-12; //avoid division by 0 at i = 180 deg
+		xlcof[k] = -0.25*J3OJ2*sinio*(3 + 5*cosio)/cosio1;
+		aycof[k] = -0.5*J3OJ2*sinio;
+		delmo[k] = Math.pow(1 + eta[k]*Math.cos(mo[k]), 3);
+		sinmao[k] = Math.sin(mo[k]);
+		x7thm1[k] = 7*cosio2 - 1;
+
+		//Higher order drag terms, only for perigees above 220 km
+		if (!isimp[k]) {
+			double cc1sq = cc1[k]*cc1[k];
+			d2[k] = 4*ao*tsi*cc1sq;
+			double temp = d2[k]*tsi*cc1[k]/3;
+			d3[k] = (17*ao + sfour)*temp;
+			d4[k] = 0.5*temp*ao*tsi*(221*ao + 31*sfour)*cc1[k];
+			t3cof[k] = d2[k] + 2*cc1sq;
+			t4cof[k] = 0.25*(3*d3[k] + cc1[k]*(12*d2[k] + 10*cc1sq));
+			t5cof[k] = 0.2*(3*d4[k] + 12*cc1[k]*d3[k] + 6*d2[k]*d2[k] + 15*cc1sq*(2*d2[k] + cc1sq));
+		}
+		return true;
+	}
+
+	/**
+	 * Propagates one near-Earth object with SGP4.
+	 *
+	 * @param k index of the object
+	 * @param tsince time since epoch (min)
+	 * @param r array receiving the TEME position x, y, z (m)
+	 * @return false if the object cannot be propagated (decayed or invalid elements)
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private boolean sgp4(int k, double tsince, double[] r) {
+
+		//Secular gravity and atmospheric drag
+		double xmdf = mo[k] + mdot[k]*tsince;
+		double argpdf = argpo[k] + argpdot[k]*tsince;
+		double nodedf = nodeo[k] + nodedot[k]*tsince;
+		double argpm = argpdf;
+		double mm = xmdf;
+		double t2 = tsince*tsince;
+		double nodem = nodedf + nodecf[k]*t2;
+		double tempa = 1 - cc1[k]*tsince;
+		double tempe = bstar[k]*cc4[k]*tsince;
+		double templ = t2cof[k]*t2;
+		if (!isimp[k]) {
+			double delomg = omgcof[k]*tsince;
+			double delmtemp = 1 + eta[k]*Math.cos(xmdf);
+			double delm = xmcof[k]*(delmtemp*delmtemp*delmtemp - delmo[k]);
+			double temp = delomg + delm;
+			mm = xmdf + temp;
+			argpm = argpdf - temp;
+			double t3 = t2*tsince;
+			double t4 = t3*tsince;
+			tempa = tempa - d2[k]*t2 - d3[k]*t3 - d4[k]*t4;
+			tempe = tempe + bstar[k]*cc5[k]*(Math.sin(mm) - sinmao[k]);
+			templ = templ + t3cof[k]*t3 + t4*(t4cof[k] + tsince*t5cof[k]);
+		}
+
+		double am = Math.pow(XKE/no[k], X2O3)*tempa*tempa;
+		double em = ecco[k] - tempe;
+		if (em >= 1 || em < -0.001 || am < 0.95) {return false;} //eccentricity out of range or decayed
+		if (em < 1e-6) {em = 1e-6;}
+		mm = mm + no[k]*templ;
+		double xlm = mm + argpm + nodem;
+		nodem = nodem % TWO_PI;
+		argpm = argpm % TWO_PI;
+		xlm = xlm % TWO_PI;
+		mm = (xlm - argpm - nodem) % TWO_PI;
+
+		//Long period periodics
+		double sinip = Math.sin(inclo[k]);
+		double cosip = Math.cos(inclo[k]);
+		double axnl = em*Math.cos(argpm);
+		double temp = 1/(am*(1 - em*em));
+		double aynl = em*Math.sin(argpm) + temp*aycof[k];
+		double xl = mm + argpm + nodem + temp*xlcof[k]*axnl;
+
+		//Solve Kepler's equation in the modified form
+		double u = (xl - nodem) % TWO_PI;
+		double eo1 = u;
+		double tem5 = 9999.9;
+		double sineo1 = 0, coseo1 = 0;
+		for (int ktr = 0; Math.abs(tem5) >= 1e-12 && ktr < 10; ktr++) {
+			sineo1 = Math.sin(eo1);
+			coseo1 = Math.cos(eo1);
+			tem5 = (u - aynl*coseo1 + axnl*sineo1 - eo1)/(1 - coseo1*axnl - sineo1*aynl);
+			if (Math.abs(tem5) >= 0.95) {tem5 = tem5 > 0 ? 0.95 : -0.95;} //limit the correction
+			eo1 = eo1 + tem5;
+		}
+
+		//Short period preliminary quantities
+		double ecose = axnl*coseo1 + aynl*sineo1;
+		double esine = axnl*sineo1 - aynl*coseo1;
+		double el2 = axnl*axnl + aynl*aynl;
+		double pl = am*(1 - el2);
+		if (pl < 0) {return false;}
+		double rl = am*(1 - ecose);
+		double betal = Math.sqrt(1 - el2);
+		temp = esine/(1 + betal);
+		double sinu = am/rl*(sineo1 - aynl - axnl*temp);
+		double cosu = am/rl*(coseo1 - axnl + aynl*temp);
+		double su = Math.atan2(sinu, cosu);
+		double sin2u = (cosu + cosu)*sinu;
+		double cos2u = 1 - 2*sinu*sinu;
+		temp = 1/pl;
+		double temp1 = 0.5*J2*temp;
+		double temp2 = temp1*temp;
+
+		//Update for short period periodics
+		double mrt = rl*(1 - 1.5*temp2*betal*con41[k]) + 0.5*temp1*x1mth2[k]*cos2u;
+		if (mrt < 1) {return false;} //below the Earth's surface: decayed
+		su = su - 0.25*temp2*x7thm1[k]*sin2u;
+		double xnode = nodem + 1.5*temp2*cosip*sin2u;
+		double xinc = inclo[k] + 1.5*temp2*cosip*sinip*cos2u;
+
+		//Orientation vectors
+		double sinsu = Math.sin(su), cossu = Math.cos(su);
+		double snod = Math.sin(xnode), cnod = Math.cos(xnode);
+		double sini = Math.sin(xinc), cosi = Math.cos(xinc);
+		double xmx = -snod*cosi;
+		double xmy = cnod*cosi;
+		double scale = mrt*RE*1000; //Earth radii to m
+		r[0] = scale*(xmx*sinsu + cnod*cossu);
+		r[1] = scale*(xmy*sinsu + snod*cossu);
+		r[2] = scale*sini*sinsu;
+		return true;
+	}
+}
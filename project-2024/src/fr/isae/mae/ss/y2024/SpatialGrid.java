@@ -0,0 +1,299 @@
+package fr.isae.mae.ss.y2024;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the current positions of a set of rows of a {@link CatalogStore}, used for radius queries
+ * such as the contact checks of the mouse dot. Space is cut into cubic cells and each row is linked into the
+ * list of the bucket of its cell, so a query only tests the rows of the cells overlapping the query sphere.
+ * <p>
+ * Positions are read from the store's Cartesian columns. The grid rebuilds itself on the next query when the
+ * store's positions changed, which is linear in the number of rows; when the rows that moved are known, e.g. the
+ * rows of an animation frame, {@link #update(int[])} relocates them after each change instead, and queries then
+ * find the grid up to date.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class SpatialGrid {
+
+	private static final int EMPTY = -1; //end of a bucket's list
+
+	private final CatalogStore store; //store holding the positions
+	private int[] rows; //rows indexed by the grid; a slot is an index in this array
+	private int count; //slots in use
+	private final double cellSize; //edge of a cell (m)
+	private int mask; //number of buckets minus one
+
+	private int[] head; //first slot of each bucket
+	private int[] next; //next slot in the same bucket
+	private int[] prev; //previous slot in the same bucket
+	private int[] bucketOf; //bucket of each slot
+	private int[] slotOfRow = new int[0]; //slot of each row of the store, or EMPTY
+	private int version = -1; //position version of the store the grid was built for
+
+	/**
+	 * Creates the grid of some rows of a store.
+	 *
+	 * @param store store holding the positions
+	 * @param rows rows to be indexed
+	 * @param cellSize edge of a cell (m); queries are cheapest with a radius close to it
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public SpatialGrid(CatalogStore store, int[] rows, double cellSize) {
+
+		this.store = store;
+		this.rows = rows.clone();
+		count = rows.length;
+		this.cellSize = cellSize;
+		head = new int[buckets(count)];
+		mask = head.length - 1;
+		next = new int[count];
+		prev = new int[count];
+		bucketOf = new int[count];
+	}
+
+	/**
+	 * Returns the number of rows in the grid.
+	 *
+	 * @return number of rows
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the rows whose current position is within a distance of a point, with the same distances as
+	 * {@link CatalogStore#withinDistance}.
+	 *
+	 * @param x x of the point (m)
+	 * @param y y of the point (m)
+	 * @param z z of the point (m)
+	 * @param radius maximum distance (m)
+	 * @return rows within the distance, in increasing order
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int[] withinDistance(double x, double y, double z, double radius) {
+
+		if (version != store.getPositionVersion()) {rebuild();}
+
+		int x0 = cell(x - radius), x1 = cell(x + radius);
+		int y0 = cell(y - radius), y1 = cell(y + radius);
+		int z0 = cell(z - radius), z1 = cell(z + radius);
+		int[] visited = new int[8]; //buckets already tested; different cells can share a bucket
+		int nVisited = 0;
+		int[] found = new int[8];
+		int count = 0;
+		double radius2 = radius*radius;
+
+		for (int ix = x0; ix <= x1; ix++) {
+			for (int iy = y0; iy <= y1; iy++) {
+				for (int iz = z0; iz <= z1; iz++) {
+					int bucket = bucket(ix, iy, iz);
+					if (contains(visited, nVisited, bucket)) {continue;}
+					if (nVisited == visited.length) {visited = Arrays.copyOf(visited, 2*nVisited);}
+					visited[nVisited++] = bucket;
+
+					//test every row of the bucket
+					for (int slot = head[bucket]; slot != EMPTY; slot = next[slot]) {
+						int row = rows[slot];
+						double dx = store.currentX[row] - x;
+						double dy = store.currentY[row] - y;
+						double dz = store.currentZ[row] - z;
+						if (dx*dx + dy*dy + dz*dz <= radius2) {
+							if (count == found.length) {found = Arrays.copyOf(found, 2*count);}
+							found[count++] = row;
+						}
+					}
+				}
+			}
+		}
+		found = Arrays.copyOf(found, count);
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Moves some rows to the cells of their new positions. Only valid if these rows are the only ones whose
+	 * position changed since the grid was last built or updated; otherwise the next query rebuilds the grid.
+	 *
+	 * @param movedRows rows of the store whose position changed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void update(int[] movedRows) {
+
+		if (version < 0) { //never built
+			rebuild();
+			return;
+		}
+		for (int row : movedRows) {
+			int slot = row < slotOfRow.length ? slotOfRow[row] : EMPTY;
+			if (slot == EMPTY) {continue;} //not in this grid
+			int bucket = bucketOfRow(row);
+			if (bucket != bucketOf[slot]) {
+				unlink(slot);
+				link(slot, bucket);
+			}
+		}
+		version = store.getPositionVersion();
+	}
+
+	/**
+	 * Adds rows to the grid, e.g. the objects appended to the catalog by a load batch. As for
+	 * {@link #update(int[])}, the rows already in the grid must not have moved since it was last built or updated;
+	 * the arrays grow by doubling, so a catalog added batch by batch costs about one build.
+	 *
+	 * @param newRows rows of the store not in the grid yet
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void add(int[] newRows) {
+
+		int from = count;
+		count += newRows.length;
+		if (count > rows.length) {
+			int capacity = Math.max(count, 2*rows.length);
+			rows = Arrays.copyOf(rows, capacity);
+			next = Arrays.copyOf(next, capacity);
+			prev = Arrays.copyOf(prev, capacity);
+			bucketOf = Arrays.copyOf(bucketOf, capacity);
+		}
+		System.arraycopy(newRows, 0, rows, from, newRows.length);
+		if (version < 0) {return;} //never built; built with every row on the first query
+
+		if (2*count > head.length) { //too many rows per bucket: more buckets, every row placed again
+			head = new int[buckets(2*count)];
+			mask = head.length - 1;
+			rebuild();
+			return;
+		}
+		if (slotOfRow.length < store.size()) {
+			int old = slotOfRow.length;
+			slotOfRow = Arrays.copyOf(slotOfRow, Math.max(store.size(), 2*old));
+			Arrays.fill(slotOfRow, old, slotOfRow.length, EMPTY);
+		}
+		for (int slot = from; slot < count; slot++) {
+			slotOfRow[rows[slot]] = slot;
+			link(slot, bucketOfRow(rows[slot]));
+		}
+		version = store.getPositionVersion();
+	}
+
+	/**
+	 * Puts every row in the cell of its current position.
+	 *
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public void rebuild() {
+
+		Arrays.fill(head, EMPTY);
+		if (slotOfRow.length < store.size()) {slotOfRow = new int[store.size()];}
+		Arrays.fill(slotOfRow, EMPTY);
+		for (int slot = 0; slot < count; slot++) {
+			slotOfRow[rows[slot]] = slot;
+			link(slot, bucketOfRow(rows[slot]));
+		}
+		version = store.getPositionVersion();
+	}
+
+	/**
+	 * Returns the number of buckets for a number of rows.
+	 *
+	 * @param rows number of rows
+	 * @return power of two over twice the rows
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static int buckets(int rows) {
+		return Integer.highestOneBit(Math.max(2*rows, 8) - 1) << 1;
+	}
+
+	/**
+	 * Inserts a slot at the front of a bucket's list.
+	 *
+	 * @param slot slot to be inserted
+	 * @param bucket bucket of the slot's cell
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void link(int slot, int bucket) {
+		bucketOf[slot] = bucket;
+		prev[slot] = EMPTY;
+		next[slot] = head[bucket];
+		if (head[bucket] != EMPTY) {prev[head[bucket]] = slot;}
+		head[bucket] = slot;
+	}
+
+	/**
+	 * Removes a slot from its bucket's list.
+	 *
+	 * @param slot slot to be removed
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private void unlink(int slot) {
+		if (prev[slot] != EMPTY) {next[prev[slot]] = next[slot];} else {head[bucketOf[slot]] = next[slot];}
+		if (next[slot] != EMPTY) {prev[next[slot]] = prev[slot];}
+	}
+
+	/**
+	 * Returns the bucket of the cell holding a row's current position.
+	 *
+	 * @param row row of the store
+	 * @return bucket index
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int bucketOfRow(int row) {
+		return bucket(cell(store.currentX[row]), cell(store.currentY[row]), cell(store.currentZ[row]));
+	}
+
+	/**
+	 * Returns the index of the cell holding a coordinate along one axis.
+	 *
+	 * @param coordinate x, y or z (m)
+	 * @return cell index along the axis
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int cell(double coordinate) {
+		return (int) Math.floor(coordinate/cellSize);
+	}
+
+	/**
+	 * Hashes a cell to its bucket.
+	 *
+	 * @param ix cell index along x
+	 * @param iy cell index along y
+	 * @param iz cell index along z
+	 * @return bucket index
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private int bucket(int ix, int iy, int iz) {
+		return (ix*73856093 ^ iy*19349663 ^ iz*83492791) & mask;
+	}
+
+	/**
+	 * Tells if a value is in the first entries of an array.
+	 *
+	 * @param values array to be searched
+	 * @param count number of entries in use
+	 * @param value value to be found
+	 * @return true if the value is found
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static boolean contains(int[] values, int count, int value) {
+		for (int k = 0; k < count; k++) {
+			if (values[k] == value) {return true;}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,274 @@
+package fr.isae.mae.ss.y2024;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser of SpaceTrack's 3LE catalogs. The file is memory-mapped in windows and the fixed-column
+ * fields of lines 1 and 2 are parsed straight from the bytes into primitives; only the object's name becomes
+ * a String. Each record is handed to the consumer as soon as its line 2 has been read, so the consumer can
+ * start working before the rest of the file is parsed.
+ * <p>
+ * Rows that are not part of a complete 0/1/2 record, or that are too short, are ignored.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public final class TleParser {
+
+	private static final long WINDOW = 1L << 28; //bytes mapped at once (256 MB)
+	private static final int TLE_LINE_LENGTH = 63; //columns read from lines 1 and 2
+	private static final double DEG = Math.PI/180; //degrees to radians
+	private static final double DAY = 86400; //length of a day (s)
+	private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+	private TleParser() {} //static methods only
+
+	/**
+	 * Parses a 3LE catalog and hands every complete record to a consumer, in file order. The time spent reading
+	 * the file and parsing it, without the consumer, is recorded in {@link Metrics}.
+	 *
+	 * @param file path of the .txt file
+	 * @param consumer receives each record as soon as it is parsed; a new record is created for each object
+	 * @return number of records parsed
+	 * @throws IOException if the file cannot be read
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public static int parse(Path file, Consumer<TleRecord> consumer) throws IOException {
+
+		long start = System.nanoTime(); //plain clock: the parse time is recorded with the other time subtracted
+		long otherNanos = 0; //time spent mapping the file and in the consumer, not parsing
+		int count = 0;
+		TleRecord record = null; //record being filled
+		boolean hasLine1 = false; //line 1 of the current record was read
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long windowStart = 0;
+			while (windowStart < size) {
+
+				//Map the next window and stop it at the last complete line
+				long windowSize = Math.min(WINDOW, size - windowStart);
+				long readStart = Metrics.start();
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+				buffer.load(); //read the window now, so that reading and parsing are measured apart
+				Metrics.stop(Metrics.Phase.LOAD_READ, readStart, windowSize);
+				otherNanos += System.nanoTime() - readStart;
+				int limit = (int) windowSize;
+				if (windowStart + windowSize < size) {
+					while (limit > 0 && buffer.get(limit - 1) != '\n') {limit--;}
+					if (limit == 0) {throw new IOException("Line longer than " + WINDOW + " bytes in " + file);}
+				}
+
+				//Parse line by line
+				int lineStart = 0;
+				while (lineStart < limit) {
+					int lineEnd = lineStart;
+					while (lineEnd < limit && buffer.get(lineEnd) != '\n') {lineEnd++;}
+					int contentEnd = lineEnd;
+					if (contentEnd > lineStart && buffer.get(contentEnd - 1) == '\r') {contentEnd--;} //Windows line ends
+
+					if (contentEnd > lineStart) {
+						switch (buffer.get(lineStart)) {
+						case '0': //line 0 only contains the name of the object
+							record = new TleRecord();
+							record.name = ascii(buffer, lineStart + 1, contentEnd); //name without row index
+							hasLine1 = false;
+							break;
+						case '1': //line 1 contains the epoch time (UTC) and the drag terms
+							if (record != null && contentEnd - lineStart >= TLE_LINE_LENGTH) {
+								parseLine1(buffer, lineStart, record);
+								hasLine1 = true;
+							}
+							break;
+						case '2': //line 2 contains the orbit parameters; the record is complete
+							if (record != null && hasLine1 && contentEnd - lineStart >= TLE_LINE_LENGTH) {
+								parseLine2(buffer, lineStart, record);
+								long consumerStart = System.nanoTime();
+								consumer.accept(record);
+								otherNanos += System.nanoTime() - consumerStart;
+								count++;
+							}
+							record = null;
+							break;
+						default:
+						}
+					}
+					lineStart = lineEnd + 1;
+				}
+				windowStart += limit;
+			}
+		}
+		Metrics.record(Metrics.Phase.LOAD_PARSE, System.nanoTime() - start - otherNanos, count);
+		return count;
+	}
+
+	/**
+	 * Parses the epoch, catalog number and drag terms of line 1.
+	 *
+	 * @param b buffer holding the line
+	 * @param s index of the first character of the line
+	 * @param record record receiving the fields
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static void parseLine1(MappedByteBuffer b, int s, TleRecord record) {
+
+		record.noradId = parseCatalogNumber(b, s + 2, s + 7);
+		int year = (int) parseDecimal(b, s + 18, s + 20);
+		record.epochYear = year < 57 ? 2000 + year : 1900 + year; //TLE years start in 1957
+		record.epochDay = parseDecimal(b, s + 20, s + 32);
+		record.nDot = parseDecimal(b, s + 33, s + 43)*2*2*Math.PI/(DAY*DAY); //field holds nDot/2 (rev/day^2)
+		record.nDDot = parseExponent(b, s + 44, s + 52)*6*2*Math.PI/(DAY*DAY*DAY); //field holds nDDot/6 (rev/day^3)
+		record.bStar = parseExponent(b, s + 53, s + 61);
+	}
+
+	/**
+	 * Parses the orbit parameters of line 2.
+	 *
+	 * @param b buffer holding the line
+	 * @param s index of the first character of the line
+	 * @param record record receiving the fields
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static void parseLine2(MappedByteBuffer b, int s, TleRecord record) {
+
+		record.i = parseDecimal(b, s + 8, s + 16)*DEG; //inclination (rad)
+		record.rAsc = parseDecimal(b, s + 17, s + 25)*DEG; //right ascension of ascending node (rad)
+		record.e = parseImpliedDecimal(b, s + 26, s + 33); //eccentricity
+		record.argPer = parseDecimal(b, s + 34, s + 42)*DEG; //argument of the perigee (rad)
+		record.theta = parseDecimal(b, s + 43, s + 51)*DEG; //mean anomaly (rad)
+		record.n = parseDecimal(b, s + 52, s + 63)*2*Math.PI/DAY; //mean motion (rad/s)
+	}
+
+	/**
+	 * Parses a decimal number such as " 34.2564" or "-.00000023". Spaces are ignored.
+	 *
+	 * @param b buffer holding the field
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return value of the field; 0 if it is blank
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double parseDecimal(MappedByteBuffer b, int start, int end) {
+
+		long mantissa = 0;
+		int decimals = -1; //digits after the decimal point; -1 before the point
+		boolean negative = false;
+		for (int k = start; k < end; k++) {
+			byte c = b.get(k);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa*10 + (c - '0');
+				if (decimals >= 0) {decimals++;}
+			} else if (c == '.') {
+				decimals = 0;
+			} else if (c == '-') {
+				negative = true;
+			}
+		}
+		double value = decimals > 0 ? mantissa/POWERS_OF_TEN[decimals] : mantissa;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses a number written with an implied leading decimal point, such as the eccentricity "1843128".
+	 *
+	 * @param b buffer holding the field
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return value of the field
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double parseImpliedDecimal(MappedByteBuffer b, int start, int end) {
+
+		long mantissa = 0;
+		int digits = 0;
+		for (int k = start; k < end; k++) {
+			byte c = b.get(k);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa*10 + (c - '0');
+				digits++;
+			}
+		}
+		return mantissa/POWERS_OF_TEN[digits];
+	}
+
+	/**
+	 * Parses a number written with an implied leading decimal point and a power of ten, such as
+	 * " 66088-3" for 0.66088e-3 or "-11606-4" for -0.11606e-4.
+	 *
+	 * @param b buffer holding the field
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return value of the field
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static double parseExponent(MappedByteBuffer b, int start, int end) {
+
+		//the exponent is the last character, preceded by its sign
+		int exponent = b.get(end - 1) - '0';
+		if (exponent < 0 || exponent > 9) {return parseImpliedDecimal(b, start, end);} //no exponent
+		byte expSign = b.get(end - 2);
+		double mantissa = parseImpliedDecimal(b, start, end - 2);
+		for (int k = start; k < end - 2; k++) {
+			if (b.get(k) == '-') {mantissa = -mantissa;}
+		}
+		return expSign == '-' ? mantissa/POWERS_OF_TEN[exponent] : mantissa*POWERS_OF_TEN[exponent];
+	}
+
+	/**
+	 * Parses a catalog number, either numeric or in the Alpha-5 format used above 99999 (a letter
+	 * worth 10 to 33, skipping I and O, followed by 4 digits).
+	 *
+	 * @param b buffer holding the field
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return catalog number
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	static int parseCatalogNumber(MappedByteBuffer b, int start, int end) {
+
+		int value = 0;
+		for (int k = start; k < end; k++) {
+			byte c = b.get(k);
+			if (c >= '0' && c <= '9') {
+				value = value*10 + (c - '0');
+			} else if (c >= 'A' && c <= 'Z') {
+				int letter = c - 'A' + 10;
+				if (c > 'I') {letter--;} //I is not used
+				if (c > 'O') {letter--;} //O is not used
+				value = value*10 + letter;
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Decodes a range of ASCII bytes into a String.
+	 *
+	 * @param b buffer holding the text
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return decoded text
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static String ascii(MappedByteBuffer b, int start, int end) {
+
+		byte[] bytes = new byte[end - start];
+		for (int k = start; k < end; k++) {bytes[k - start] = b.get(k);}
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
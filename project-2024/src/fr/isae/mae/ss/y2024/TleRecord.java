@@ -0,0 +1,47 @@
+package fr.isae.mae.ss.y2024;
+
+/**
+ * Fields of one 3-line TLE record (name, line 1 and line 2), already converted to SI units.
+ * Filled by {@link TleParser} straight from the bytes of the catalog.
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class TleRecord {
+
+	String name = ""; //line 0 without the row index
+	int noradId; //catalog number
+	int epochYear; //year of the epoch (4 digits)
+	double epochDay; //day of the year of the epoch, with its fraction (1.0 is January 1st 00:00)
+	double nDot; //first derivative of mean motion (rad/s^2)
+	double nDDot; //second derivative of mean motion (rad/s^3)
+	double bStar; //B* drag term (1/earth radii)
+	double i; //inclination (rad)
+	double rAsc; //right ascension of ascending node (rad)
+	double e; //eccentricity
+	double argPer; //argument of the perigee (rad)
+	double theta; //mean anomaly (rad)
+	double n; //mean motion (rad/s)
+
+	/**
+	 * Returns the object's name.
+	 *
+	 * @return String containing name of the object
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the object's catalog number.
+	 *
+	 * @return NORAD catalog number
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	public int getNoradId() {
+		return noradId;
+	}
+}
@@ -0,0 +1,139 @@
+package fr.isae.mae.ss.y2024;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.isae.mae.ss.y2024.ObjectGatherer.SpaceObject;
+
+/**
+ * Checks the near-Earth SGP4 of {@link Sgp4Propagator} against the verification cases published with the
+ * revised SGP4 (Vallado et al., AIAA 2006-6753, files SGP4-VER.TLE and tcppver.out).
+ *
+ * @since 17/10/2026
+ * @author joaom
+ */
+public class Sgp4PropagatorTest {
+
+	private static final double TOLERANCE = 1; //largest position error accepted (m)
+
+	/**
+	 * 00005 (Vanguard 1): eccentric near-Earth orbit with the higher order drag terms.
+	 *
+	 * @throws Exception if the TLE cannot be read or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Test
+	public void vanguard() throws Exception {
+		SpaceObject object = read("0 00005",
+				"1 00005U 58002B   00179.78495062  .00000023  00000-0  28098-4 0  4753",
+				"2 00005  34.2682 348.7242 1859667 331.7664  19.3264 10.82419157413667");
+		check(object, 0, 7022.46529266, -1400.08296755, 0.03995155);
+		check(object, 360, -7154.03120202, -3783.17682504, -3536.19412294);
+		check(object, 720, -7134.59340119, 6531.68641334, 3260.27186483);
+		check(object, 1080, 5568.53901181, 4492.06992591, 3863.87641983);
+	}
+
+	/**
+	 * 28057: near circular, sun-synchronous orbit.
+	 *
+	 * @throws Exception if the TLE cannot be read or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Test
+	public void nearCircular() throws Exception {
+		SpaceObject object = read("0 28057",
+				"1 28057U 03049A   06177.78615833  .00000060  00000-0  35940-4 0  1836",
+				"2 28057  98.4283 247.6961 0000884  88.1964 271.9322 14.35478080140550");
+		check(object, 0, -2715.28237486, -6619.26436889, -0.01341443);
+	}
+
+	/**
+	 * A refresh overwriting the elements of an object must propagate the new elements, not those the object's
+	 * propagator was built from.
+	 *
+	 * @throws Exception if the TLEs cannot be read or propagated
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	@Test
+	public void refreshedElements() throws Exception {
+		SpaceObject object = read("0 00005",
+				"1 00005U 58002B   00179.78495062  .00000023  00000-0  28098-4 0  4753",
+				"2 00005  34.2682 348.7242 1859667 331.7664  19.3264 10.82419157413667");
+		SpaceObject newer = read("0 28057",
+				"1 28057U 03049A   06177.78615833  .00000060  00000-0  35940-4 0  1836",
+				"2 28057  98.4283 247.6961 0000884  88.1964 271.9322 14.35478080140550");
+		CatalogStore catalog = object.getStore();
+		new CatalogRefresh(1, newer.getStore(), new int[] {0}, new CatalogStore(1), new int[0], 0).apply(catalog);
+
+		AbsoluteDate date = object.getDate().shiftedBy(3600);
+		object.addCurrentPosition(date);
+		double[] lat = new double[1], lon = new double[1], alt = new double[1];
+		new Sgp4Propagator(Collections.singletonList(object)).propagate(date, lat, lon, alt);
+		assertEquals("latitude", lat[0], object.getCurrentLat(), 1e-9);
+		assertEquals("longitude", lon[0], object.getCurrentLon(), 1e-9);
+		assertEquals("altitude", alt[0], object.getCurrentAlt(), 1e-3);
+	}
+
+	/**
+	 * Builds a space object from a 3-line TLE, through the parser used for the catalog.
+	 *
+	 * @param lines line 0, line 1 and line 2
+	 * @return space object with the TLE's epoch, orbit and drag terms
+	 * @throws IOException if the temporary catalog cannot be written
+	 * @throws PatriusException if the object cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static SpaceObject read(String... lines) throws IOException, PatriusException {
+
+		Path file = Files.createTempFile("sgp4", ".txt");
+		try {
+			Files.write(file, String.join("\n", lines).concat("\n").getBytes(StandardCharsets.US_ASCII));
+			List<TleRecord> records = new ArrayList<>();
+			TleParser.parse(file, records::add);
+			assertEquals(1, records.size());
+			TleRecord record = records.get(0);
+			AbsoluteDate epoch = ObjectGatherer.yearDayToUTC(record.epochYear, record.epochDay);
+			return ObjectGatherer.buildObject(record, epoch, PropagationMode.SGP4, new CatalogStore(1));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Propagates an object and compares its TEME position with the reference.
+	 *
+	 * @param object space object
+	 * @param tsince time since epoch (min)
+	 * @param x reference x (km)
+	 * @param y reference y (km)
+	 * @param z reference z (km)
+	 * @throws PatriusException if the propagator cannot be built
+	 * @since 17/10/2026
+	 * @author joaom
+	 */
+	private static void check(SpaceObject object, double tsince, double x, double y, double z)
+			throws PatriusException {
+
+		Sgp4Propagator propagator = new Sgp4Propagator(Collections.singletonList(object));
+		double[] px = new double[1], py = new double[1], pz = new double[1];
+		propagator.propagateTeme(object.getDate().shiftedBy(tsince*60), px, py, pz);
+		assertEquals("x at " + tsince + " min", x*1000, px[0], TOLERANCE);
+		assertEquals("y at " + tsince + " min", y*1000, py[0], TOLERANCE);
+		assertEquals("z at " + tsince + " min", z*1000, pz[0], TOLERANCE);
+	}
+}